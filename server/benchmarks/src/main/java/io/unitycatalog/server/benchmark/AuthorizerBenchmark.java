@@ -0,0 +1,149 @@
+package io.unitycatalog.server.benchmark;
+
+import io.unitycatalog.server.auth.IndexedAuthorizer;
+import io.unitycatalog.server.auth.JCasbinAuthorizer;
+import io.unitycatalog.server.auth.UnityCatalogAuthorizer;
+import io.unitycatalog.server.persist.model.Privileges;
+import io.unitycatalog.server.persist.utils.HibernateConfigurator;
+import io.unitycatalog.server.utils.ServerProperties;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link JCasbinAuthorizer} and the {@link IndexedAuthorizer} on a metastore with
+ * {@value #NUM_CATALOGS} catalogs of {@value #NUM_SCHEMAS} schemas of {@value #NUM_TABLES} tables
+ * each, and {@value #NUM_PRINCIPALS} principals that can each use one catalog and schema and
+ * select from {@value #NUM_GRANTED_TABLES} tables.
+ *
+ * <p>Run with {@code build/sbt "serverBenchmarks/Jmh/run AuthorizerBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AuthorizerBenchmark {
+  static final int NUM_CATALOGS = 10;
+  static final int NUM_SCHEMAS = 10;
+  static final int NUM_TABLES = 100;
+  static final int NUM_PRINCIPALS = 100;
+  static final int NUM_GRANTED_TABLES = 10;
+  private static final int NUM_REQUESTS = 1 << 16;
+
+  @Param({"jcasbin", "indexed"})
+  public String authorizerType;
+
+  private HibernateConfigurator hibernateConfigurator;
+  private UnityCatalogAuthorizer authorizer;
+  private final List<UUID> principals = new ArrayList<>();
+  private final List<UUID> tables = new ArrayList<>();
+  private UUID[] requestPrincipals;
+  private UUID[] requestTables;
+  private int request;
+
+  @Setup
+  public void setUp() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("server.env", "test");
+    ServerProperties serverProperties = new ServerProperties(properties);
+    hibernateConfigurator = new HibernateConfigurator(serverProperties);
+    authorizer =
+        authorizerType.equals("jcasbin")
+            ? new JCasbinAuthorizer(hibernateConfigurator)
+            : new IndexedAuthorizer(hibernateConfigurator);
+
+    UUID metastore = UUID.randomUUID();
+    List<UUID> catalogs = new ArrayList<>();
+    List<UUID> schemas = new ArrayList<>();
+    for (int c = 0; c < NUM_CATALOGS; c++) {
+      UUID catalog = UUID.randomUUID();
+      catalogs.add(catalog);
+      authorizer.addHierarchyChild(metastore, catalog);
+      for (int s = 0; s < NUM_SCHEMAS; s++) {
+        UUID schema = UUID.randomUUID();
+        schemas.add(schema);
+        authorizer.addHierarchyChild(catalog, schema);
+        for (int t = 0; t < NUM_TABLES; t++) {
+          UUID table = UUID.randomUUID();
+          tables.add(table);
+          authorizer.addHierarchyChild(schema, table);
+        }
+      }
+    }
+
+    Random random = new Random(42);
+    for (int p = 0; p < NUM_PRINCIPALS; p++) {
+      UUID principal = UUID.randomUUID();
+      principals.add(principal);
+      int schema = random.nextInt(schemas.size());
+      authorizer.grantAuthorization(
+          principal, catalogs.get(schema / NUM_SCHEMAS), Privileges.USE_CATALOG);
+      authorizer.grantAuthorization(principal, schemas.get(schema), Privileges.USE_SCHEMA);
+      for (int t = 0; t < NUM_GRANTED_TABLES; t++) {
+        authorizer.grantAuthorization(
+            principal, tables.get(random.nextInt(tables.size())), Privileges.SELECT);
+      }
+    }
+
+    requestPrincipals = new UUID[NUM_REQUESTS];
+    requestTables = new UUID[NUM_REQUESTS];
+    for (int i = 0; i < NUM_REQUESTS; i++) {
+      requestPrincipals[i] = principals.get(random.nextInt(principals.size()));
+      requestTables[i] = tables.get(random.nextInt(tables.size()));
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    if (authorizer instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+    hibernateConfigurator.getSessionFactory().close();
+  }
+
+  private int nextRequest() {
+    request = (request + 1) & (NUM_REQUESTS - 1);
+    return request;
+  }
+
+  @Benchmark
+  public boolean authorize() {
+    int i = nextRequest();
+    return authorizer.authorize(requestPrincipals[i], requestTables[i], Privileges.SELECT);
+  }
+
+  @Benchmark
+  public Object listAuthorizations() {
+    return authorizer.listAuthorizations(requestTables[nextRequest()]);
+  }
+
+  @Benchmark
+  public UUID getHierarchyParent() {
+    return authorizer.getHierarchyParent(requestTables[nextRequest()]);
+  }
+
+  @Benchmark
+  public boolean grantAndRevoke() {
+    int i = nextRequest();
+    authorizer.grantAuthorization(requestPrincipals[i], requestTables[i], Privileges.MODIFY);
+    return authorizer.revokeAuthorization(
+        requestPrincipals[i], requestTables[i], Privileges.MODIFY);
+  }
+}
@@ -0,0 +1,129 @@
+package io.unitycatalog.server.benchmark;
+
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import io.unitycatalog.server.model.ColumnInfo;
+import io.unitycatalog.server.model.ColumnTypeName;
+import io.unitycatalog.server.model.CreateCatalog;
+import io.unitycatalog.server.model.CreateSchema;
+import io.unitycatalog.server.model.CreateTable;
+import io.unitycatalog.server.model.DataSourceFormat;
+import io.unitycatalog.server.model.ListTablesResponse;
+import io.unitycatalog.server.model.TableType;
+import io.unitycatalog.server.persist.Repositories;
+import io.unitycatalog.server.persist.TableRepository;
+import io.unitycatalog.server.persist.utils.HibernateConfigurator;
+import io.unitycatalog.server.utils.ServerProperties;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures how many tables per second {@link TableRepository#listTables} returns for a schema with
+ * {@value #NUM_TABLES} tables of {@value #NUM_COLUMNS} columns each, paging through the whole
+ * schema with the default page size.
+ *
+ * <p>Run with {@code build/sbt "serverBenchmarks/Jmh/run ListTablesBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ListTablesBenchmark {
+  static final int NUM_TABLES = 1000;
+  static final int NUM_COLUMNS = 200;
+  private static final String CATALOG_NAME = "bench_catalog";
+  private static final String SCHEMA_NAME = "bench_schema";
+
+  private HibernateConfigurator hibernateConfigurator;
+  private TableRepository tableRepository;
+
+  @Setup
+  public void setUp() {
+    Properties properties = new Properties();
+    properties.setProperty("server.env", "test");
+    ServerProperties serverProperties = new ServerProperties(properties);
+    hibernateConfigurator = new HibernateConfigurator(serverProperties);
+    Repositories repositories =
+        new Repositories(hibernateConfigurator.getSessionFactory(), serverProperties);
+    tableRepository = repositories.getTableRepository();
+
+    // the repositories look up the caller from the request context
+    ServiceRequestContext ctx = ServiceRequestContext.of(HttpRequest.of(HttpMethod.POST, "/"));
+    try (SafeCloseable ignored = ctx.push()) {
+      repositories.getCatalogRepository().addCatalog(new CreateCatalog().name(CATALOG_NAME));
+      repositories
+          .getSchemaRepository()
+          .createSchema(new CreateSchema().name(SCHEMA_NAME).catalogName(CATALOG_NAME));
+      List<ColumnInfo> columns = new ArrayList<>();
+      for (int i = 0; i < NUM_COLUMNS; i++) {
+        columns.add(
+            new ColumnInfo()
+                .name("col_" + i)
+                .typeText("int")
+                .typeJson("{\"type\": \"integer\"}")
+                .typeName(ColumnTypeName.INT)
+                .position(i)
+                .nullable(true));
+      }
+      for (int i = 0; i < NUM_TABLES; i++) {
+        tableRepository.createTable(
+            new CreateTable()
+                .name(String.format("table_%04d", i))
+                .catalogName(CATALOG_NAME)
+                .schemaName(SCHEMA_NAME)
+                .columns(columns)
+                .storageLocation("/tmp/bench/table_" + i)
+                .tableType(TableType.EXTERNAL)
+                .dataSourceFormat(DataSourceFormat.DELTA));
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    hibernateConfigurator.getSessionFactory().close();
+  }
+
+  private void listAllTables(boolean omitColumns, Blackhole blackhole) {
+    Optional<String> pageToken = Optional.empty();
+    do {
+      ListTablesResponse response =
+          tableRepository.listTables(
+              CATALOG_NAME, SCHEMA_NAME, Optional.empty(), pageToken, false, omitColumns);
+      blackhole.consume(response);
+      pageToken = Optional.ofNullable(response.getNextPageToken());
+    } while (pageToken.isPresent());
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_TABLES)
+  public void listTablesWithColumns(Blackhole blackhole) {
+    listAllTables(false, blackhole);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_TABLES)
+  public void listTablesWithoutColumns(Blackhole blackhole) {
+    listAllTables(true, blackhole);
+  }
+}
@@ -0,0 +1,138 @@
+package io.unitycatalog.server.benchmark;
+
+import com.linecorp.armeria.server.Server;
+import com.linecorp.armeria.server.annotation.Get;
+import com.linecorp.armeria.server.annotation.Param;
+import com.linecorp.armeria.server.annotation.Post;
+import io.unitycatalog.server.URLTranscoderVerticle;
+import io.unitycatalog.server.URLTranscodingHandler;
+import io.vertx.core.Vertx;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the latency of requests with transcoded full names sent to a server transcoding URLs
+ * with the {@link URLTranscodingHandler}, and sent through the {@link URLTranscoderVerticle} proxy
+ * in front of the server, for a request without a body and for one with a {@value #BODY_SIZE} bytes
+ * body.
+ *
+ * <p>Run with {@code build/sbt "serverBenchmarks/Jmh/run URLTranscodingBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class URLTranscodingBenchmark {
+  static final int BODY_SIZE = 256 * 1024;
+  private static final String PATH = "/tables/catalog%1Fschema%1Ftable";
+
+  public static class EchoService {
+    @Get("/tables/{full_name}")
+    public String getTable(@Param("full_name") String fullName) {
+      return fullName;
+    }
+
+    @Post("/tables/{full_name}")
+    public String updateTable(@Param("full_name") String fullName, String body) {
+      return body;
+    }
+  }
+
+  private final HttpClient client =
+      HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  private final String body = "x".repeat(BODY_SIZE);
+  private Server server;
+  private Vertx vertx;
+  private URI directUri;
+  private URI proxiedUri;
+
+  @Setup
+  public void setUp() throws Exception {
+    server =
+        Server.builder()
+            .http(0)
+            .annotatedService(new EchoService())
+            .childChannelPipelineCustomizer(URLTranscodingHandler::addTo)
+            .build();
+    server.start().join();
+    int proxyPort;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      proxyPort = socket.getLocalPort();
+    }
+    vertx = Vertx.vertx();
+    vertx
+        .deployVerticle(new URLTranscoderVerticle(proxyPort, server.activeLocalPort()))
+        .toCompletionStage()
+        .toCompletableFuture()
+        .join();
+    directUri = URI.create("http://127.0.0.1:" + server.activeLocalPort() + PATH);
+    proxiedUri = URI.create("http://127.0.0.1:" + proxyPort + PATH);
+    // the verticle starts listening asynchronously after it is deployed
+    while (true) {
+      try {
+        get(proxiedUri);
+        break;
+      } catch (IOException e) {
+        Thread.sleep(100);
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    vertx.close().toCompletionStage().toCompletableFuture().join();
+    server.stop().join();
+  }
+
+  private String get(URI uri) throws IOException, InterruptedException {
+    return client
+        .send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString())
+        .body();
+  }
+
+  private String post(URI uri) throws IOException, InterruptedException {
+    return client
+        .send(
+            HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+            HttpResponse.BodyHandlers.ofString())
+        .body();
+  }
+
+  @Benchmark
+  public String getDirect() throws Exception {
+    return get(directUri);
+  }
+
+  @Benchmark
+  public String getProxied() throws Exception {
+    return get(proxiedUri);
+  }
+
+  @Benchmark
+  public String postDirect() throws Exception {
+    return post(directUri);
+  }
+
+  @Benchmark
+  public String postProxied() throws Exception {
+    return post(proxiedUri);
+  }
+}
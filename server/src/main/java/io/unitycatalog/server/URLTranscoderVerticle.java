@@ -11,15 +11,19 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** URL transcoder. */
-class URLTranscoderVerticle extends AbstractVerticle {
+/**
+ * Standalone URL transcoder that proxies requests to the server. The server transcodes URLs itself
+ * with the {@link URLTranscodingHandler}, so this is only started when enabled in the server
+ * properties.
+ */
+public class URLTranscoderVerticle extends AbstractVerticle {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(URLTranscoderVerticle.class);
 
   private final int transcodePort;
   private final int servicePort;
 
-  URLTranscoderVerticle(int transcodePort, int servicePort) {
+  public URLTranscoderVerticle(int transcodePort, int servicePort) {
     this.transcodePort = transcodePort;
     this.servicePort = servicePort;
   }
@@ -0,0 +1,111 @@
+package io.unitycatalog.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpServerUpgradeHandler;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * URL transcoder. Clients send the dots of full names as the unit separator character ({@code
+ * %1F}), which this handler turns back into dots in the request target of HTTP/1 requests.
+ *
+ * <p>Armeria rejects request targets containing control characters before any decorator runs, so
+ * the request target is rewritten in the channel pipeline, between the HTTP/1 codec and Armeria's
+ * request decoder. The codec is only added to the pipeline once the first bytes of a connection
+ * tell HTTP/1 from HTTP/2, so this handler sits at the head of the pipeline, hands the first bytes
+ * over on their own to let Armeria configure the pipeline, and then installs the transcoder right
+ * after the codec. HTTP/2 connections are left untouched. Request and response bodies are streamed
+ * through as is. If no HTTP/1 codec is found after the first bytes, e.g. because the connection
+ * uses TLS, a warning is logged and the request targets of the connection are not transcoded. As
+ * HTTP/2 and TLS clients still need the URL transcoder proxy, the server only uses this handler when
+ * the proxy is disabled.
+ */
+public class URLTranscodingHandler extends ChannelInboundHandlerAdapter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(URLTranscodingHandler.class);
+  private static final Pattern ENCODED_SEPARATOR = Pattern.compile("%1F", Pattern.CASE_INSENSITIVE);
+  // Armeria tells HTTP/1 from HTTP/2 by the first four bytes of a connection, "PRI " being the
+  // start of the HTTP/2 connection preface
+  private static final int PROTOCOL_DETECTION_BYTES = 4;
+  private static final int HTTP2_PREFACE_PREFIX = 0x50524920;
+
+  /** Adds the transcoder to the pipeline of a newly accepted connection. */
+  public static void addTo(ChannelPipeline pipeline) {
+    pipeline.addFirst(new URLTranscodingHandler());
+  }
+
+  // the first bytes of the connection, until there are enough of them to detect the protocol
+  private ByteBuf received;
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) {
+    if (!(msg instanceof ByteBuf buf)) {
+      ctx.pipeline().remove(this);
+      ctx.fireChannelRead(msg);
+      return;
+    }
+    received = received == null ? buf : Unpooled.wrappedBuffer(received, buf);
+    if (received.readableBytes() < PROTOCOL_DETECTION_BYTES) {
+      return;
+    }
+    ByteBuf first = received;
+    received = null;
+    if (first.getInt(first.readerIndex()) == HTTP2_PREFACE_PREFIX) {
+      ctx.pipeline().remove(this);
+      ctx.fireChannelRead(first);
+      return;
+    }
+    // the request line is incomplete, so the codec added for these bytes does not decode a
+    // request before the transcoder is installed
+    ctx.fireChannelRead(first.readRetainedSlice(PROTOCOL_DETECTION_BYTES));
+    boolean installed = false;
+    for (Map.Entry<String, ChannelHandler> entry : ctx.pipeline()) {
+      if (entry.getValue() instanceof HttpServerUpgradeHandler.SourceCodec) {
+        ctx.pipeline().addAfter(entry.getKey(), null, new RequestTargetTranscoder());
+        installed = true;
+        break;
+      }
+    }
+    if (!installed) {
+      LOGGER.warn(
+          "No HTTP/1 codec found for connection {}, its request targets are not transcoded.",
+          ctx.channel().remoteAddress());
+    }
+    ctx.pipeline().remove(this);
+    if (first.isReadable()) {
+      ctx.fireChannelRead(first);
+    } else {
+      first.release();
+    }
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) {
+    // the connection was closed before enough bytes were received
+    if (received != null) {
+      received.release();
+      received = null;
+    }
+  }
+
+  static String transcode(String requestTarget) {
+    return ENCODED_SEPARATOR.matcher(requestTarget).replaceAll(".");
+  }
+
+  private static final class RequestTargetTranscoder extends ChannelInboundHandlerAdapter {
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+      if (msg instanceof HttpRequest request) {
+        request.setUri(transcode(request.uri()));
+      }
+      ctx.fireChannelRead(msg);
+    }
+  }
+}
@@ -13,7 +13,11 @@ import com.linecorp.armeria.server.ServerBuilder;
 import com.linecorp.armeria.server.annotation.JacksonRequestConverterFunction;
 import com.linecorp.armeria.server.annotation.JacksonResponseConverterFunction;
 import com.linecorp.armeria.server.docs.DocService;
+import com.linecorp.armeria.server.prometheus.PrometheusExpositionService;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
 import io.unitycatalog.server.auth.AllowingAuthorizer;
+import io.unitycatalog.server.auth.IndexedAuthorizer;
 import io.unitycatalog.server.auth.JCasbinAuthorizer;
 import io.unitycatalog.server.auth.UnityCatalogAuthorizer;
 import io.unitycatalog.server.auth.decorator.UnityAccessDecorator;
@@ -41,19 +45,25 @@ import io.unitycatalog.server.utils.VersionUtils;
 import io.vertx.core.Verticle;
 import io.vertx.core.Vertx;
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 import org.apache.logging.log4j.core.config.Configurator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class UnityCatalogServer {
+public class UnityCatalogServer implements AutoCloseable {
   private static final Logger LOGGER = LoggerFactory.getLogger(UnityCatalogServer.class);
   private static final String BASE_PATH = "/api/2.1/unity-catalog/";
   private static final String CONTROL_PATH = "/api/1.0/unity-control/";
+  private static final String METRICS_PATH = "/metrics";
   private static final int DEFAULT_PORT = 8080;
   public static final String SERVER_PROPERTIES_FILE = "etc/conf/server.properties";
   private final Server server;
   private final ServerProperties serverProperties;
   private final SecurityContext securityContext;
+  // Closed in this order once the server is shut down for good
+  private final Map<String, AutoCloseable> closeables = new LinkedHashMap<>();
 
   static {
     System.setProperty("log4j.configurationFile", "etc/conf/server.log4j2.properties");
@@ -96,19 +106,26 @@ public class UnityCatalogServer {
   }
 
   private Server initializeServer(UnityCatalogServer.Builder unityCatalogServerBuilder) {
+    PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
     ServerBuilder armeriaServerBuilder =
         Server.builder()
             .http(unityCatalogServerBuilder.port)
+            .meterRegistry(meterRegistry)
             .serviceUnder("/docs", new DocService());
+    if (unityCatalogServerBuilder.serverProperties.isMetricsEnabled()) {
+      armeriaServerBuilder.service(
+          METRICS_PATH, PrometheusExpositionService.of(meterRegistry.getPrometheusRegistry()));
+    }
 
     // Init hibernate
     HibernateConfigurator hibernateConfigurator =
-        new HibernateConfigurator(unityCatalogServerBuilder.serverProperties);
+        new HibernateConfigurator(unityCatalogServerBuilder.serverProperties, meterRegistry);
     // Init all repositories
     Repositories repositories =
         new Repositories(hibernateConfigurator.getSessionFactory(), serverProperties);
     // Init metastore
     repositories.getMetastoreRepository().initMetastoreIfNeeded();
+    repositories.getUserRepository().initLowerCaseEmailsIfNeeded();
     // Init authorizer
     UnityCatalogAuthorizer authorizer =
         initializeAuthorizer(
@@ -116,10 +133,30 @@ public class UnityCatalogServer {
     // Init services
     addApiServices(armeriaServerBuilder, unityCatalogServerBuilder, authorizer, repositories);
     // Init security decorators
-    addSecurityDecorators(
-        armeriaServerBuilder, unityCatalogServerBuilder.serverProperties, authorizer, repositories);
+    Optional<UnityAccessDecorator> accessDecorator =
+        addSecurityDecorators(
+            armeriaServerBuilder,
+            unityCatalogServerBuilder.serverProperties,
+            authorizer,
+            repositories);
+    if (!unityCatalogServerBuilder.serverProperties.isURLTranscoderProxyEnabled()) {
+      // Without the proxy in front, the URLs of HTTP/1 connections are transcoded in the server
+      armeriaServerBuilder.childChannelPipelineCustomizer(URLTranscodingHandler::addTo);
+    }
 
-    return armeriaServerBuilder.build();
+    // Persist the pending policy changes of the authorizer on shutdown
+    if (authorizer instanceof AutoCloseable closeable) {
+      closeables.put("authorizer", closeable);
+    }
+    closeables.put("credential operations", unityCatalogServerBuilder.credentialOperations);
+    // Last, as the others may still use the database. Closes the connection pool as well.
+    closeables.put("session factory", hibernateConfigurator.getSessionFactory());
+
+    Server server = armeriaServerBuilder.build();
+    // Resolve the authorization rules of all service methods before serving requests
+    accessDecorator.ifPresent(
+        decorator -> decorator.resolveAuthorizations(server.serviceConfigs()));
+    return server;
   }
 
   private UnityCatalogAuthorizer initializeAuthorizer(
@@ -128,8 +165,14 @@ public class UnityCatalogServer {
       Repositories repositories) {
     if (serverProperties.isAuthorizationEnabled()) {
       try {
-        LOGGER.info("Initializing JCasbinAuthorizer...");
-        UnityCatalogAuthorizer authorizer = new JCasbinAuthorizer(hibernateConfigurator);
+        UnityCatalogAuthorizer authorizer;
+        if (serverProperties.isIndexedAuthorizerEnabled()) {
+          LOGGER.info("Initializing IndexedAuthorizer...");
+          authorizer = new IndexedAuthorizer(hibernateConfigurator);
+        } else {
+          LOGGER.info("Initializing JCasbinAuthorizer...");
+          authorizer = new JCasbinAuthorizer(hibernateConfigurator);
+        }
         new UnityAccessUtil(repositories).initializeAdmin(authorizer);
         return authorizer;
       } catch (Exception e) {
@@ -155,6 +198,7 @@ public class UnityCatalogServer {
     PermissionService permissionService = new PermissionService(authorizer, repositories);
     Scim2UserService scim2UserService = new Scim2UserService(authorizer, repositories);
     Scim2SelfService scim2SelfService = new Scim2SelfService(authorizer, repositories);
+    Scim2BulkService scim2BulkService = new Scim2BulkService(authorizer, repositories);
     CatalogService catalogService = new CatalogService(authorizer, repositories);
     SchemaService schemaService = new SchemaService(authorizer, repositories);
     VolumeService volumeService = new VolumeService(authorizer, repositories);
@@ -196,6 +240,11 @@ public class UnityCatalogServer {
             scim2SelfService,
             requestConverterFunction,
             scimResponseConverterFunction)
+        .annotatedService(
+            CONTROL_PATH + "scim2/Bulk",
+            scim2BulkService,
+            requestConverterFunction,
+            scimResponseConverterFunction)
         .annotatedService(BASE_PATH + "permissions", permissionService)
         .annotatedService(BASE_PATH + "catalogs", catalogService, requestConverterFunction)
         .annotatedService(BASE_PATH + "schemas", schemaService, requestConverterFunction)
@@ -247,8 +296,9 @@ public class UnityCatalogServer {
         new JacksonRequestConverterFunction(icebergMapper);
     JacksonResponseConverterFunction icebergResponseConverter =
         new JacksonResponseConverterFunction(icebergMapper);
-    MetadataService metadataService =
-        new MetadataService(new FileIOFactory(credentialOperations, serverProperties));
+    FileIOFactory fileIOFactory = new FileIOFactory(credentialOperations, serverProperties);
+    closeables.put("file IOs", fileIOFactory);
+    MetadataService metadataService = new MetadataService(fileIOFactory);
     TableConfigService tableConfigService =
         new TableConfigService(credentialOperations, serverProperties);
 
@@ -265,7 +315,7 @@ public class UnityCatalogServer {
         icebergResponseConverter);
   }
 
-  private void addSecurityDecorators(
+  private Optional<UnityAccessDecorator> addSecurityDecorators(
       ServerBuilder armeriaServerBuilder,
       ServerProperties serverProperties,
       UnityCatalogAuthorizer authorizer,
@@ -290,26 +340,37 @@ public class UnityCatalogServer {
           .pathPrefix(CONTROL_PATH)
           .exclude(CONTROL_PATH + "auth/tokens")
           .build(authDecorator);
+      // Metrics are only served to authenticated callers
+      armeriaServerBuilder.routeDecorator().path(METRICS_PATH).build(authDecorator);
 
       ExceptionHandlingDecorator exceptionDecorator =
           new ExceptionHandlingDecorator(new GlobalExceptionHandler());
       armeriaServerBuilder.decorator(exceptionDecorator);
+      return Optional.of(accessDecorator);
     }
+    return Optional.empty();
   }
 
   public static void main(String[] args) {
     OptionParser options = new OptionParser();
     options.parse(args);
+    ServerProperties serverProperties = new ServerProperties(SERVER_PROPERTIES_FILE);
+    // URLs are transcoded by the proxy in front of the server, or by the server itself if disabled
+    boolean transcoderProxyEnabled = serverProperties.isURLTranscoderProxyEnabled();
+    int servicePort = transcoderProxyEnabled ? options.getPort() + 1 : options.getPort();
     // Start Unity Catalog server
     UnityCatalogServer unityCatalogServer =
-        UnityCatalogServer.builder().port(options.getPort() + 1).build();
+        UnityCatalogServer.builder().port(servicePort).serverProperties(serverProperties).build();
     unityCatalogServer.printArt();
     unityCatalogServer.start();
-    // Start URL transcoder
-    Vertx vertx = Vertx.vertx();
-    Verticle transcodeVerticle =
-        new URLTranscoderVerticle(options.getPort(), options.getPort() + 1);
-    vertx.deployVerticle(transcodeVerticle);
+    Runtime.getRuntime()
+        .addShutdownHook(new Thread(unityCatalogServer::close, "unity-catalog-shutdown"));
+    if (transcoderProxyEnabled) {
+      // Start URL transcoder
+      Vertx vertx = Vertx.vertx();
+      Verticle transcodeVerticle = new URLTranscoderVerticle(options.getPort(), servicePort);
+      vertx.deployVerticle(transcodeVerticle);
+    }
   }
 
   public void start() {
@@ -323,6 +384,24 @@ public class UnityCatalogServer {
     LOGGER.info("Unity Catalog server stopped.");
   }
 
+  /**
+   * Stops the server for good and releases its resources, such as the database connection pool.
+   * Unlike a stopped server, a closed server cannot be started again.
+   */
+  @Override
+  public void close() {
+    server.close();
+    closeables.forEach(
+        (name, closeable) -> {
+          try {
+            closeable.close();
+          } catch (Exception e) {
+            LOGGER.error("Problem closing {}.", name, e);
+          }
+        });
+    LOGGER.info("Unity Catalog server closed.");
+  }
+
   private void printArt() {
     String art =
         "################################################################### \n"
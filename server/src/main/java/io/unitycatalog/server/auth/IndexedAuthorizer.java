@@ -0,0 +1,644 @@
+package io.unitycatalog.server.auth;
+
+import io.unitycatalog.server.exception.BaseException;
+import io.unitycatalog.server.exception.ErrorCode;
+import io.unitycatalog.server.persist.model.Privileges;
+import io.unitycatalog.server.persist.utils.HibernateConfigurator;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.commons.io.IOUtils;
+import org.casbin.adapter.JDBCAdapter;
+import org.casbin.jcasbin.model.Model;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An authorizer that keeps all access control policies in memory indexes.
+ *
+ * <p>The grants are indexed both by principal and by resource, each mapping to a bitset of the
+ * granted privileges, and the resource hierarchy is kept as a child to parents map. This makes
+ * listing the grants on a resource and looking up the parents of a resource a single map lookup,
+ * and authorizing a request a walk up the (shallow) resource hierarchy.
+ *
+ * <p>The policies are stored in the same table and format as {@link JCasbinAuthorizer} so the two
+ * implementations can be swapped on an existing database. They are loaded once on startup, so
+ * policy changes made by other servers sharing the database are not seen until a restart. Policy
+ * mutations are applied to the indexes right away. Grants and new hierarchy links are persisted by
+ * a background thread in batches, see {@link #flush()}, so the last of them may be lost if the
+ * server crashes. Revokes and removed hierarchy links are persisted before they are acknowledged,
+ * so a lost write can never bring back a revoked privilege. If persisting them fails, they are
+ * undone in the indexes as well and the caller gets an error.
+ */
+public class IndexedAuthorizer implements UnityCatalogAuthorizer, AutoCloseable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(IndexedAuthorizer.class);
+
+  public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 100;
+  public static final int DEFAULT_FLUSH_BATCH_SIZE = 1000;
+  // Mutations block on a synchronous flush once this many writes are pending
+  public static final int DEFAULT_MAX_PENDING_WRITES = 10 * DEFAULT_FLUSH_BATCH_SIZE;
+
+  // Same limit as the default role manager of JCasbin
+  private static final int MAX_HIERARCHY_LEVEL = 10;
+  private static final Privileges[] PRIVILEGES = Privileges.values();
+
+  private static final String POLICY = "p";
+  private static final int PRINCIPAL_INDEX = 0;
+  private static final int RESOURCE_INDEX = 1;
+  private static final int PRIVILEGE_INDEX = 2;
+
+  private static final String HIERARCHY_SECTION = "g";
+  private static final String HIERARCHY_POLICY = "g2";
+  private static final int HIERARCHY_PARENT_INDEX = 0;
+  private static final int HIERARCHY_CHILD_INDEX = 1;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<UUID, Map<UUID, Integer>> privilegesByPrincipal = new HashMap<>();
+  private final Map<UUID, Map<UUID, Integer>> privilegesByResource = new HashMap<>();
+  private final Map<UUID, Set<UUID>> parents = new HashMap<>();
+  private final Map<UUID, Set<UUID>> children = new HashMap<>();
+
+  private enum Operation {
+    ADD,
+    REMOVE,
+    REMOVE_FILTERED
+  }
+
+  /**
+   * A policy change to persist. Grants and new hierarchy links that failed to be written are marked
+   * as failed until they are written or set aside.
+   */
+  private record PolicyWrite(
+      Operation operation, String ptype, int fieldIndex, List<String> values, boolean failed) {
+    PolicyWrite asFailed() {
+      return operation == Operation.ADD
+          ? new PolicyWrite(operation, ptype, fieldIndex, values, true)
+          : this;
+    }
+  }
+
+  /** A mutation applied to the indexes, with the write persisting it and how to undo it. */
+  private record Change(PolicyWrite write, Runnable undo) {}
+
+  private final JDBCAdapter adapter;
+  private final List<PolicyWrite> pendingWrites = new ArrayList<>();
+  private final Object flushLock = new Object();
+  private final ScheduledExecutorService flusher;
+
+  public IndexedAuthorizer(HibernateConfigurator hibernateConfigurator) throws Exception {
+    this(createAdapter(hibernateConfigurator));
+  }
+
+  IndexedAuthorizer(JDBCAdapter adapter) throws Exception {
+    this.adapter = adapter;
+
+    InputStream modelStream = this.getClass().getResourceAsStream("/jcasbin_auth_model.conf");
+    String string = IOUtils.toString(modelStream, StandardCharsets.UTF_8);
+    Model model = new Model();
+    model.loadModelFromText(string);
+    adapter.loadPolicy(model);
+    for (List<String> rule : model.getPolicy(POLICY, POLICY)) {
+      grant(
+          UUID.fromString(rule.get(PRINCIPAL_INDEX)),
+          UUID.fromString(rule.get(RESOURCE_INDEX)),
+          bit(Privileges.fromValue(rule.get(PRIVILEGE_INDEX))));
+    }
+    for (List<String> rule : model.getPolicy(HIERARCHY_SECTION, HIERARCHY_POLICY)) {
+      link(
+          UUID.fromString(rule.get(HIERARCHY_PARENT_INDEX)),
+          UUID.fromString(rule.get(HIERARCHY_CHILD_INDEX)));
+    }
+
+    flusher =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "authorizer-flush");
+              thread.setDaemon(true);
+              return thread;
+            });
+    flusher.scheduleWithFixedDelay(
+        this::flush,
+        DEFAULT_FLUSH_INTERVAL_MILLIS,
+        DEFAULT_FLUSH_INTERVAL_MILLIS,
+        TimeUnit.MILLISECONDS);
+  }
+
+  private static JDBCAdapter createAdapter(HibernateConfigurator hibernateConfigurator)
+      throws Exception {
+    Properties properties = hibernateConfigurator.getHibernateProperties();
+    String driver = properties.getProperty("hibernate.connection.driver_class");
+    String url = properties.getProperty("hibernate.connection.url");
+    String user = properties.getProperty("hibernate.connection.user");
+    String password = properties.getProperty("hibernate.connection.password");
+    return new JDBCAdapter(driver, url, user, password);
+  }
+
+  @Override
+  public boolean grantAuthorization(UUID principal, UUID resource, Privileges action) {
+    return mutate(
+        () ->
+            grant(principal, resource, bit(action))
+                ? new Change(write(Operation.ADD, POLICY, rule(principal, resource, action)), null)
+                : null,
+        false);
+  }
+
+  @Override
+  public boolean revokeAuthorization(UUID principal, UUID resource, Privileges action) {
+    return mutate(
+        () ->
+            revoke(principal, resource, bit(action))
+                ? new Change(
+                    write(Operation.REMOVE, POLICY, rule(principal, resource, action)),
+                    () -> restore(principal, resource, bit(action)))
+                : null,
+        true);
+  }
+
+  @Override
+  public boolean clearAuthorizationsForPrincipal(UUID principal) {
+    return mutate(
+        () -> {
+          Map<UUID, Integer> resources = privilegesByPrincipal.remove(principal);
+          if (resources == null) {
+            return null;
+          }
+          resources
+              .keySet()
+              .forEach(resource -> removeEntry(privilegesByResource, resource, principal));
+          return new Change(
+              filteredWrite(POLICY, PRINCIPAL_INDEX, principal),
+              () -> resources.forEach((resource, bits) -> restore(principal, resource, bits)));
+        },
+        true);
+  }
+
+  @Override
+  public boolean clearAuthorizationsForResource(UUID resource) {
+    return mutate(
+        () -> {
+          Map<UUID, Integer> principals = privilegesByResource.remove(resource);
+          if (principals == null) {
+            return null;
+          }
+          principals
+              .keySet()
+              .forEach(principal -> removeEntry(privilegesByPrincipal, principal, resource));
+          return new Change(
+              filteredWrite(POLICY, RESOURCE_INDEX, resource),
+              () -> principals.forEach((principal, bits) -> restore(principal, resource, bits)));
+        },
+        true);
+  }
+
+  @Override
+  public boolean addHierarchyChild(UUID parent, UUID child) {
+    return mutate(
+        () ->
+            link(parent, child)
+                ? new Change(write(Operation.ADD, HIERARCHY_POLICY, hierarchyRule(parent, child)), null)
+                : null,
+        false);
+  }
+
+  @Override
+  public boolean removeHierarchyChild(UUID parent, UUID child) {
+    return mutate(
+        () -> {
+          if (!removeLink(parents, child, parent)) {
+            return null;
+          }
+          removeLink(children, parent, child);
+          return new Change(
+              write(Operation.REMOVE, HIERARCHY_POLICY, hierarchyRule(parent, child)),
+              () -> link(parent, child));
+        },
+        true);
+  }
+
+  @Override
+  public boolean removeHierarchyChildren(UUID resource) {
+    return mutate(
+        () -> {
+          Set<UUID> removed = children.remove(resource);
+          if (removed == null) {
+            return null;
+          }
+          removed.forEach(child -> removeLink(parents, child, resource));
+          return new Change(
+              filteredWrite(HIERARCHY_POLICY, HIERARCHY_PARENT_INDEX, resource),
+              () -> removed.forEach(child -> link(resource, child)));
+        },
+        true);
+  }
+
+  @Override
+  public UUID getHierarchyParent(UUID resource) {
+    lock.readLock().lock();
+    try {
+      // like the JCasbinAuthorizer, the first parent if a resource has several
+      Set<UUID> resourceParents = parents.get(resource);
+      return resourceParents == null ? null : resourceParents.iterator().next();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean authorize(UUID principal, UUID resource, Privileges action) {
+    return authorizeAny(principal, resource, action);
+  }
+
+  @Override
+  public boolean authorizeAny(UUID principal, UUID resource, Privileges... actions) {
+    lock.readLock().lock();
+    try {
+      return isAuthorized(principal, resource, actions);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean authorizeAll(UUID principal, UUID resource, Privileges... actions) {
+    lock.readLock().lock();
+    try {
+      for (Privileges action : actions) {
+        if (!isAuthorized(principal, resource, action)) {
+          return false;
+        }
+      }
+      return true;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Set<UUID> authorizeBatch(UUID principal, List<UUID> resources, Privileges... actions) {
+    lock.readLock().lock();
+    try {
+      Set<UUID> authorized = new HashSet<>();
+      for (UUID resource : resources) {
+        if (isAuthorized(principal, resource, actions)) {
+          authorized.add(resource);
+        }
+      }
+      return authorized;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public List<Privileges> listAuthorizations(UUID principal, UUID resource) {
+    lock.readLock().lock();
+    try {
+      return privileges(privilegesOf(principal, resource));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Map<UUID, List<Privileges>> listAuthorizations(UUID resource) {
+    lock.readLock().lock();
+    try {
+      Map<UUID, List<Privileges>> authorizations = new HashMap<>();
+      privilegesByResource
+          .getOrDefault(resource, Map.of())
+          .forEach((principal, bits) -> authorizations.put(principal, privileges(bits)));
+      return authorizations;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Persist all pending policy mutations. This is called periodically by a background thread and on
+   * {@link #close()}, but can also be called to make sure all mutations so far are stored.
+   *
+   * <p>Consecutive additions or removals of the same policy type are written in a single batch. If
+   * a write fails, it and all following writes are retried on the next flush. Grants and new
+   * hierarchy links that failed are then only retried once a later write succeeded, one by one,
+   * and those that still fail are set aside, so that a write the database keeps rejecting does not
+   * hold back the ones after it. Like grants lost in a crash, these stay in effect until a restart. Writes are only set aside once the database accepted a later
+   * write, so the pending writes are kept while the database is unavailable.
+   */
+  public void flush() {
+    try {
+      persistPendingWrites();
+    } catch (RuntimeException e) {
+      LOGGER.error("Failed to persist authorization policy changes.", e);
+    }
+  }
+
+  /** Write the pending policy mutations in order, throwing if any of them could not be written. */
+  private void persistPendingWrites() {
+    synchronized (flushLock) {
+      List<PolicyWrite> writes;
+      synchronized (pendingWrites) {
+        writes = new ArrayList<>(pendingWrites);
+        pendingWrites.clear();
+      }
+      // the writes that failed in an earlier flush wait for the first batch after them to succeed,
+      // unless there is none
+      int failed = 0;
+      while (failed < writes.size() && writes.get(failed).failed()) {
+        failed++;
+      }
+      List<PolicyWrite> retries = failed < writes.size() ? writes.subList(0, failed) : List.of();
+      int start = retries.size();
+      while (start < writes.size()) {
+        PolicyWrite first = writes.get(start);
+        int end = start + 1;
+        if (first.operation() != Operation.REMOVE_FILTERED) {
+          while (end < writes.size()
+              && writes.get(end).operation() == first.operation()
+              && writes.get(end).ptype().equals(first.ptype())) {
+            end++;
+          }
+        }
+        List<PolicyWrite> batch = writes.subList(start, end);
+        try {
+          write(first, batch);
+        } catch (RuntimeException e) {
+          List<PolicyWrite> requeued = new ArrayList<>(retries);
+          batch.forEach(write -> requeued.add(write.asFailed()));
+          requeued.addAll(writes.subList(end, writes.size()));
+          synchronized (pendingWrites) {
+            pendingWrites.addAll(0, requeued);
+          }
+          throw e;
+        }
+        if (!retries.isEmpty()) {
+          retryAlone(retries, first.operation() != Operation.ADD);
+          retries = List.of();
+        }
+        start = end;
+      }
+    }
+  }
+
+  /** Retry writes that failed before, now that the database accepted the batch after them. */
+  private void retryAlone(List<PolicyWrite> retries, boolean afterRemoval) {
+    for (PolicyWrite retry : retries) {
+      if (afterRemoval) {
+        // written after the removal that followed it, a grant could bring back what was removed
+        LOGGER.error("Setting aside authorization policy change {}.", retry.values());
+        continue;
+      }
+      try {
+        write(retry, List.of(retry));
+      } catch (RuntimeException e) {
+        LOGGER.error("Setting aside authorization policy change {}.", retry.values(), e);
+      }
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    flusher.shutdown();
+    flusher.awaitTermination(DEFAULT_FLUSH_INTERVAL_MILLIS * 10, TimeUnit.MILLISECONDS);
+    flush();
+    adapter.close();
+  }
+
+  private void write(PolicyWrite first, List<PolicyWrite> batch) {
+    String section = first.ptype().equals(HIERARCHY_POLICY) ? HIERARCHY_SECTION : POLICY;
+    List<List<String>> rules = batch.stream().map(PolicyWrite::values).toList();
+    switch (first.operation()) {
+      case ADD -> adapter.addPolicies(section, first.ptype(), rules);
+      case REMOVE -> adapter.removePolicies(section, first.ptype(), rules);
+      case REMOVE_FILTERED ->
+          adapter.removeFilteredPolicy(
+              section,
+              first.ptype(),
+              first.fieldIndex(),
+              first.values().toArray(new String[0]));
+    }
+  }
+
+  /**
+   * Apply a mutation to the indexes under the write lock. A durable mutation is persisted, together
+   * with all mutations before it, before this returns, and undone if it could not be persisted.
+   * Otherwise, if persisting the mutations falls too far behind, the calling thread flushes them so
+   * the backlog stays bounded.
+   *
+   * @param mutation Applies the mutation, returns null if it changed nothing
+   */
+  private boolean mutate(Supplier<Change> mutation, boolean durable) {
+    Change change;
+    lock.writeLock().lock();
+    try {
+      change = mutation.get();
+      if (change != null) {
+        enqueue(change.write());
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+    if (change == null) {
+      return false;
+    }
+    if (durable) {
+      synchronized (flushLock) {
+        try {
+          persistPendingWrites();
+        } catch (RuntimeException e) {
+          // the write was persisted if it is no longer pending, as the failed write came after it
+          if (withdraw(change.write())) {
+            undo(change);
+            throw new BaseException(
+                ErrorCode.INTERNAL, "Failed to persist authorization policy changes.", e);
+          }
+          LOGGER.error("Failed to persist authorization policy changes.", e);
+        }
+      }
+      return true;
+    }
+    int pending;
+    synchronized (pendingWrites) {
+      pending = pendingWrites.size();
+    }
+    if (pending >= DEFAULT_MAX_PENDING_WRITES) {
+      flush();
+    }
+    return true;
+  }
+
+  private boolean withdraw(PolicyWrite write) {
+    synchronized (pendingWrites) {
+      return pendingWrites.removeIf(pending -> pending == write);
+    }
+  }
+
+  private void undo(Change change) {
+    lock.writeLock().lock();
+    try {
+      change.undo().run();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private static PolicyWrite write(Operation operation, String ptype, List<String> values) {
+    return new PolicyWrite(operation, ptype, -1, values, false);
+  }
+
+  private static PolicyWrite filteredWrite(String ptype, int fieldIndex, UUID value) {
+    return new PolicyWrite(
+        Operation.REMOVE_FILTERED, ptype, fieldIndex, List.of(value.toString()), false);
+  }
+
+  private void enqueue(PolicyWrite write) {
+    int pending;
+    synchronized (pendingWrites) {
+      pendingWrites.add(write);
+      pending = pendingWrites.size();
+    }
+    if (pending == DEFAULT_FLUSH_BATCH_SIZE) {
+      flusher.execute(this::flush);
+    }
+  }
+
+  /** Must be called with the read lock held. */
+  private boolean isAuthorized(UUID principal, UUID resource, Privileges... actions) {
+    int bits = 0;
+    for (Privileges action : actions) {
+      if (action == Privileges.OWNER) {
+        // ownership is not inherited from the parent resources
+        if ((privilegesOf(principal, resource) & bit(action)) != 0) {
+          return true;
+        }
+      } else {
+        bits |= bit(action);
+      }
+    }
+    if (bits == 0) {
+      return false;
+    }
+    Map<UUID, Integer> resources = privilegesByPrincipal.get(principal);
+    return resources != null && isGranted(resources, resource, bits, 0);
+  }
+
+  /** Whether any of the privileges is granted on the resource or any of its ancestors. */
+  private boolean isGranted(Map<UUID, Integer> resources, UUID resource, int bits, int level) {
+    if ((resources.getOrDefault(resource, 0) & bits) != 0) {
+      return true;
+    }
+    if (level < MAX_HIERARCHY_LEVEL) {
+      for (UUID parent : parents.getOrDefault(resource, Set.of())) {
+        if (isGranted(resources, parent, bits, level + 1)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private int privilegesOf(UUID principal, UUID resource) {
+    return privilegesByPrincipal.getOrDefault(principal, Map.of()).getOrDefault(resource, 0);
+  }
+
+  private boolean grant(UUID principal, UUID resource, int bit) {
+    Map<UUID, Integer> resources =
+        privilegesByPrincipal.computeIfAbsent(principal, k -> new HashMap<>());
+    int bits = resources.getOrDefault(resource, 0);
+    if ((bits & bit) != 0) {
+      return false;
+    }
+    resources.put(resource, bits | bit);
+    privilegesByResource.computeIfAbsent(resource, k -> new HashMap<>()).put(principal, bits | bit);
+    return true;
+  }
+
+  /** Grant privileges again after a failed revoke, keeping the ones granted in the meantime. */
+  private void restore(UUID principal, UUID resource, int bits) {
+    int restored =
+        privilegesByPrincipal
+            .computeIfAbsent(principal, k -> new HashMap<>())
+            .merge(resource, bits, (a, b) -> a | b);
+    privilegesByResource.computeIfAbsent(resource, k -> new HashMap<>()).put(principal, restored);
+  }
+
+  private boolean revoke(UUID principal, UUID resource, int bit) {
+    int bits = privilegesOf(principal, resource);
+    if ((bits & bit) == 0) {
+      return false;
+    }
+    if (bits == bit) {
+      removeEntry(privilegesByPrincipal, principal, resource);
+      removeEntry(privilegesByResource, resource, principal);
+    } else {
+      privilegesByPrincipal.get(principal).put(resource, bits & ~bit);
+      privilegesByResource.get(resource).put(principal, bits & ~bit);
+    }
+    return true;
+  }
+
+  private boolean link(UUID parent, UUID child) {
+    if (!parents.computeIfAbsent(child, k -> new LinkedHashSet<>()).add(parent)) {
+      return false;
+    }
+    children.computeIfAbsent(parent, k -> new HashSet<>()).add(child);
+    return true;
+  }
+
+  private static boolean removeLink(Map<UUID, Set<UUID>> links, UUID from, UUID to) {
+    Set<UUID> targets = links.get(from);
+    if (targets == null || !targets.remove(to)) {
+      return false;
+    }
+    if (targets.isEmpty()) {
+      links.remove(from);
+    }
+    return true;
+  }
+
+  private static void removeEntry(Map<UUID, Map<UUID, Integer>> index, UUID key, UUID entry) {
+    Map<UUID, Integer> entries = index.get(key);
+    if (entries != null) {
+      entries.remove(entry);
+      if (entries.isEmpty()) {
+        index.remove(key);
+      }
+    }
+  }
+
+  private static int bit(Privileges privilege) {
+    return 1 << privilege.ordinal();
+  }
+
+  private static List<Privileges> privileges(int bits) {
+    List<Privileges> privileges = new ArrayList<>();
+    for (Privileges privilege : PRIVILEGES) {
+      if ((bits & bit(privilege)) != 0) {
+        privileges.add(privilege);
+      }
+    }
+    return privileges;
+  }
+
+  private static List<String> rule(UUID principal, UUID resource, Privileges action) {
+    return List.of(principal.toString(), resource.toString(), action.toString());
+  }
+
+  private static List<String> hierarchyRule(UUID parent, UUID child) {
+    return List.of(parent.toString(), child.toString());
+  }
+}
@@ -1,5 +1,7 @@
 package io.unitycatalog.server.auth;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.unitycatalog.server.persist.model.Privileges;
 import io.unitycatalog.server.persist.utils.HibernateConfigurator;
 import java.io.InputStream;
@@ -8,7 +10,9 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import org.apache.commons.io.IOUtils;
 import org.casbin.adapter.JDBCAdapter;
@@ -22,10 +26,23 @@ import org.casbin.jcasbin.model.Model;
  * both store and enforce access control policies.
  *
  * <p>The implementation stores the policies in a database using the JDBCAdapter class.
+ *
+ * <p>Enforcement results are cached per (principal, resource, privilege). Since a single grant or
+ * hierarchy change can affect the decision for any resource below it, every policy mutation bumps a
+ * generation counter and drops all cached decisions. A decision is only cached if no mutation
+ * happened while it was being enforced.
  */
 public class JCasbinAuthorizer implements UnityCatalogAuthorizer {
+  public static final long DEFAULT_DECISION_CACHE_SIZE = 100_000;
+
   private final Enforcer enforcer;
 
+  private record Decision(UUID principal, UUID resource, Privileges action) {}
+
+  private final Cache<Decision, Boolean> decisions =
+      CacheBuilder.newBuilder().maximumSize(DEFAULT_DECISION_CACHE_SIZE).build();
+  private final AtomicLong generation = new AtomicLong();
+
   private static final int PRINCIPAL_INDEX = 0;
   private static final int RESOURCE_INDEX = 1;
   private static final int PRIVILEGE_INDEX = 2;
@@ -53,39 +70,44 @@ public class JCasbinAuthorizer implements UnityCatalogAuthorizer {
 
   @Override
   public boolean grantAuthorization(UUID principal, UUID resource, Privileges action) {
-    return enforcer.addPolicy(principal.toString(), resource.toString(), action.toString());
+    return invalidateDecisions(
+        enforcer.addPolicy(principal.toString(), resource.toString(), action.toString()));
   }
 
   @Override
   public boolean revokeAuthorization(UUID principal, UUID resource, Privileges action) {
-    return enforcer.removePolicy(principal.toString(), resource.toString(), action.toString());
+    return invalidateDecisions(
+        enforcer.removePolicy(principal.toString(), resource.toString(), action.toString()));
   }
 
   @Override
   public boolean clearAuthorizationsForPrincipal(UUID principal) {
-    return enforcer.removeFilteredPolicy(PRINCIPAL_INDEX, principal.toString());
+    return invalidateDecisions(
+        enforcer.removeFilteredPolicy(PRINCIPAL_INDEX, principal.toString()));
   }
 
   @Override
   public boolean clearAuthorizationsForResource(UUID resource) {
-    return enforcer.removeFilteredPolicy(RESOURCE_INDEX, resource.toString());
+    return invalidateDecisions(enforcer.removeFilteredPolicy(RESOURCE_INDEX, resource.toString()));
   }
 
   @Override
   public boolean addHierarchyChild(UUID parent, UUID child) {
-    return enforcer.addNamedGroupingPolicy(HIERARCHY_POLICY, parent.toString(), child.toString());
+    return invalidateDecisions(
+        enforcer.addNamedGroupingPolicy(HIERARCHY_POLICY, parent.toString(), child.toString()));
   }
 
   @Override
   public boolean removeHierarchyChild(UUID parent, UUID child) {
-    return enforcer.removeNamedGroupingPolicy(
-        HIERARCHY_POLICY, parent.toString(), child.toString());
+    return invalidateDecisions(
+        enforcer.removeNamedGroupingPolicy(HIERARCHY_POLICY, parent.toString(), child.toString()));
   }
 
   @Override
   public boolean removeHierarchyChildren(UUID resource) {
-    return enforcer.removeFilteredNamedGroupingPolicy(
-        HIERARCHY_POLICY, HIERARCHY_PARENT_INDEX, resource.toString());
+    return invalidateDecisions(
+        enforcer.removeFilteredNamedGroupingPolicy(
+            HIERARCHY_POLICY, HIERARCHY_PARENT_INDEX, resource.toString()));
   }
 
   @Override
@@ -101,23 +123,38 @@ public class JCasbinAuthorizer implements UnityCatalogAuthorizer {
 
   @Override
   public boolean authorize(UUID principal, UUID resource, Privileges action) {
-    return enforcer.enforce(principal.toString(), resource.toString(), action.toString());
+    Decision decision = new Decision(principal, resource, action);
+    Boolean cached = decisions.getIfPresent(decision);
+    if (cached != null) {
+      return cached;
+    }
+    long enforceGeneration = generation.get();
+    boolean allowed =
+        enforcer.enforce(principal.toString(), resource.toString(), action.toString());
+    synchronized (this) {
+      if (enforceGeneration == generation.get()) {
+        decisions.put(decision, allowed);
+      }
+    }
+    return allowed;
   }
 
   @Override
   public boolean authorizeAny(UUID principal, UUID resource, Privileges... actions) {
-    return Arrays.stream(actions)
-        .anyMatch(
-            action ->
-                enforcer.enforce(principal.toString(), resource.toString(), action.toString()));
+    return Arrays.stream(actions).anyMatch(action -> authorize(principal, resource, action));
   }
 
   @Override
   public boolean authorizeAll(UUID principal, UUID resource, Privileges... actions) {
-    return Arrays.stream(actions)
-        .allMatch(
-            action ->
-                enforcer.enforce(principal.toString(), resource.toString(), action.toString()));
+    return Arrays.stream(actions).allMatch(action -> authorize(principal, resource, action));
+  }
+
+  @Override
+  public Set<UUID> authorizeBatch(UUID principal, List<UUID> resources, Privileges... actions) {
+    // Resources already decided are served from the decision cache, only the rest are enforced
+    return resources.stream()
+        .filter(resource -> authorizeAny(principal, resource, actions))
+        .collect(Collectors.toSet());
   }
 
   @Override
@@ -139,4 +176,14 @@ public class JCasbinAuthorizer implements UnityCatalogAuthorizer {
                 Collectors.mapping(
                     l -> Privileges.fromValue(l.get(PRIVILEGE_INDEX)), Collectors.toList())));
   }
+
+  /**
+   * Drop all cached decisions after a policy mutation. Must be called after the enforcer has been
+   * updated so that a decision enforced against the old policy cannot be cached afterwards.
+   */
+  private synchronized boolean invalidateDecisions(boolean changed) {
+    generation.incrementAndGet();
+    decisions.invalidateAll();
+    return changed;
+  }
 }
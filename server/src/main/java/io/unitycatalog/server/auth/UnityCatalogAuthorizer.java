@@ -3,6 +3,7 @@ package io.unitycatalog.server.auth;
 import io.unitycatalog.server.persist.model.Privileges;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -38,6 +39,13 @@ public interface UnityCatalogAuthorizer {
 
   boolean authorizeAll(UUID principal, UUID resource, Privileges... actions);
 
+  /**
+   * Authorize a principal on many resources at once, e.g. on all entries of a listing page.
+   *
+   * @return The subset of the resources on which the principal has any of the actions
+   */
+  Set<UUID> authorizeBatch(UUID principal, List<UUID> resources, Privileges... actions);
+
   List<Privileges> listAuthorizations(UUID principal, UUID resource);
 
   Map<UUID, List<Privileges>> listAuthorizations(UUID resource);
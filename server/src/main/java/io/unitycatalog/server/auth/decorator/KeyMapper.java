@@ -8,185 +8,186 @@ import static io.unitycatalog.server.model.SecurableType.SCHEMA;
 import static io.unitycatalog.server.model.SecurableType.TABLE;
 import static io.unitycatalog.server.model.SecurableType.VOLUME;
 
-import io.unitycatalog.server.model.CatalogInfo;
-import io.unitycatalog.server.model.FunctionInfo;
-import io.unitycatalog.server.model.RegisteredModelInfo;
-import io.unitycatalog.server.model.SchemaInfo;
+import io.unitycatalog.server.exception.BaseException;
+import io.unitycatalog.server.exception.ErrorCode;
 import io.unitycatalog.server.model.SecurableType;
-import io.unitycatalog.server.model.TableInfo;
-import io.unitycatalog.server.model.VolumeInfo;
-import io.unitycatalog.server.persist.*;
+import io.unitycatalog.server.persist.CatalogRepository;
+import io.unitycatalog.server.persist.MetastoreRepository;
+import io.unitycatalog.server.persist.Repositories;
+import io.unitycatalog.server.persist.SchemaRepository;
+import io.unitycatalog.server.persist.dao.FunctionInfoDAO;
+import io.unitycatalog.server.persist.dao.IdentifiableDAO;
+import io.unitycatalog.server.persist.dao.RegisteredModelInfoDAO;
+import io.unitycatalog.server.persist.dao.TableInfoDAO;
+import io.unitycatalog.server.persist.dao.VolumeInfoDAO;
+import io.unitycatalog.server.persist.utils.NamespaceCache;
+import io.unitycatalog.server.persist.utils.RepositoryUtils;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
-
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+
+/**
+ * Maps the names (or ids) of the resources in an authorization request to the ids of the resources
+ * and their parents.
+ *
+ * <p>All ids are resolved within a single read-only session. Catalog and schema names are resolved
+ * through the shared namespace cache, and securables below a schema are looked up with id-only
+ * queries, so no entity (or its properties and columns) is loaded just to authorize a request.
+ */
 public class KeyMapper {
+  private record Securable(Class<? extends IdentifiableDAO> daoClass, String displayName) {}
+
+  // The securables that live in a schema
+  private static final Map<SecurableType, Securable> SECURABLES =
+      new EnumMap<>(SecurableType.class);
+
+  static {
+    SECURABLES.put(TABLE, new Securable(TableInfoDAO.class, "Table"));
+    SECURABLES.put(VOLUME, new Securable(VolumeInfoDAO.class, "Volume"));
+    SECURABLES.put(FUNCTION, new Securable(FunctionInfoDAO.class, "Function"));
+    SECURABLES.put(
+        REGISTERED_MODEL, new Securable(RegisteredModelInfoDAO.class, "Registered model"));
+  }
+
+  private final SessionFactory sessionFactory;
   private final CatalogRepository catalogRepository;
   private final SchemaRepository schemaRepository;
-  private final TableRepository tableRepository;
-  private final VolumeRepository volumeRepository;
-  private final FunctionRepository functionRepository;
-  private final ModelRepository modelRepository;
   private final MetastoreRepository metastoreRepository;
 
   public KeyMapper(Repositories repositories) {
+    this.sessionFactory = repositories.getSessionFactory();
     this.catalogRepository = repositories.getCatalogRepository();
     this.schemaRepository = repositories.getSchemaRepository();
-    this.tableRepository = repositories.getTableRepository();
-    this.volumeRepository = repositories.getVolumeRepository();
-    this.functionRepository = repositories.getFunctionRepository();
-    this.modelRepository = repositories.getModelRepository();
     this.metastoreRepository = repositories.getMetastoreRepository();
   }
 
   public Map<SecurableType, Object> mapResourceKeys(Map<SecurableType, Object> resourceKeys) {
-    Map<SecurableType, Object> resourceIds = new HashMap<>();
-
-    if (resourceKeys.containsKey(CATALOG)
-        && resourceKeys.containsKey(SCHEMA)
-        && resourceKeys.containsKey(TABLE)) {
-      String fullName =
-          resourceKeys.get(CATALOG)
-              + "."
-              + resourceKeys.get(SCHEMA)
-              + "."
-              + resourceKeys.get(TABLE);
-      TableInfo table = tableRepository.getTable(fullName);
-      resourceIds.put(TABLE, UUID.fromString(table.getTableId()));
-    }
-
-    // If only TABLE is specified, assuming its value is a full table name (including catalog and
-    // schema)
-    if (!resourceKeys.containsKey(CATALOG)
-        && !resourceKeys.containsKey(SCHEMA)
-        && resourceKeys.containsKey(TABLE)) {
-      String fullName = (String) resourceKeys.get(TABLE);
-      // If the full name contains a dot, we assume it's a full name, otherwise we assume it's an id
-      TableInfo table =
-          fullName.contains(".")
-              ? tableRepository.getTable(fullName)
-              : tableRepository.getTableById(fullName);
-      String fullSchemaName = table.getCatalogName() + "." + table.getSchemaName();
-      SchemaInfo schema = schemaRepository.getSchema(fullSchemaName);
-      CatalogInfo catalog = catalogRepository.getCatalog(table.getCatalogName());
-      resourceIds.put(TABLE, UUID.fromString(table.getTableId()));
-      resourceIds.put(SCHEMA, UUID.fromString(schema.getSchemaId()));
-      resourceIds.put(CATALOG, UUID.fromString(catalog.getId()));
-    }
-
-    if (resourceKeys.containsKey(CATALOG)
-        && resourceKeys.containsKey(SCHEMA)
-        && resourceKeys.containsKey(VOLUME)) {
-      String fullName =
-          resourceKeys.get(CATALOG)
-              + "."
-              + resourceKeys.get(SCHEMA)
-              + "."
-              + resourceKeys.get(VOLUME);
-      VolumeInfo volume = volumeRepository.getVolume(fullName);
-      resourceIds.put(VOLUME, UUID.fromString(volume.getVolumeId()));
-    }
-
-    // If only VOLUME is specified, assuming its value is a full volume name (including catalog and
-    // schema)
-    if (!resourceKeys.containsKey(CATALOG)
-        && !resourceKeys.containsKey(SCHEMA)
-        && resourceKeys.containsKey(VOLUME)) {
-      String fullName = (String) resourceKeys.get(VOLUME);
-      // If the full name contains a dot, we assume it's a full name, otherwise we assume it's an id
-      VolumeInfo volume =
-          (fullName.contains("."))
-              ? volumeRepository.getVolume(fullName)
-              : volumeRepository.getVolumeById(fullName);
-      String fullSchemaName = volume.getCatalogName() + "." + volume.getSchemaName();
-      SchemaInfo schema = schemaRepository.getSchema(fullSchemaName);
-      CatalogInfo catalog = catalogRepository.getCatalog(volume.getCatalogName());
-      resourceIds.put(VOLUME, UUID.fromString(volume.getVolumeId()));
-      resourceIds.put(SCHEMA, UUID.fromString(schema.getSchemaId()));
-      resourceIds.put(CATALOG, UUID.fromString(catalog.getId()));
-    }
-
-    if (resourceKeys.containsKey(CATALOG)
-        && resourceKeys.containsKey(SCHEMA)
-        && resourceKeys.containsKey(FUNCTION)) {
-      String fullName =
-          resourceKeys.get(CATALOG)
-              + "."
-              + resourceKeys.get(SCHEMA)
-              + "."
-              + resourceKeys.get(FUNCTION);
-      FunctionInfo function = functionRepository.getFunction(fullName);
-      resourceIds.put(FUNCTION, UUID.fromString(function.getFunctionId()));
-    }
-
-    // If only FUNCTION is specified, assuming its value is a full volume name (including catalog
-    // and schema)
-    if (!resourceKeys.containsKey(CATALOG)
-        && !resourceKeys.containsKey(SCHEMA)
-        && resourceKeys.containsKey(FUNCTION)) {
-      String fullName = (String) resourceKeys.get(FUNCTION);
-      FunctionInfo function = functionRepository.getFunction(fullName);
-      String fullSchemaName = function.getCatalogName() + "." + function.getSchemaName();
-      SchemaInfo schema = schemaRepository.getSchema(fullSchemaName);
-      CatalogInfo catalog = catalogRepository.getCatalog(function.getCatalogName());
-      resourceIds.put(FUNCTION, UUID.fromString(function.getFunctionId()));
-      resourceIds.put(SCHEMA, UUID.fromString(schema.getSchemaId()));
-      resourceIds.put(CATALOG, UUID.fromString(catalog.getId()));
+    try (Session session = sessionFactory.openSession()) {
+      session.setDefaultReadOnly(true);
+      Transaction tx = session.beginTransaction();
+      try {
+        Map<SecurableType, Object> resourceIds = mapResourceKeys(session, resourceKeys);
+        tx.commit();
+        return resourceIds;
+      } catch (Exception e) {
+        if (tx != null && tx.getStatus().canRollback()) {
+          tx.rollback();
+        }
+        throw e;
+      }
     }
+  }
 
-    if (resourceKeys.containsKey(CATALOG)
-        && resourceKeys.containsKey(SCHEMA)
-        && resourceKeys.containsKey(REGISTERED_MODEL)) {
-      String fullName =
-          resourceKeys.get(CATALOG)
-              + "."
-              + resourceKeys.get(SCHEMA)
-              + "."
-              + resourceKeys.get(REGISTERED_MODEL);
-      RegisteredModelInfo model = modelRepository.getRegisteredModel(fullName);
-      resourceIds.put(REGISTERED_MODEL, UUID.fromString(model.getId()));
-    }
+  private Map<SecurableType, Object> mapResourceKeys(
+      Session session, Map<SecurableType, Object> resourceKeys) {
+    Map<SecurableType, Object> resourceIds = new HashMap<>();
 
-    // If only REGISTERED_MODEL is specified, assuming its value is a full volume name (including
-    // catalog and schema)
-    if (!resourceKeys.containsKey(CATALOG)
-        && !resourceKeys.containsKey(SCHEMA)
-        && resourceKeys.containsKey(REGISTERED_MODEL)) {
-      String fullName = (String) resourceKeys.get(REGISTERED_MODEL);
-      RegisteredModelInfo model = modelRepository.getRegisteredModel(fullName);
-      String fullSchemaName = model.getCatalogName() + "." + model.getSchemaName();
-      SchemaInfo schema = schemaRepository.getSchema(fullSchemaName);
-      CatalogInfo catalog = catalogRepository.getCatalog(model.getCatalogName());
-      resourceIds.put(REGISTERED_MODEL, UUID.fromString(model.getId()));
-      resourceIds.put(SCHEMA, UUID.fromString(schema.getSchemaId()));
-      resourceIds.put(CATALOG, UUID.fromString(catalog.getId()));
+    for (SecurableType type : SECURABLES.keySet()) {
+      if (resourceKeys.containsKey(CATALOG)
+          && resourceKeys.containsKey(SCHEMA)
+          && resourceKeys.containsKey(type)) {
+        NamespaceCache.SchemaIds schemaIds =
+            schemaRepository.getSchemaIds(
+                session, (String) resourceKeys.get(CATALOG), (String) resourceKeys.get(SCHEMA));
+        String fullName =
+            resourceKeys.get(CATALOG)
+                + "."
+                + resourceKeys.get(SCHEMA)
+                + "."
+                + resourceKeys.get(type);
+        resourceIds.put(
+            type, getEntityId(session, type, schemaIds, (String) resourceKeys.get(type), fullName));
+      }
+
+      // If only the securable is specified, assuming its value is a full name (including catalog
+      // and schema). Tables and volumes may also be referenced by id.
+      if (!resourceKeys.containsKey(CATALOG)
+          && !resourceKeys.containsKey(SCHEMA)
+          && resourceKeys.containsKey(type)) {
+        String fullName = (String) resourceKeys.get(type);
+        NamespaceCache.SchemaIds schemaIds;
+        UUID entityId;
+        // If the full name contains a dot, we assume it's a full name, otherwise we assume it's an
+        // id
+        if (fullName.contains(".") || type == FUNCTION || type == REGISTERED_MODEL) {
+          String[] parts = fullName.split("\\.");
+          if (parts.length != 3) {
+            throw new BaseException(
+                ErrorCode.INVALID_ARGUMENT,
+                "Invalid "
+                    + SECURABLES.get(type).displayName().toLowerCase()
+                    + " name: "
+                    + fullName);
+          }
+          schemaIds = schemaRepository.getSchemaIds(session, parts[0], parts[1]);
+          entityId = getEntityId(session, type, schemaIds, parts[2], fullName);
+        } else {
+          entityId = UUID.fromString(fullName);
+          schemaIds =
+              RepositoryUtils.findParentIds(session, SECURABLES.get(type).daoClass(), entityId);
+          if (schemaIds == null) {
+            throw notFound(type, fullName);
+          }
+        }
+        resourceIds.put(type, entityId);
+        resourceIds.put(SCHEMA, schemaIds.schemaId());
+        resourceIds.put(CATALOG, schemaIds.catalogId());
+      }
     }
 
     if (resourceKeys.containsKey(CATALOG) && resourceKeys.containsKey(SCHEMA)) {
-      String fullName = resourceKeys.get(CATALOG) + "." + resourceKeys.get(SCHEMA);
-      SchemaInfo schema = schemaRepository.getSchema(fullName);
-      resourceIds.put(SCHEMA, UUID.fromString(schema.getSchemaId()));
+      NamespaceCache.SchemaIds schemaIds =
+          schemaRepository.getSchemaIds(
+              session, (String) resourceKeys.get(CATALOG), (String) resourceKeys.get(SCHEMA));
+      resourceIds.put(SCHEMA, schemaIds.schemaId());
     }
 
     // if only SCHEMA is specified, assuming its value is a full schema name (including catalog)
     if (!resourceKeys.containsKey(CATALOG) && resourceKeys.containsKey(SCHEMA)) {
       String fullName = (String) resourceKeys.get(SCHEMA);
-      SchemaInfo schema = schemaRepository.getSchema(fullName);
-      CatalogInfo catalog = catalogRepository.getCatalog(schema.getCatalogName());
-      resourceIds.put(SCHEMA, UUID.fromString(schema.getSchemaId()));
-      resourceIds.put(CATALOG, UUID.fromString(catalog.getId()));
+      String[] parts = fullName.split("\\.");
+      if (parts.length != 2) {
+        throw new BaseException(ErrorCode.INVALID_ARGUMENT, "Invalid schema name: " + fullName);
+      }
+      NamespaceCache.SchemaIds schemaIds =
+          schemaRepository.getSchemaIds(session, parts[0], parts[1]);
+      resourceIds.put(SCHEMA, schemaIds.schemaId());
+      resourceIds.put(CATALOG, schemaIds.catalogId());
     }
 
     if (resourceKeys.containsKey(CATALOG)) {
-      String fullName = (String) resourceKeys.get(CATALOG);
-      CatalogInfo catalog = catalogRepository.getCatalog(fullName);
-      resourceIds.put(CATALOG, UUID.fromString(catalog.getId()));
+      String catalogName = (String) resourceKeys.get(CATALOG);
+      resourceIds.put(CATALOG, catalogRepository.getCatalogId(session, catalogName));
     }
 
     if (resourceKeys.containsKey(METASTORE)) {
-      resourceIds.put(METASTORE, metastoreRepository.getMetastoreId());
+      resourceIds.put(METASTORE, metastoreRepository.getMetastoreDAO(session).getId());
     }
 
     return resourceIds;
   }
+
+  private static UUID getEntityId(
+      Session session,
+      SecurableType type,
+      NamespaceCache.SchemaIds schemaIds,
+      String name,
+      String fullName) {
+    UUID entityId =
+        RepositoryUtils.findEntityId(
+            session, SECURABLES.get(type).daoClass(), schemaIds.schemaId(), name);
+    if (entityId == null) {
+      throw notFound(type, fullName);
+    }
+    return entityId;
+  }
+
+  private static BaseException notFound(SecurableType type, String fullName) {
+    return new BaseException(
+        ErrorCode.NOT_FOUND, SECURABLES.get(type).displayName() + " not found: " + fullName);
+  }
 }
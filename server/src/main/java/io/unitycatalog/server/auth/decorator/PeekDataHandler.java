@@ -0,0 +1,229 @@
+package io.unitycatalog.server.auth.decorator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.MediaType;
+import io.unitycatalog.server.exception.BaseException;
+import io.unitycatalog.server.exception.ErrorCode;
+import io.unitycatalog.server.model.SecurableType;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Extracts the {@code @AuthorizeKey} payload values from a JSON request body while it is being
+ * received.
+ *
+ * <p>peekData provides only a block of data at a time, so the chunks are fed into a non-blocking
+ * Jackson parser as they arrive. Keys may be nested, separated by dots (e.g. {@code
+ * function_info.catalog_name}), and are only looked up through objects, never through arrays.
+ * Objects and arrays that can't contain any of the keys are skipped without being materialized, so
+ * large payloads such as a create-table request with thousands of columns are processed in constant
+ * memory. The keys are only reported once the root object ends, and any data after it is ignored.
+ *
+ * <p>Anything the handler can't check is rejected rather than let through unauthorized: a body
+ * that isn't JSON, isn't a single object or ends before the root object does, and keys whose value
+ * isn't a string or null.
+ *
+ * <p>Jackson keeps the last value of a duplicate key when the service binds the payload, so a
+ * payload that repeats a key, or one of the objects on its path, is rejected. Otherwise the request
+ * could be authorized against one value and executed against another.
+ *
+ * <p>A better long term solution would be to abandon this method and either integrate with Spring
+ * Boot to get full AOP support with aspect weaving, or build implement custom aspect weaving so we
+ * can intercept the method call directly and extract the payload data from the method arguments.
+ */
+class PeekDataHandler {
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final MediaType contentType;
+  private final Map<SecurableType, Object> resourceKeys;
+  // payload key -> locators reading it, for the keys that haven't been seen yet
+  private final Map<String, List<KeyLocator>> pendingKeys = new HashMap<>();
+  // dotted paths of all the keys
+  private final Set<String> keys = new HashSet<>();
+  // dotted prefixes of the keys, i.e. the objects we have to descend into
+  private final Set<String> prefixes = new HashSet<>();
+  // dotted paths of the keys and prefixes seen so far, to reject duplicates
+  private final Set<String> seenPaths = new HashSet<>();
+  // dotted path of each object we're currently in, the root object being ""
+  private final Deque<String> objectPaths = new ArrayDeque<>();
+
+  private JsonParser parser;
+  private ByteArrayFeeder feeder;
+  private String fieldName;
+  private int skipDepth;
+  private boolean done;
+
+  PeekDataHandler(
+      MediaType contentType,
+      List<KeyLocator> payloadLocators,
+      Map<SecurableType, Object> resourceKeys) {
+    this.contentType = contentType;
+    this.resourceKeys = resourceKeys;
+    for (KeyLocator locator : payloadLocators) {
+      pendingKeys.computeIfAbsent(locator.getKey(), k -> new ArrayList<>()).add(locator);
+      String key = locator.getKey();
+      keys.add(key);
+      for (int i = key.indexOf('.'); i >= 0; i = key.indexOf('.', i + 1)) {
+        prefixes.add(key.substring(0, i));
+      }
+    }
+  }
+
+  /**
+   * Feed the next block of the request body.
+   *
+   * @return true exactly once, when all the payload keys have been put into the resource keys
+   * @throws BaseException if the payload isn't a JSON object, repeats a key or one of the objects on
+   *     its path, or has a key that isn't a string
+   */
+  boolean processPeekData(HttpData data) {
+    if (done) {
+      return false;
+    }
+    return process(
+        () -> {
+          byte[] bytes = data.array();
+          feeder.feedInput(bytes, 0, bytes.length);
+        });
+  }
+
+  /**
+   * Signal the end of the request body.
+   *
+   * @throws BaseException if the body ended before the root object did
+   */
+  void endOfInput() {
+    // the feeder is only created with the first block, so it must be read lazily
+    if (!done && !process(() -> feeder.endOfInput())) {
+      throw new BaseException(ErrorCode.INVALID_ARGUMENT, "Incomplete request payload.");
+    }
+  }
+
+  private boolean process(InputStep step) {
+    try {
+      // TODO: For now, we're going to assume JSON data, but might need to support other
+      // content types.
+      if (contentType == null || !contentType.is(MediaType.JSON)) {
+        throw new BaseException(
+            ErrorCode.INVALID_ARGUMENT, "Unsupported content type: " + contentType);
+      }
+      if (parser == null) {
+        parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+      }
+      step.run();
+      done = parse();
+      return done;
+    } catch (IOException e) {
+      done = true;
+      throw new BaseException(ErrorCode.INVALID_ARGUMENT, "Invalid request payload.", e);
+    } catch (BaseException e) {
+      done = true;
+      throw e;
+    }
+  }
+
+  /** Consume all the tokens available so far, returning true once the root object ends. */
+  private boolean parse() throws IOException {
+    JsonToken token;
+    while ((token = parser.nextToken()) != JsonToken.NOT_AVAILABLE) {
+      if (token == null) {
+        // end of input without a root object
+        return false;
+      }
+      if (skipDepth > 0) {
+        if (token.isStructStart()) {
+          skipDepth++;
+        } else if (token.isStructEnd()) {
+          skipDepth--;
+        }
+        continue;
+      }
+      if (objectPaths.isEmpty() && token != JsonToken.START_OBJECT) {
+        throw new BaseException(
+            ErrorCode.INVALID_ARGUMENT, "Request payload must be a JSON object.");
+      }
+      switch (token) {
+        case FIELD_NAME -> {
+          fieldName = parser.currentName();
+          String path = currentPath();
+          if ((keys.contains(path) || prefixes.contains(path)) && !seenPaths.add(path)) {
+            throw new BaseException(
+                ErrorCode.INVALID_ARGUMENT, "Duplicate key in request payload: " + path);
+          }
+        }
+        case START_OBJECT -> {
+          if (objectPaths.isEmpty()) {
+            objectPaths.push("");
+          } else {
+            String path = checkNotKey(currentPath());
+            if (prefixes.contains(path)) {
+              objectPaths.push(path);
+            } else {
+              skipDepth = 1;
+            }
+          }
+        }
+        case START_ARRAY -> {
+          checkNotKey(currentPath());
+          skipDepth = 1;
+        }
+        case END_OBJECT -> {
+          objectPaths.pop();
+          if (objectPaths.isEmpty()) {
+            return finish();
+          }
+        }
+        default -> {
+          String path = currentPath();
+          if (token != JsonToken.VALUE_STRING && token != JsonToken.VALUE_NULL) {
+            checkNotKey(path);
+          }
+          List<KeyLocator> locators = pendingKeys.remove(path);
+          if (locators != null) {
+            Object value = token == JsonToken.VALUE_NULL ? null : parser.getText();
+            locators.forEach(l -> resourceKeys.put(l.getType(), value));
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /** Keys are bound to strings, so any other value is rejected rather than coerced. */
+  private String checkNotKey(String path) {
+    if (keys.contains(path)) {
+      throw new BaseException(
+          ErrorCode.INVALID_ARGUMENT, "Expected a string in request payload: " + path);
+    }
+    return path;
+  }
+
+  private String currentPath() {
+    String objectPath = objectPaths.peek();
+    return objectPath.isEmpty() ? fieldName : objectPath + "." + fieldName;
+  }
+
+  private boolean finish() throws IOException {
+    // Keys that aren't in the payload resolve to null
+    pendingKeys.values().forEach(ls -> ls.forEach(l -> resourceKeys.put(l.getType(), null)));
+    pendingKeys.clear();
+    parser.close();
+    return true;
+  }
+
+  private interface InputStep {
+    void run() throws IOException;
+  }
+}
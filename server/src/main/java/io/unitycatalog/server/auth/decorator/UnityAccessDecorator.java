@@ -1,16 +1,16 @@
 package io.unitycatalog.server.auth.decorator;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linecorp.armeria.common.FilteredHttpRequest;
 import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpObject;
 import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.HttpResponse;
-import com.linecorp.armeria.common.MediaType;
-import com.linecorp.armeria.internal.server.annotation.AnnotatedService;
 import com.linecorp.armeria.server.DecoratingHttpServiceFunction;
 import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.ServiceConfig;
 import com.linecorp.armeria.server.ServiceRequestContext;
 import com.linecorp.armeria.server.SimpleDecoratingHttpService;
+import com.linecorp.armeria.server.annotation.AnnotatedService;
 import com.linecorp.armeria.server.annotation.Param;
 import io.unitycatalog.server.auth.UnityCatalogAuthorizer;
 import io.unitycatalog.server.auth.annotation.AuthorizeExpression;
@@ -22,10 +22,9 @@ import io.unitycatalog.server.model.SecurableType;
 import io.unitycatalog.server.persist.Repositories;
 import io.unitycatalog.server.persist.UserRepository;
 import org.slf4j.Logger;
+import org.reactivestreams.Subscriber;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.ArrayList;
@@ -34,6 +33,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.expression.Expression;
 
 import static io.unitycatalog.server.auth.decorator.KeyLocator.Source.PARAM;
 import static io.unitycatalog.server.auth.decorator.KeyLocator.Source.PAYLOAD;
@@ -53,16 +54,36 @@ import static io.unitycatalog.server.auth.decorator.KeyLocator.Source.SYSTEM;
  * context. These are typically things like catalog, schema and table names. This annotation may be used
  * at both the method and method parameter context. It may be specified more than once per method to
  * map parameters to object keys.
+ * <p>
+ * The annotations of each service method are resolved once, either up front through
+ * {@link #resolveAuthorizations(List)} or on the first request to a route, and kept together with
+ * the parsed expression so that authorizing a request doesn't need any reflection or parsing.
  */
 public class UnityAccessDecorator implements DecoratingHttpServiceFunction {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(UnityAccessDecorator.class);
-  private static final ObjectMapper MAPPER = new ObjectMapper();
   private final KeyMapper keyMapper;
   private final UserRepository userRepository;
 
   private final UnityAccessEvaluator evaluator;
 
+  private final Map<HttpService, MethodAuthorization> authorizations = new ConcurrentHashMap<>();
+
+  /**
+   * The authorization rules of a single service method, with its key locators already split by
+   * source.
+   */
+  private record MethodAuthorization(Expression expression, List<KeyLocator> systemLocators,
+                                     List<KeyLocator> paramLocators,
+                                     List<KeyLocator> payloadLocators) {
+    private static final MethodAuthorization NONE =
+            new MethodAuthorization(null, List.of(), List.of(), List.of());
+
+    private boolean hasLocators() {
+      return !systemLocators.isEmpty() || !paramLocators.isEmpty() || !payloadLocators.isEmpty();
+    }
+  }
+
   public UnityAccessDecorator(UnityCatalogAuthorizer authorizer, Repositories repositories) throws BaseException {
     try {
       evaluator = new UnityAccessEvaluator(authorizer);
@@ -78,54 +99,73 @@ public class UnityAccessDecorator implements DecoratingHttpServiceFunction {
           throws Exception {
     LOGGER.debug("AccessDecorator checking {}", req.path());
 
-    Method method = findServiceMethod(ctx.config().service());
-
-    if (method != null) {
-
-      // Find the authorization parameters to use for this service method.
-      String expression = findAuthorizeExpression(method);
-      List<KeyLocator> locator = findAuthorizeKeys(method);
+    MethodAuthorization authorization =
+            authorizations.computeIfAbsent(ctx.config().service(), this::resolveAuthorization);
 
-      if (expression != null) {
-        if (!locator.isEmpty()) {
-          UUID principal = userRepository.findPrincipalId();
-          return authorizeByRequest(delegate, ctx, req, principal, locator, expression);
-        } else {
-          LOGGER.warn("No authorization resource(s) found.");
-          // going to assume the expression is just #deny, #permit or #defer
-        }
+    if (authorization.expression() != null) {
+      if (authorization.hasLocators()) {
+        UUID principal = userRepository.findPrincipalId();
+        return authorizeByRequest(delegate, ctx, req, principal, authorization);
       } else {
-        LOGGER.debug("No authorization expression found.");
+        LOGGER.warn("No authorization resource(s) found.");
+        // going to assume the expression is just #deny, #permit or #defer
       }
-    } else {
-      LOGGER.warn("Couldn't unwrap service.");
     }
 
     return delegate.serve(ctx, req);
   }
 
+  /**
+   * Resolve the authorization rules of the given services ahead of the first request, typically
+   * with the service configs of the built server.
+   */
+  public void resolveAuthorizations(List<ServiceConfig> serviceConfigs) {
+    serviceConfigs.forEach(
+            config -> authorizations.computeIfAbsent(config.service(), this::resolveAuthorization));
+  }
+
+  private MethodAuthorization resolveAuthorization(HttpService service) {
+    Method method = findServiceMethod(service);
+
+    if (method == null) {
+      LOGGER.warn("Couldn't unwrap service.");
+      return MethodAuthorization.NONE;
+    }
+
+    // Find the authorization parameters to use for this service method.
+    String expression = findAuthorizeExpression(method);
+    if (expression == null) {
+      LOGGER.debug("No authorization expression found.");
+      return MethodAuthorization.NONE;
+    }
+
+    // Split up the locators by type, because we have to extract the value from the request
+    // different ways for different types
+    List<KeyLocator> locators = findAuthorizeKeys(method);
+    return new MethodAuthorization(
+            evaluator.parse(expression),
+            locators.stream().filter(l -> l.getSource().equals(SYSTEM)).toList(),
+            locators.stream().filter(l -> l.getSource().equals(PARAM)).toList(),
+            locators.stream().filter(l -> l.getSource().equals(PAYLOAD)).toList());
+  }
+
   private HttpResponse authorizeByRequest(HttpService delegate, ServiceRequestContext ctx,
-                                          HttpRequest req, UUID principal, List<KeyLocator> locators,
-                                          String expression) throws Exception {
+                                          HttpRequest req, UUID principal,
+                                          MethodAuthorization authorization) throws Exception {
     //
     // Based on the query and payload parameters defined on the service method (that
     // have been gathered as Locators), we'll attempt to find the entity/resource that
     // we want to authorize against.
 
     Map<SecurableType, Object> resourceKeys = new HashMap<>();
-
-    // Split up the locators by type, because we have to extract the value from the request
-    // different ways for different types
-
-    List<KeyLocator> systemLocators = locators.stream().filter(l -> l.getSource().equals(SYSTEM)).toList();
-    List<KeyLocator> paramLocators = locators.stream().filter(l -> l.getSource().equals(PARAM)).toList();
-    List<KeyLocator> payloadLocators = locators.stream().filter(l -> l.getSource().equals(PAYLOAD)).toList();
+    Expression expression = authorization.expression();
+    List<KeyLocator> payloadLocators = authorization.payloadLocators();
 
     // Add system-type keys, just metastore for now.
-    systemLocators.forEach(l -> resourceKeys.put(l.getType(), "metastore"));
+    authorization.systemLocators().forEach(l -> resourceKeys.put(l.getType(), "metastore"));
 
     // Extract the query/path parameter values just by grabbing them from the request
-    paramLocators.forEach(l -> {
+    authorization.paramLocators().forEach(l -> {
       String value = ctx.pathParam(l.getKey()) != null ? ctx.pathParam(l.getKey()) : ctx.queryParam(l.getKey());
       resourceKeys.put(l.getType(), value);
     });
@@ -144,37 +184,33 @@ public class UnityAccessDecorator implements DecoratingHttpServiceFunction {
 
       PeekDataHandler peekDataHandler = new PeekDataHandler(req.contentType(), payloadLocators, resourceKeys);
 
-      // Note that peekData only gets called for requests that actually have data (like PUT and POST)
+      // peekData only gets called for requests that actually have data (like PUT and POST), so the
+      // end of the body is checked as well, to reject a request whose payload was never complete.
 
-      var peekReq = req.peekData(data -> {
-        LOGGER.debug("Authorization peekData invoked.");
+      var peekReq = new FilteredHttpRequest(req) {
+        @Override
+        protected HttpObject filter(HttpObject obj) {
+          if (obj instanceof HttpData data) {
+            LOGGER.debug("Authorization peekData invoked.");
 
-        if (peekDataHandler.processPeekData(data)) {
-          checkAuthorization(principal, expression, resourceKeys);
+            if (peekDataHandler.processPeekData(data)) {
+              checkAuthorization(principal, expression, resourceKeys);
+            }
+          }
+          return obj;
         }
-      });
 
-      return delegate.serve(ctx, peekReq);
-    }
-  }
+        @Override
+        protected void beforeComplete(Subscriber<? super HttpObject> subscriber) {
+          peekDataHandler.endOfInput();
+        }
+      };
 
-  private static Object findPayloadValue(String key, Map<String, Object> payload) {
-    // TODO: investigate better object traversal functionality
-    String[] args = key.split("[.]", 2);
-    if (args.length == 1) {
-      return payload.get(args[0]);
-    } else {
-      if (payload.get(args[0]) instanceof Map) {
-        @SuppressWarnings("unchecked")
-        Map<String, Object> value = (Map<String, Object>) payload.get(args[0]);
-        return findPayloadValue(args[1], value);
-      } else {
-        return null;
-      }
+      return delegate.serve(ctx, peekReq);
     }
   }
 
-  private void checkAuthorization(UUID principal, String expression, Map<SecurableType, Object> resourceKeys) {
+  private void checkAuthorization(UUID principal, Expression expression, Map<SecurableType, Object> resourceKeys) {
     LOGGER.debug("resourceKeys = {}", resourceKeys);
 
     Map<SecurableType, Object> resourceIds = keyMapper.mapResourceKeys(resourceKeys);
@@ -191,8 +227,6 @@ public class UnityAccessDecorator implements DecoratingHttpServiceFunction {
   }
 
   private static String findAuthorizeExpression(Method method) {
-    // TODO: Cache this by method
-
     AuthorizeExpression annotation = method.getAnnotation(AuthorizeExpression.class);
 
     if (annotation != null) {
@@ -205,8 +239,6 @@ public class UnityAccessDecorator implements DecoratingHttpServiceFunction {
   }
 
   private static List<KeyLocator> findAuthorizeKeys(Method method) {
-    // TODO: Cache this by method
-
     List<KeyLocator> locators = new ArrayList<>();
 
     AuthorizeKey methodKey = method.getAnnotation(AuthorizeKey.class);
@@ -250,84 +282,15 @@ public class UnityAccessDecorator implements DecoratingHttpServiceFunction {
     return locators;
   }
 
-  private static Method findServiceMethod(HttpService httpService) throws ClassNotFoundException {
+  private static Method findServiceMethod(HttpService httpService) {
     if (httpService.unwrap() instanceof SimpleDecoratingHttpService decoratingService &&
             decoratingService.unwrap() instanceof AnnotatedService service) {
 
-      LOGGER.debug("serviceName = {}, methodName = {}", service.serviceName(), service.methodName());
+      LOGGER.debug("serviceName = {}, methodName = {}", service.name(), service.methodName());
 
-      Class<?> clazz = Class.forName(service.serviceName());
-      List<Method> methods = findMethodsByName(clazz, service.methodName());
-      return (methods.size() == 1) ? methods.get(0) : null;
+      return service.method();
     } else {
       return null;
     }
   }
-
-  private static List<Method> findMethodsByName(Class<?> clazz, String methodName) {
-    List<Method> matchingMethods = new ArrayList<>();
-    Method[] methods = clazz.getDeclaredMethods();
-
-    for (Method method : methods) {
-      if (method.getName().equals(methodName)) {
-        matchingMethods.add(method);
-      }
-    }
-
-    return matchingMethods;
-  }
-
-  private static class PeekDataHandler {
-    // This is a little ugly - peekData provides only a block of data at a time, so lets
-    // buffer it up until we think its complete. A better long term solution would be to
-    // abandon this method and either integrate with Spring Boot to get full AOP support
-    // with aspect weaving, or build implement custom aspect weaving so we can intercept
-    // the method call directly and extract the payload data from the method arguments.
-
-    private final MediaType contentType;
-    private final List<KeyLocator> payloadLocators;
-    private final Map<SecurableType, Object> resourceKeys;
-    private final ByteArrayOutputStream dataStream = new ByteArrayOutputStream();
-
-    private PeekDataHandler(MediaType contentType, List<KeyLocator> payloadLocators, Map<SecurableType, Object> resourceKeys) {
-      this.contentType = contentType;
-      this.payloadLocators = payloadLocators;
-      this.resourceKeys = resourceKeys;
-    }
-
-    private boolean processPeekData(HttpData data) {
-      // TODO: For now, we're going to assume JSON data, but might need to support other
-      // content types.
-      if (contentType.equals(MediaType.JSON)) {
-        try {
-          dataStream.write(data.array());
-          LOGGER.debug("Payload: {}", dataStream.toString());
-        } catch (IOException e) {
-          // IGNORE
-        }
-
-        // Unfortunately we don't appear to get a signal that we've got all the data, so we have to
-        // resort to attempting to parse the data whenever it _looks_ complete.
-        // TODO: try to optimize this using Jackson streaming or something else.
-        if (data.array()[data.array().length - 1] == '}') {
-          try {
-            Map<String, Object> payload = MAPPER.readValue(dataStream.toByteArray(), new TypeReference<>() {
-            });
-
-            payloadLocators.forEach(l -> resourceKeys.put(l.getType(), findPayloadValue(l.getKey(), payload)));
-            return true;
-          } catch (IOException e) {
-            // This is probably because we read partial data.
-            LOGGER.warn("Error parsing payload: {}", e.getMessage());
-          }
-        }
-
-      } else {
-        LOGGER.warn("Skipping content-type: {}", contentType);
-      }
-
-      return false;
-    }
-
-  }
-}
\ No newline at end of file
+}
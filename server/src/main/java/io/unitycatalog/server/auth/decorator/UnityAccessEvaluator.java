@@ -6,13 +6,23 @@ import io.unitycatalog.server.persist.model.Privileges;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
@@ -27,13 +37,30 @@ import org.springframework.expression.spel.support.StandardEvaluationContext;
  * <p>Example:
  *
  * <p>#authorize(#principal, #schema, 'USE SCHEMA') || #authorize(#principal, #table, 'OWNER')
+ *
+ * <p>Expressions are parsed once and cached by their text. They are parsed in mixed compiler mode,
+ * so SpEL compiles them to bytecode after a few interpreted evaluations where the expression allows
+ * it. Each thread reuses one evaluation context with the functions already registered; only the
+ * principal and resource variables are set per evaluation.
  */
 public class UnityAccessEvaluator {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(UnityAccessEvaluator.class);
 
+  private static final Map<SecurableType, String> VARIABLE_NAMES =
+      new EnumMap<>(SecurableType.class);
+
+  static {
+    for (SecurableType type : SecurableType.values()) {
+      VARIABLE_NAMES.put(type, type.name().toLowerCase());
+    }
+  }
+
   private final UnityCatalogAuthorizer authorizer;
   private final ExpressionParser parser;
+  private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+  private final ThreadLocal<StandardEvaluationContext> contexts =
+      ThreadLocal.withInitial(this::createContext);
   private final MethodHandle authorizeHandle;
   private final MethodHandle authorizeAnyHandle;
   private final MethodHandle authorizeAllHandle;
@@ -41,7 +68,9 @@ public class UnityAccessEvaluator {
   public UnityAccessEvaluator(UnityCatalogAuthorizer authorizer)
       throws NoSuchMethodException, IllegalAccessException {
     this.authorizer = authorizer;
-    this.parser = new SpelExpressionParser();
+    this.parser =
+        new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, getClass().getClassLoader()));
 
     MethodHandles.Lookup lookup = MethodHandles.lookup();
     MethodType mt = MethodType.methodType(boolean.class, UUID.class, UUID.class, Privileges.class);
@@ -75,9 +104,7 @@ public class UnityAccessEvaluator {
     return authorizer.authorizeAll(principalId, resource, privileges);
   }
 
-  public boolean evaluate(
-      UUID principal, String expression, Map<SecurableType, Object> resourceIds) {
-
+  private StandardEvaluationContext createContext() {
     StandardEvaluationContext context = new StandardEvaluationContext(Privileges.class);
 
     context.registerFunction("authorize", authorizeHandle);
@@ -87,22 +114,94 @@ public class UnityAccessEvaluator {
     context.setVariable("deny", Boolean.FALSE);
     context.setVariable("permit", Boolean.TRUE);
     context.setVariable("defer", Boolean.TRUE);
-    context.setVariable("principal", principal);
+    return context;
+  }
+
+  /** Parse an authorization expression, or return the already parsed instance. */
+  public Expression parse(String expression) {
+    return expressions.computeIfAbsent(expression, parser::parseExpression);
+  }
 
-    resourceIds.forEach((k, v) -> context.setVariable(k.name().toLowerCase(), v));
+  public boolean evaluate(
+      UUID principal, String expression, Map<SecurableType, Object> resourceIds) {
+    return evaluate(principal, parse(expression), resourceIds);
+  }
 
-    Boolean result = parser.parseExpression(expression).getValue(context, Boolean.class);
+  public boolean evaluate(
+      UUID principal, Expression expression, Map<SecurableType, Object> resourceIds) {
+
+    StandardEvaluationContext context = contexts.get();
+    context.setVariable("principal", principal);
+    resourceIds.forEach((k, v) -> context.setVariable(VARIABLE_NAMES.get(k), v));
 
-    LOGGER.debug("evaluating {} = {}", expression, result);
+    Boolean result;
+    try {
+      result = expression.getValue(context, Boolean.class);
+    } finally {
+      // Setting a variable to null removes it, so nothing leaks into the next evaluation
+      context.setVariable("principal", null);
+      resourceIds.keySet().forEach(k -> context.setVariable(VARIABLE_NAMES.get(k), null));
+    }
+
+    LOGGER.debug("evaluating {} = {}", expression.getExpressionString(), result);
 
     return result != null ? result : false;
   }
 
+  /**
+   * Filter a page of entries that are the children of other resources, e.g. the tables of a schema.
+   *
+   * <p>An entry is kept if {@code parentExpression} holds, or if {@code childExpression} holds and
+   * the principal has any of the given privileges on the entry itself. Both expressions may only
+   * refer to the parent resources, so they are evaluated once per distinct set of parents rather
+   * than once per entry. The privileges on the remaining entries are checked with a single {@link
+   * UnityCatalogAuthorizer#authorizeBatch} call per set of parents.
+   *
+   * @param parentResolver Returns the ids of the parent resources of an entry. Called once per
+   *     entry, so it should be cheap.
+   * @param idGetter Returns the id of an entry
+   */
+  public <T> void filterChildren(
+      UUID principalId,
+      String parentExpression,
+      String childExpression,
+      List<T> entries,
+      Function<T, Map<SecurableType, Object>> parentResolver,
+      Function<T, UUID> idGetter,
+      Privileges... privileges) {
+    Expression parsedParentExpression = parse(parentExpression);
+    Expression parsedChildExpression = parse(childExpression);
+    Map<Map<SecurableType, Object>, List<T>> entriesByParents =
+        entries.stream()
+            .collect(
+                Collectors.groupingBy(parentResolver, LinkedHashMap::new, Collectors.toList()));
+
+    Set<T> denied = Collections.newSetFromMap(new IdentityHashMap<>());
+    entriesByParents.forEach(
+        (parentIds, children) -> {
+          if (evaluate(principalId, parsedParentExpression, parentIds)) {
+            return;
+          }
+          if (!evaluate(principalId, parsedChildExpression, parentIds)) {
+            denied.addAll(children);
+            return;
+          }
+          Set<UUID> allowed =
+              authorizer.authorizeBatch(
+                  principalId, children.stream().map(idGetter).toList(), privileges);
+          children.stream().filter(c -> !allowed.contains(idGetter.apply(c))).forEach(denied::add);
+        });
+    if (!denied.isEmpty()) {
+      entries.removeIf(denied::contains);
+    }
+  }
+
   public <T> void filter(
       UUID principalId,
       String expression,
       List<T> entries,
       Function<T, Map<SecurableType, Object>> resolver) {
-    entries.removeIf(c -> !evaluate(principalId, expression, resolver.apply(c)));
+    Expression parsedExpression = parse(expression);
+    entries.removeIf(c -> !evaluate(principalId, parsedExpression, resolver.apply(c)));
   }
 }
@@ -5,6 +5,7 @@ import io.unitycatalog.server.exception.ErrorCode;
 import io.unitycatalog.server.model.*;
 import io.unitycatalog.server.persist.dao.CatalogInfoDAO;
 import io.unitycatalog.server.persist.dao.PropertyDAO;
+import io.unitycatalog.server.persist.utils.NamespaceCache;
 import io.unitycatalog.server.persist.utils.PagedListingHelper;
 import io.unitycatalog.server.persist.utils.RepositoryUtils;
 import io.unitycatalog.server.utils.Constants;
@@ -14,6 +15,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
@@ -25,12 +27,14 @@ public class CatalogRepository {
   private static final Logger LOGGER = LoggerFactory.getLogger(CatalogRepository.class);
   private final Repositories repositories;
   private final SessionFactory sessionFactory;
+  private final NamespaceCache namespaceCache;
   private static final PagedListingHelper<CatalogInfoDAO> LISTING_HELPER =
       new PagedListingHelper<>(CatalogInfoDAO.class);
 
   public CatalogRepository(Repositories repositories, SessionFactory sessionFactory) {
     this.repositories = repositories;
     this.sessionFactory = sessionFactory;
+    this.namespaceCache = repositories.getNamespaceCache();
   }
 
   public CatalogInfo addCatalog(CreateCatalog createCatalog) {
@@ -100,11 +104,10 @@ public class CatalogRepository {
     String nextPageToken = LISTING_HELPER.getNextPageToken(catalogInfoDAOList, maxResults);
     List<CatalogInfo> result = new ArrayList<>();
     for (CatalogInfoDAO catalogInfoDAO : catalogInfoDAOList) {
-      CatalogInfo catalogInfo = catalogInfoDAO.toCatalogInfo();
-      RepositoryUtils.attachProperties(
-          catalogInfo, catalogInfo.getId(), Constants.CATALOG, session);
-      result.add(catalogInfo);
+      result.add(catalogInfoDAO.toCatalogInfo());
     }
+    RepositoryUtils.attachProperties(
+        result, CatalogInfo::getId, CatalogInfo::setProperties, Constants.CATALOG, session);
     return new ListCatalogsResponse().catalogs(result).nextPageToken(nextPageToken);
   }
 
@@ -133,9 +136,31 @@ public class CatalogRepository {
         session.createQuery("FROM CatalogInfoDAO WHERE name = :value", CatalogInfoDAO.class);
     query.setParameter("value", name);
     query.setMaxResults(1);
+    query.setCacheable(true);
     return query.uniqueResult();
   }
 
+  /**
+   * Resolve the id of a catalog by name. Resolved ids are served from the shared namespace cache.
+   *
+   * @param session The Hibernate session used on a cache miss
+   * @param name The name of the catalog
+   * @return The catalog id
+   */
+  public UUID getCatalogId(Session session, String name) {
+    UUID catalogId =
+        namespaceCache.getCatalogId(
+            name,
+            () -> {
+              CatalogInfoDAO catalogInfoDAO = getCatalogDAO(session, name);
+              return catalogInfoDAO != null ? catalogInfoDAO.getId() : null;
+            });
+    if (catalogId == null) {
+      throw new BaseException(ErrorCode.NOT_FOUND, "Catalog not found: " + name);
+    }
+    return catalogId;
+  }
+
   public CatalogInfo updateCatalog(String name, UpdateCatalog updateCatalog) {
     if (updateCatalog.getNewName() != null) {
       ValidationUtils.validateSqlObjectName(updateCatalog.getNewName());
@@ -178,6 +203,7 @@ public class CatalogRepository {
         catalogInfoDAO.setUpdatedAt(new Date());
         catalogInfoDAO.setUpdatedBy(callerId);
         session.merge(catalogInfoDAO);
+        namespaceCache.invalidateCatalogOnCompletion(session, name);
         tx.commit();
         CatalogInfo catalogInfo = catalogInfoDAO.toCatalogInfo();
         return RepositoryUtils.attachProperties(
@@ -238,6 +264,7 @@ public class CatalogRepository {
           PropertyRepository.findProperties(session, catalogInfo.getId(), Constants.CATALOG)
               .forEach(session::remove);
           session.remove(catalogInfo);
+          namespaceCache.invalidateCatalogOnCompletion(session, name);
           tx.commit();
           LOGGER.info("Deleted catalog: {}", catalogInfo.getName());
         } else {
@@ -4,7 +4,6 @@ import io.unitycatalog.server.exception.BaseException;
 import io.unitycatalog.server.exception.ErrorCode;
 import io.unitycatalog.server.model.*;
 import io.unitycatalog.server.persist.dao.FunctionInfoDAO;
-import io.unitycatalog.server.persist.dao.SchemaInfoDAO;
 import io.unitycatalog.server.persist.utils.PagedListingHelper;
 import io.unitycatalog.server.persist.utils.RepositoryUtils;
 import io.unitycatalog.server.utils.Constants;
@@ -81,17 +80,13 @@ public class FunctionRepository {
       try {
         String catalogName = createFunction.getCatalogName();
         String schemaName = createFunction.getSchemaName();
-        SchemaInfoDAO schemaInfo =
-            repositories.getSchemaRepository().getSchemaDAO(session, catalogName, schemaName);
-        if (schemaInfo == null) {
-          throw new BaseException(ErrorCode.NOT_FOUND, "Schema not found: " + schemaName);
-        }
+        UUID schemaId = getSchemaId(session, catalogName, schemaName);
         if (getFunctionDAO(session, catalogName, schemaName, createFunction.getName()) != null) {
           throw new BaseException(
               ErrorCode.ALREADY_EXISTS, "Function already exists: " + createFunction.getName());
         }
         FunctionInfoDAO dao = FunctionInfoDAO.from(functionInfo);
-        dao.setSchemaId(schemaInfo.getId());
+        dao.setSchemaId(schemaId);
         dao.getInputParams()
             .forEach(
                 p -> {
@@ -121,12 +116,7 @@ public class FunctionRepository {
   }
 
   public UUID getSchemaId(Session session, String catalogName, String schemaName) {
-    SchemaInfoDAO schemaInfo =
-        repositories.getSchemaRepository().getSchemaDAO(session, catalogName, schemaName);
-    if (schemaInfo == null) {
-      throw new BaseException(ErrorCode.NOT_FOUND, "Schema not found: " + schemaName);
-    }
-    return schemaInfo.getId();
+    return repositories.getSchemaRepository().getSchemaId(session, catalogName, schemaName);
   }
 
   /**
@@ -172,11 +162,16 @@ public class FunctionRepository {
     List<FunctionInfo> result = new ArrayList<>();
     for (FunctionInfoDAO functionInfoDAO : functionInfoDAOList) {
       FunctionInfo functionInfo = functionInfoDAO.toFunctionInfo();
-      RepositoryUtils.attachProperties(
-          functionInfo, functionInfo.getFunctionId(), Constants.FUNCTION, session);
       addNamespaceData(functionInfo, catalogName, schemaName);
       result.add(functionInfo);
     }
+    // function properties are exposed as a string
+    RepositoryUtils.attachProperties(
+        result,
+        FunctionInfo::getFunctionId,
+        (functionInfo, properties) -> functionInfo.setProperties(properties.toString()),
+        Constants.FUNCTION,
+        session);
     return new ListFunctionsResponse().functions(result).nextPageToken(nextPageToken);
   }
 
@@ -218,12 +213,7 @@ public class FunctionRepository {
 
   public FunctionInfoDAO getFunctionDAO(
       Session session, String catalogName, String schemaName, String functionName) {
-    SchemaInfoDAO schemaInfo =
-        repositories.getSchemaRepository().getSchemaDAO(session, catalogName, schemaName);
-    if (schemaInfo == null) {
-      throw new BaseException(ErrorCode.NOT_FOUND, "Schema not found: " + schemaName);
-    }
-    return getFunctionDAO(session, schemaInfo.getId(), functionName);
+    return getFunctionDAO(session, getSchemaId(session, catalogName, schemaName), functionName);
   }
 
   public FunctionInfoDAO getFunctionDAO(Session session, UUID schemaId, String functionName) {
@@ -246,12 +236,8 @@ public class FunctionRepository {
           throw new BaseException(ErrorCode.INVALID_ARGUMENT, "Invalid function name: " + name);
         }
         String catalogName = parts[0], schemaName = parts[1], functionName = parts[2];
-        SchemaInfoDAO schemaInfo =
-            repositories.getSchemaRepository().getSchemaDAO(session, catalogName, schemaName);
-        if (schemaInfo == null) {
-          throw new BaseException(ErrorCode.NOT_FOUND, "Schema not found: " + schemaName);
-        }
-        deleteFunction(session, schemaInfo.getId(), functionName);
+        UUID schemaId = getSchemaId(session, catalogName, schemaName);
+        deleteFunction(session, schemaId, functionName);
         tx.commit();
         LOGGER.info("Deleted function: {}", functionName);
       } catch (Exception e) {
@@ -40,6 +40,7 @@ public class MetastoreRepository {
   public MetastoreDAO getMetastoreDAO(Session session) {
     Query<MetastoreDAO> query = session.createQuery("FROM MetastoreDAO", MetastoreDAO.class);
     query.setMaxResults(1);
+    query.setCacheable(true);
     return query.uniqueResult();
   }
 
@@ -798,20 +798,10 @@ public class ModelRepository {
   }
 
   public UUID getSchemaId(Session session, String catalogName, String schemaName) {
-    SchemaInfoDAO schemaInfo =
-        repositories.getSchemaRepository().getSchemaDAO(session, catalogName, schemaName);
-    if (schemaInfo == null) {
-      throw new BaseException(ErrorCode.NOT_FOUND, "Schema not found: " + schemaName);
-    }
-    return schemaInfo.getId();
+    return repositories.getSchemaRepository().getSchemaId(session, catalogName, schemaName);
   }
 
   public UUID getCatalogId(Session session, String catalogName) {
-    CatalogInfoDAO catalogInfo =
-        repositories.getCatalogRepository().getCatalogDAO(session, catalogName);
-    if (catalogInfo == null) {
-      throw new BaseException(ErrorCode.NOT_FOUND, "Catalog not found: " + catalogName);
-    }
-    return catalogInfo.getId();
+    return repositories.getCatalogRepository().getCatalogId(session, catalogName);
   }
 }
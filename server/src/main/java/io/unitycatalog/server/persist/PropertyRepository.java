@@ -1,7 +1,10 @@
 package io.unitycatalog.server.persist;
 
 import io.unitycatalog.server.persist.dao.PropertyDAO;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.hibernate.Session;
 import org.hibernate.query.Query;
@@ -20,4 +23,33 @@ public class PropertyRepository {
     query.setParameter("entityType", entityType);
     return query.list();
   }
+
+  /**
+   * Find the properties of a batch of entities of the same type with a single query.
+   *
+   * @param session The Hibernate session
+   * @param entityIds The ids of the entities
+   * @param entityType The type of the entities
+   * @return The properties of each entity keyed by entity id. Entities without properties are
+   *     absent from the map.
+   */
+  public static Map<UUID, Map<String, String>> findProperties(
+      Session session, Collection<UUID> entityIds, String entityType) {
+    Map<UUID, Map<String, String>> properties = new HashMap<>();
+    if (entityIds.isEmpty()) {
+      return properties;
+    }
+    LOGGER.debug("Getting properties for {} {} entities", entityIds.size(), entityType);
+    String hql =
+        "FROM PropertyDAO p WHERE p.entityId IN (:entityIds) and p.entityType = :entityType";
+    Query<PropertyDAO> query = session.createQuery(hql, PropertyDAO.class);
+    query.setParameterList("entityIds", entityIds);
+    query.setParameter("entityType", entityType);
+    for (PropertyDAO propertyDAO : query.list()) {
+      properties
+          .computeIfAbsent(propertyDAO.getEntityId(), k -> new HashMap<>())
+          .put(propertyDAO.getKey(), propertyDAO.getValue());
+    }
+    return properties;
+  }
 }
@@ -1,6 +1,8 @@
 package io.unitycatalog.server.persist;
 
 import io.unitycatalog.server.persist.utils.FileOperations;
+import io.unitycatalog.server.persist.utils.NamespaceCache;
+import io.unitycatalog.server.persist.utils.VerifiedTokenCache;
 import io.unitycatalog.server.utils.ServerProperties;
 import lombok.Getter;
 import org.hibernate.SessionFactory;
@@ -13,6 +15,8 @@ import org.hibernate.SessionFactory;
 public class Repositories {
   private final SessionFactory sessionFactory;
   private final FileOperations fileOperations;
+  private final NamespaceCache namespaceCache;
+  private final VerifiedTokenCache verifiedTokenCache;
 
   private final CatalogRepository catalogRepository;
   private final SchemaRepository schemaRepository;
@@ -26,6 +30,8 @@ public class Repositories {
   public Repositories(SessionFactory sessionFactory, ServerProperties serverProperties) {
     this.sessionFactory = sessionFactory;
     this.fileOperations = new FileOperations(serverProperties);
+    this.namespaceCache = NamespaceCache.create(serverProperties);
+    this.verifiedTokenCache = VerifiedTokenCache.create(serverProperties);
 
     this.catalogRepository = new CatalogRepository(this, sessionFactory);
     this.schemaRepository = new SchemaRepository(this, sessionFactory);
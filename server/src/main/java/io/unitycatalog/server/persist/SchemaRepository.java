@@ -3,9 +3,9 @@ package io.unitycatalog.server.persist;
 import io.unitycatalog.server.exception.BaseException;
 import io.unitycatalog.server.exception.ErrorCode;
 import io.unitycatalog.server.model.*;
-import io.unitycatalog.server.persist.dao.CatalogInfoDAO;
 import io.unitycatalog.server.persist.dao.PropertyDAO;
 import io.unitycatalog.server.persist.dao.SchemaInfoDAO;
+import io.unitycatalog.server.persist.utils.NamespaceCache;
 import io.unitycatalog.server.persist.utils.PagedListingHelper;
 import io.unitycatalog.server.persist.utils.RepositoryUtils;
 import io.unitycatalog.server.utils.Constants;
@@ -20,12 +20,14 @@ import org.hibernate.query.Query;
 public class SchemaRepository {
   private final Repositories repositories;
   private final SessionFactory sessionFactory;
+  private final NamespaceCache namespaceCache;
   private static final PagedListingHelper<SchemaInfoDAO> LISTING_HELPER =
       new PagedListingHelper<>(SchemaInfoDAO.class);
 
   public SchemaRepository(Repositories repositories, SessionFactory sessionFactory) {
     this.repositories = repositories;
     this.sessionFactory = sessionFactory;
+    this.namespaceCache = repositories.getNamespaceCache();
   }
 
   public SchemaInfo createSchema(CreateSchema createSchema) {
@@ -38,10 +40,7 @@ public class SchemaRepository {
           throw new BaseException(
               ErrorCode.ALREADY_EXISTS, "Schema already exists: " + createSchema.getName());
         }
-        CatalogInfoDAO catalogDAO =
-            repositories
-                .getCatalogRepository()
-                .getCatalogDAO(session, createSchema.getCatalogName());
+        UUID catalogId = getCatalogId(session, createSchema.getCatalogName());
         Long createTime = System.currentTimeMillis();
         SchemaInfo schemaInfo =
             new SchemaInfo()
@@ -56,7 +55,7 @@ public class SchemaRepository {
                 .updatedBy(callerId)
                 .properties(createSchema.getProperties());
         SchemaInfoDAO schemaInfoDAO = SchemaInfoDAO.from(schemaInfo);
-        schemaInfoDAO.setCatalogId(catalogDAO.getId());
+        schemaInfoDAO.setCatalogId(catalogId);
         PropertyDAO.from(schemaInfo.getProperties(), schemaInfoDAO.getId(), Constants.SCHEMA)
             .forEach(session::persist);
         session.persist(schemaInfoDAO);
@@ -91,16 +90,12 @@ public class SchemaRepository {
     query.setParameter("name", schemaName);
     query.setParameter("catalogId", catalogId);
     query.setMaxResults(1);
+    query.setCacheable(true);
     return query.uniqueResult();
   }
 
   public SchemaInfoDAO getSchemaDAO(Session session, String catalogName, String schemaName) {
-    CatalogInfoDAO catalog =
-        repositories.getCatalogRepository().getCatalogDAO(session, catalogName);
-    if (catalog == null) {
-      throw new BaseException(ErrorCode.NOT_FOUND, "Catalog not found: " + catalogName);
-    }
-    return getSchemaDAO(session, catalog.getId(), schemaName);
+    return getSchemaDAO(session, getCatalogId(session, catalogName), schemaName);
   }
 
   public SchemaInfoDAO getSchemaDAO(Session session, String fullName) {
@@ -109,12 +104,57 @@ public class SchemaRepository {
   }
 
   public UUID getCatalogId(Session session, String catalogName) {
-    CatalogInfoDAO catalogInfo =
-        repositories.getCatalogRepository().getCatalogDAO(session, catalogName);
-    if (catalogInfo == null) {
-      throw new BaseException(ErrorCode.NOT_FOUND, "Catalog not found: " + catalogName);
+    return repositories.getCatalogRepository().getCatalogId(session, catalogName);
+  }
+
+  /**
+   * Resolve the id of a schema by catalog and schema name. Resolved ids are served from the shared
+   * namespace cache, so repeated lookups of the same schema do not touch the database.
+   *
+   * @param session The Hibernate session used on a cache miss
+   * @param catalogName The name of the parent catalog
+   * @param schemaName The name of the schema
+   * @return The schema id, or null if the catalog exists but the schema does not
+   */
+  public UUID findSchemaId(Session session, String catalogName, String schemaName) {
+    NamespaceCache.SchemaIds schemaIds = findSchemaIds(session, catalogName, schemaName);
+    return schemaIds != null ? schemaIds.schemaId() : null;
+  }
+
+  /**
+   * Same as {@link #findSchemaId} but also returns the id of the parent catalog.
+   *
+   * @return The catalog and schema ids, or null if the catalog exists but the schema does not
+   */
+  public NamespaceCache.SchemaIds findSchemaIds(
+      Session session, String catalogName, String schemaName) {
+    return namespaceCache.getSchemaIds(
+        catalogName,
+        schemaName,
+        () -> {
+          UUID catalogId = getCatalogId(session, catalogName);
+          SchemaInfoDAO schemaInfoDAO = getSchemaDAO(session, catalogId, schemaName);
+          return schemaInfoDAO != null
+              ? new NamespaceCache.SchemaIds(catalogId, schemaInfoDAO.getId())
+              : null;
+        });
+  }
+
+  public NamespaceCache.SchemaIds getSchemaIds(
+      Session session, String catalogName, String schemaName) {
+    NamespaceCache.SchemaIds schemaIds = findSchemaIds(session, catalogName, schemaName);
+    if (schemaIds == null) {
+      throw new BaseException(ErrorCode.NOT_FOUND, "Schema not found: " + schemaName);
     }
-    return catalogInfo.getId();
+    return schemaIds;
+  }
+
+  public UUID getSchemaId(Session session, String catalogName, String schemaName) {
+    UUID schemaId = findSchemaId(session, catalogName, schemaName);
+    if (schemaId == null) {
+      throw new BaseException(ErrorCode.NOT_FOUND, "Schema not found: " + schemaName);
+    }
+    return schemaId;
   }
 
   /**
@@ -157,11 +197,11 @@ public class SchemaRepository {
     List<SchemaInfo> result = new ArrayList<>();
     for (SchemaInfoDAO schemaInfoDAO : schemaInfoDAOList) {
       SchemaInfo schemaInfo = schemaInfoDAO.toSchemaInfo();
-      RepositoryUtils.attachProperties(
-          schemaInfo, schemaInfo.getSchemaId(), Constants.SCHEMA, session);
       addNamespaceData(schemaInfo, catalogName);
       result.add(schemaInfo);
     }
+    RepositoryUtils.attachProperties(
+        result, SchemaInfo::getSchemaId, SchemaInfo::setProperties, Constants.SCHEMA, session);
     return new ListSchemasResponse().schemas(result).nextPageToken(nextPageToken);
   }
 
@@ -176,9 +216,7 @@ public class SchemaRepository {
           throw new BaseException(ErrorCode.NOT_FOUND, "Schema not found: " + fullName);
         }
         tx.commit();
-        SchemaInfo schemaInfo = convertFromDAO(session, schemaInfoDAO, fullName);
-        return RepositoryUtils.attachProperties(
-            schemaInfo, schemaInfo.getSchemaId(), Constants.SCHEMA, session);
+        return convertFromDAO(session, schemaInfoDAO, fullName);
       } catch (Exception e) {
         tx.rollback();
         throw e;
@@ -191,6 +229,7 @@ public class SchemaRepository {
       ValidationUtils.validateSqlObjectName(updateSchema.getNewName());
     }
     String callerId = IdentityUtils.findPrincipalEmailAddress();
+    String[] namespace = fullName.split("\\.");
     try (Session session = sessionFactory.openSession()) {
       Transaction tx = session.beginTransaction();
       try {
@@ -199,7 +238,7 @@ public class SchemaRepository {
           throw new BaseException(ErrorCode.NOT_FOUND, "Schema not found: " + fullName);
         }
         if (updateSchema.getNewName() != null) {
-          if (getSchemaDAO(session, fullName.split("\\.")[0], updateSchema.getNewName()) != null) {
+          if (getSchemaDAO(session, namespace[0], updateSchema.getNewName()) != null) {
             throw new BaseException(
                 ErrorCode.ALREADY_EXISTS, "Schema already exists: " + updateSchema.getNewName());
           }
@@ -227,6 +266,7 @@ public class SchemaRepository {
         schemaInfoDAO.setUpdatedAt(new Date());
         schemaInfoDAO.setUpdatedBy(callerId);
         session.merge(schemaInfoDAO);
+        namespaceCache.invalidateSchemaOnCompletion(session, namespace[0], namespace[1]);
         tx.commit();
         return convertFromDAO(session, schemaInfoDAO, fullName);
       } catch (Exception e) {
@@ -242,14 +282,10 @@ public class SchemaRepository {
       if (namespace.length != 2) {
         throw new BaseException(ErrorCode.INVALID_ARGUMENT, "Invalid schema name: " + fullName);
       }
-      CatalogInfoDAO catalog =
-          repositories.getCatalogRepository().getCatalogDAO(session, namespace[0]);
-      if (catalog == null) {
-        throw new BaseException(ErrorCode.NOT_FOUND, "Catalog not found: " + namespace[0]);
-      }
+      UUID catalogId = getCatalogId(session, namespace[0]);
       Transaction tx = session.beginTransaction();
       try {
-        deleteSchema(session, catalog.getId(), namespace[0], namespace[1], force);
+        deleteSchema(session, catalogId, namespace[0], namespace[1], force);
         tx.commit();
       } catch (Exception e) {
         tx.rollback();
@@ -416,6 +452,7 @@ public class SchemaRepository {
       session.remove(schemaInfo);
       PropertyRepository.findProperties(session, schemaInfo.getId(), Constants.SCHEMA)
           .forEach(session::remove);
+      namespaceCache.invalidateSchemaOnCompletion(session, catalogName, schemaName);
     } else {
       throw new BaseException(ErrorCode.NOT_FOUND, "Schema not found: " + schemaName);
     }
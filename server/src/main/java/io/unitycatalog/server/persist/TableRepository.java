@@ -85,7 +85,8 @@ public class TableRepository {
         String catalogName = parts[0];
         String schemaName = parts[1];
         String tableName = parts[2];
-        TableInfoDAO tableInfoDAO = findTable(session, catalogName, schemaName, tableName);
+        UUID schemaId = getSchemaId(session, catalogName, schemaName);
+        TableInfoDAO tableInfoDAO = findBySchemaIdAndNameWithColumns(session, schemaId, tableName);
         if (tableInfoDAO == null) {
           throw new BaseException(ErrorCode.NOT_FOUND, "Table not found: " + fullName);
         }
@@ -105,16 +106,33 @@ public class TableRepository {
     }
   }
 
+  /**
+   * Return the uniform Iceberg metadata location of a table. Only the location is read, so checking
+   * whether a table can be served over Iceberg REST does not load the whole table.
+   *
+   * @param session The Hibernate session
+   * @param catalogName The name of the catalog
+   * @param schemaName The name of the schema
+   * @param tableName The name of the table
+   * @return The metadata location, or null if the table is not a uniform table
+   */
   public String getTableUniformMetadataLocation(
       Session session, String catalogName, String schemaName, String tableName) {
-    TableInfoDAO dao = findTable(session, catalogName, schemaName, tableName);
-    return dao.getUniformIcebergMetadataLocation();
-  }
-
-  private TableInfoDAO findTable(
-      Session session, String catalogName, String schemaName, String tableName) {
     UUID schemaId = getSchemaId(session, catalogName, schemaName);
-    return findBySchemaIdAndName(session, schemaId, tableName);
+    Query<Object[]> query =
+        session.createQuery(
+            "SELECT t.id, t.uniformIcebergMetadataLocation FROM TableInfoDAO t"
+                + " WHERE t.schemaId = :schemaId AND t.name = :name",
+            Object[].class);
+    query.setParameter("schemaId", schemaId);
+    query.setParameter("name", tableName);
+    Object[] row = query.uniqueResult();
+    if (row == null) {
+      throw new BaseException(
+          ErrorCode.NOT_FOUND,
+          "Table not found: " + catalogName + "." + schemaName + "." + tableName);
+    }
+    return (String) row[1];
   }
 
   public TableInfo createTable(CreateTable createTable) {
@@ -208,17 +226,47 @@ public class TableRepository {
     return query.uniqueResult(); // Returns null if no result is found
   }
 
+  /**
+   * Same as {@link #findBySchemaIdAndName} but loads the columns of the table in the same query.
+   */
+  public TableInfoDAO findBySchemaIdAndNameWithColumns(
+      Session session, UUID schemaId, String name) {
+    String hql =
+        "FROM TableInfoDAO t LEFT JOIN FETCH t.columns WHERE t.schemaId = :schemaId AND t.name = :name";
+    Query<TableInfoDAO> query = session.createQuery(hql, TableInfoDAO.class);
+    query.setParameter("schemaId", schemaId);
+    query.setParameter("name", name);
+    LOGGER.debug("Finding table with columns by schemaId: {} and name: {}", schemaId, name);
+    return query.uniqueResult();
+  }
+
+  /**
+   * Initialize the columns of a page of tables with a single join-fetch query. The tables are
+   * already attached to the session, so the query fills in their lazy column collections instead of
+   * issuing one select per table when the collections are first accessed.
+   *
+   * @param session The Hibernate session the tables were loaded in
+   * @param tableInfoDAOList The page of tables
+   */
+  private void fetchColumns(Session session, List<TableInfoDAO> tableInfoDAOList) {
+    if (tableInfoDAOList.isEmpty()) {
+      return;
+    }
+    List<UUID> tableIds = tableInfoDAOList.stream().map(TableInfoDAO::getId).toList();
+    Query<TableInfoDAO> query =
+        session.createQuery(
+            "FROM TableInfoDAO t LEFT JOIN FETCH t.columns WHERE t.id IN (:tableIds)",
+            TableInfoDAO.class);
+    query.setParameterList("tableIds", tableIds);
+    query.list();
+  }
+
   private String getTableFullName(TableInfo tableInfo) {
     return tableInfo.getCatalogName() + "." + tableInfo.getSchemaName() + "." + tableInfo.getName();
   }
 
   public UUID getSchemaId(Session session, String catalogName, String schemaName) {
-    SchemaInfoDAO schemaInfo =
-        repositories.getSchemaRepository().getSchemaDAO(session, catalogName, schemaName);
-    if (schemaInfo == null) {
-      throw new BaseException(ErrorCode.NOT_FOUND, "Schema not found: " + schemaName);
-    }
-    return schemaInfo.getId();
+    return repositories.getSchemaRepository().getSchemaId(session, catalogName, schemaName);
   }
 
   /**
@@ -277,17 +325,63 @@ public class TableRepository {
     List<TableInfoDAO> tableInfoDAOList =
         LISTING_HELPER.listEntity(session, maxResults, pageToken, schemaId);
     String nextPageToken = LISTING_HELPER.getNextPageToken(tableInfoDAOList, maxResults);
+    if (!omitColumns) {
+      fetchColumns(session, tableInfoDAOList);
+    }
     List<TableInfo> result = new ArrayList<>();
     for (TableInfoDAO tableInfoDAO : tableInfoDAOList) {
       TableInfo tableInfo = tableInfoDAO.toTableInfo(!omitColumns);
-      if (!omitProperties) {
-        RepositoryUtils.attachProperties(
-            tableInfo, tableInfo.getTableId(), Constants.TABLE, session);
-      }
       tableInfo.setCatalogName(catalogName);
       tableInfo.setSchemaName(schemaName);
       result.add(tableInfo);
     }
+    if (!omitProperties) {
+      RepositoryUtils.attachProperties(
+          result, TableInfo::getTableId, TableInfo::setProperties, Constants.TABLE, session);
+    }
+    return new ListTablesResponse().tables(result).nextPageToken(nextPageToken);
+  }
+
+  /**
+   * Return the tables of a schema that have a uniform Iceberg metadata location, in ascending order
+   * of table name. Only the ids and names of the tables are read, with a single query.
+   *
+   * @param session The Hibernate session
+   * @param catalogName The name of the catalog
+   * @param schemaName The name of the schema
+   * @param maxResults The maximum number of tables to return, or empty to return all of them
+   * @param pageToken The name of the last table of the previous page
+   * @return The tables, and the page token of the next page if there may be more tables
+   */
+  public ListTablesResponse listUniformTables(
+      Session session,
+      String catalogName,
+      String schemaName,
+      Optional<Integer> maxResults,
+      Optional<String> pageToken) {
+    UUID schemaId = getSchemaId(session, catalogName, schemaName);
+    Query<Object[]> query =
+        session.createQuery(
+            "SELECT t.id, t.name FROM TableInfoDAO t WHERE t.schemaId = :schemaId"
+                + " AND t.uniformIcebergMetadataLocation IS NOT NULL"
+                + " AND (:pageToken IS NULL OR t.name > :pageToken) ORDER BY t.name",
+            Object[].class);
+    query.setParameter("schemaId", schemaId);
+    query.setParameter("pageToken", pageToken.orElse(null), String.class);
+    maxResults.ifPresent(query::setMaxResults);
+    List<TableInfo> result = new ArrayList<>();
+    for (Object[] row : query.list()) {
+      result.add(
+          new TableInfo()
+              .tableId(row[0].toString())
+              .name((String) row[1])
+              .catalogName(catalogName)
+              .schemaName(schemaName));
+    }
+    String nextPageToken =
+        maxResults.isPresent() && result.size() == maxResults.get()
+            ? result.get(result.size() - 1).getName()
+            : null;
     return new ListTablesResponse().tables(result).nextPageToken(nextPageToken);
   }
 
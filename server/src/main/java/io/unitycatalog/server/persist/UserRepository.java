@@ -1,16 +1,29 @@
 package io.unitycatalog.server.persist;
 
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.google.common.collect.Lists;
 import io.unitycatalog.control.model.User;
 import io.unitycatalog.server.exception.BaseException;
 import io.unitycatalog.server.exception.ErrorCode;
 import io.unitycatalog.server.persist.dao.UserDAO;
+import io.unitycatalog.server.persist.model.BulkUserOperation;
+import io.unitycatalog.server.persist.model.BulkUserResult;
 import io.unitycatalog.server.persist.model.CreateUser;
 import io.unitycatalog.server.persist.model.UpdateUser;
 import io.unitycatalog.server.persist.utils.PagedListingHelper;
+import io.unitycatalog.server.persist.utils.VerifiedTokenCache;
+import io.unitycatalog.server.service.AuthDecorator;
 import io.unitycatalog.server.utils.IdentityUtils;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -24,22 +37,44 @@ import org.slf4j.LoggerFactory;
 public class UserRepository {
   private static final Logger LOGGER = LoggerFactory.getLogger(UserRepository.class);
   private final SessionFactory sessionFactory;
+  private final VerifiedTokenCache verifiedTokenCache;
   private static final PagedListingHelper<UserDAO> LISTING_HELPER =
       new PagedListingHelper<>(UserDAO.class);
+  public static final int BULK_TRANSACTION_SIZE = 500;
+  private static final int BULK_JDBC_BATCH_SIZE = 50;
 
   public UserRepository(Repositories repositories, SessionFactory sessionFactory) {
     this.sessionFactory = sessionFactory;
+    this.verifiedTokenCache = repositories.getVerifiedTokenCache();
+  }
+
+  /**
+   * Store the lower-cased email of the users saved before it was stored, so that the lookups
+   * ignoring case find them.
+   */
+  public void initLowerCaseEmailsIfNeeded() {
+    try (Session session = sessionFactory.openSession()) {
+      Transaction tx = session.beginTransaction();
+      try {
+        int updated =
+            session
+                .createMutationQuery(
+                    "UPDATE UserDAO SET emailLower = lower(email) "
+                        + "WHERE emailLower IS NULL AND email IS NOT NULL")
+                .executeUpdate();
+        tx.commit();
+        if (updated > 0) {
+          LOGGER.info("Stored the lower-cased email of {} users.", updated);
+        }
+      } catch (Exception e) {
+        tx.rollback();
+        throw e;
+      }
+    }
   }
 
   public User createUser(CreateUser createUser) {
-    User user =
-        new User()
-            .id(UUID.randomUUID().toString())
-            .name(createUser.getName())
-            .email(createUser.getEmail())
-            .externalId(createUser.getExternalId())
-            .state(User.StateEnum.ENABLED)
-            .createdAt(System.currentTimeMillis());
+    User user = newUser(UUID.randomUUID().toString(), createUser);
 
     try (Session session = sessionFactory.openSession()) {
       Transaction tx = session.beginTransaction();
@@ -60,6 +95,48 @@ public class UserRepository {
     }
   }
 
+  /** A filter on users that the database evaluates. */
+  @FunctionalInterface
+  public interface UserFilter {
+    jakarta.persistence.criteria.Predicate toPredicate(Root<UserDAO> root, CriteriaBuilder cb);
+  }
+
+  /**
+   * List users matching a filter in ascending order of their name. The filter and the offset are
+   * applied by the database, so only the requested page is read.
+   *
+   * @param startIndex The number of matching users to skip
+   * @param maxUsers The maximum number of users to return
+   * @param filter The filter on users, or null to list all users
+   * @return The page of matching users
+   */
+  public List<User> listUsers(int startIndex, int maxUsers, UserFilter filter) {
+    try (Session session = sessionFactory.openSession()) {
+      session.setDefaultReadOnly(true);
+      Transaction tx = session.beginTransaction();
+      try {
+        CriteriaBuilder cb = session.getCriteriaBuilder();
+        CriteriaQuery<UserDAO> cr = cb.createQuery(UserDAO.class);
+        Root<UserDAO> root = cr.from(UserDAO.class);
+        cr.select(root);
+        if (filter != null) {
+          cr.where(filter.toPredicate(root, cb));
+        }
+        // the id makes the order stable across pages for users with the same name
+        cr.orderBy(cb.asc(root.get("name")), cb.asc(root.get("id")));
+        List<User> users =
+            session.createQuery(cr).setFirstResult(startIndex).setMaxResults(maxUsers).stream()
+                .map(UserDAO::toUser)
+                .collect(Collectors.toList());
+        tx.commit();
+        return users;
+      } catch (Exception e) {
+        tx.rollback();
+        throw e;
+      }
+    }
+  }
+
   public List<User> listUsers(int startIndex, int maxUsers, Predicate<User> filter) {
     try (Session session = sessionFactory.openSession()) {
       session.setDefaultReadOnly(true);
@@ -129,6 +206,7 @@ public class UserRepository {
     Query<UserDAO> query = session.createQuery("FROM UserDAO WHERE id = :id", UserDAO.class);
     query.setParameter("id", UUID.fromString(id));
     query.setMaxResults(1);
+    query.setCacheable(true);
     return query.uniqueResult();
   }
 
@@ -154,6 +232,7 @@ public class UserRepository {
     Query<UserDAO> query = session.createQuery("FROM UserDAO WHERE email = :email", UserDAO.class);
     query.setParameter("email", email);
     query.setMaxResults(1);
+    query.setCacheable(true);
     return query.uniqueResult();
   }
 
@@ -162,6 +241,7 @@ public class UserRepository {
         session.createQuery("FROM UserDAO WHERE externalId = :externalId", UserDAO.class);
     query.setParameter("externalId", externalId);
     query.setMaxResults(1);
+    query.setCacheable(true);
     return query.uniqueResult();
   }
 
@@ -173,19 +253,9 @@ public class UserRepository {
         if (userDAO == null) {
           throw new BaseException(ErrorCode.NOT_FOUND, "User not found: " + id);
         }
-        if (updateUser.getName() != null) {
-          userDAO.setName(updateUser.getName());
-        }
-        if (updateUser.getActive() != null) {
-          userDAO.setState(
-              updateUser.getActive()
-                  ? User.StateEnum.ENABLED.toString()
-                  : User.StateEnum.DISABLED.toString());
-        }
-        if (updateUser.getExternalId() != null) {
-          userDAO.setExternalId(updateUser.getExternalId());
-        }
+        applyUpdate(userDAO, updateUser);
         session.merge(userDAO);
+        verifiedTokenCache.invalidateUserOnCompletion(session, userDAO.getEmail());
         tx.commit();
         return userDAO.toUser();
       } catch (Exception e) {
@@ -203,6 +273,7 @@ public class UserRepository {
         if (userDAO != null) {
           userDAO.setState(User.StateEnum.DISABLED.toString());
           session.merge(userDAO);
+          verifiedTokenCache.invalidateUserOnCompletion(session, userDAO.getEmail());
           tx.commit();
           LOGGER.info("Deleted user: {}", id);
         } else {
@@ -215,10 +286,191 @@ public class UserRepository {
     }
   }
 
+  /**
+   * Apply creates, updates and deletes of users in order. The operations are applied in
+   * transactions of up to {@link #BULK_TRANSACTION_SIZE} operations each. The users a transaction
+   * touches are looked up with a single query up front, and the changes are written in JDBC batches.
+   * A failed operation does not affect the others, except that once {@code maxErrors} operations
+   * failed the remaining ones are skipped.
+   *
+   * @param operations The operations to apply
+   * @param maxErrors The number of failures after which to stop, or 0 to apply all operations
+   * @return The results of the applied operations, in the order of the operations
+   */
+  public List<BulkUserResult> applyBulk(List<BulkUserOperation> operations, int maxErrors) {
+    List<BulkUserResult> results = new ArrayList<>();
+    int remainingErrors = maxErrors > 0 ? maxErrors : Integer.MAX_VALUE;
+    for (List<BulkUserOperation> batch : Lists.partition(operations, BULK_TRANSACTION_SIZE)) {
+      List<BulkUserResult> batchResults = applyBulkTransaction(batch, remainingErrors);
+      results.addAll(batchResults);
+      remainingErrors -= (int) batchResults.stream().filter(r -> !r.isSuccess()).count();
+      if (remainingErrors <= 0 || batchResults.size() < batch.size()) {
+        break;
+      }
+    }
+    return results;
+  }
+
+  private List<BulkUserResult> applyBulkTransaction(
+      List<BulkUserOperation> operations, int maxErrors) {
+    List<BulkUserResult> results = new ArrayList<>();
+    try (Session session = sessionFactory.openSession()) {
+      session.setJdbcBatchSize(BULK_JDBC_BATCH_SIZE);
+      Transaction tx = session.beginTransaction();
+      try {
+        Map<String, UserDAO> usersById = new HashMap<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> externalIds = new HashSet<>();
+        for (UserDAO userDAO : findBulkUsers(session, operations)) {
+          usersById.put(userDAO.getId().toString(), userDAO);
+          emails.add(userDAO.getEmail());
+          externalIds.add(userDAO.getExternalId());
+        }
+
+        int errors = 0;
+        for (BulkUserOperation operation : operations) {
+          try {
+            User user =
+                switch (operation.getType()) {
+                  case CREATE -> {
+                    User newUser = newUser(operation.getId(), operation.getCreateUser());
+                    if (emails.contains(newUser.getEmail())
+                        || (newUser.getExternalId() != null
+                            && externalIds.contains(newUser.getExternalId()))) {
+                      throw new BaseException(
+                          ErrorCode.ALREADY_EXISTS, "User already exists: " + newUser.getEmail());
+                    }
+                    UserDAO userDAO = UserDAO.from(newUser);
+                    session.persist(userDAO);
+                    usersById.put(newUser.getId(), userDAO);
+                    emails.add(newUser.getEmail());
+                    externalIds.add(newUser.getExternalId());
+                    yield newUser;
+                  }
+                  case UPDATE -> {
+                    UserDAO userDAO = getBulkUser(usersById, operation.getId());
+                    applyUpdate(userDAO, operation.getUpdateUser());
+                    verifiedTokenCache.invalidateUserOnCompletion(session, userDAO.getEmail());
+                    yield userDAO.toUser();
+                  }
+                  case DELETE -> {
+                    UserDAO userDAO = getBulkUser(usersById, operation.getId());
+                    userDAO.setState(User.StateEnum.DISABLED.toString());
+                    verifiedTokenCache.invalidateUserOnCompletion(session, userDAO.getEmail());
+                    yield userDAO.toUser();
+                  }
+                };
+            results.add(BulkUserResult.success(user));
+          } catch (BaseException e) {
+            results.add(BulkUserResult.failure(e));
+            if (++errors >= maxErrors) {
+              break;
+            }
+          }
+        }
+        tx.commit();
+        return results;
+      } catch (Exception e) {
+        tx.rollback();
+        LOGGER.warn("Failed to apply bulk user operations", e);
+        // none of the changes of the transaction were written
+        BaseException error =
+            new BaseException(ErrorCode.INTERNAL, "Failed to apply bulk operation", e);
+        return results.stream()
+            .map(result -> result.isSuccess() ? BulkUserResult.failure(error) : result)
+            .collect(Collectors.toList());
+      }
+    }
+  }
+
+  /** Find the users that the operations update or delete, or whose email or external id clash. */
+  private List<UserDAO> findBulkUsers(Session session, List<BulkUserOperation> operations) {
+    Set<UUID> ids = new HashSet<>();
+    Set<String> emails = new HashSet<>();
+    Set<String> externalIds = new HashSet<>();
+    for (BulkUserOperation operation : operations) {
+      if (operation.getType() == BulkUserOperation.Type.CREATE) {
+        emails.add(operation.getCreateUser().getEmail());
+        if (operation.getCreateUser().getExternalId() != null) {
+          externalIds.add(operation.getCreateUser().getExternalId());
+        }
+      } else {
+        try {
+          ids.add(UUID.fromString(operation.getId()));
+        } catch (IllegalArgumentException e) {
+          // not the id of any user
+        }
+      }
+    }
+
+    CriteriaBuilder cb = session.getCriteriaBuilder();
+    CriteriaQuery<UserDAO> cr = cb.createQuery(UserDAO.class);
+    Root<UserDAO> root = cr.from(UserDAO.class);
+    List<jakarta.persistence.criteria.Predicate> predicates = new ArrayList<>();
+    if (!ids.isEmpty()) {
+      predicates.add(root.get("id").in(ids));
+    }
+    if (!emails.isEmpty()) {
+      predicates.add(root.get("email").in(emails));
+    }
+    if (!externalIds.isEmpty()) {
+      predicates.add(root.get("externalId").in(externalIds));
+    }
+    if (predicates.isEmpty()) {
+      return List.of();
+    }
+    cr.select(root).where(cb.or(predicates.toArray(new jakarta.persistence.criteria.Predicate[0])));
+    return session.createQuery(cr).getResultList();
+  }
+
+  private static UserDAO getBulkUser(Map<String, UserDAO> usersById, String id) {
+    UserDAO userDAO = usersById.get(id);
+    if (userDAO == null) {
+      throw new BaseException(ErrorCode.NOT_FOUND, "User not found: " + id);
+    }
+    return userDAO;
+  }
+
+  private static User newUser(String id, CreateUser createUser) {
+    return new User()
+        .id(id)
+        .name(createUser.getName())
+        .email(createUser.getEmail())
+        .externalId(createUser.getExternalId())
+        .state(User.StateEnum.ENABLED)
+        .createdAt(System.currentTimeMillis());
+  }
+
+  private static void applyUpdate(UserDAO userDAO, UpdateUser updateUser) {
+    if (updateUser.getName() != null) {
+      userDAO.setName(updateUser.getName());
+    }
+    if (updateUser.getActive() != null) {
+      userDAO.setState(
+          updateUser.getActive()
+              ? User.StateEnum.ENABLED.toString()
+              : User.StateEnum.DISABLED.toString());
+    }
+    if (updateUser.getExternalId() != null) {
+      userDAO.setExternalId(updateUser.getExternalId());
+    }
+  }
+
+  /**
+   * Find the id of the user making the current request. The id is resolved once per request, by the
+   * {@link AuthDecorator} or by the first call, and kept in the request context.
+   */
   public UUID findPrincipalId() {
+    ServiceRequestContext ctx = ServiceRequestContext.current();
+    UUID principalId = ctx.attr(AuthDecorator.PRINCIPAL_ID_ATTR);
+    if (principalId != null) {
+      return principalId;
+    }
     String principalEmailAddress = IdentityUtils.findPrincipalEmailAddress();
     if (principalEmailAddress != null) {
-      return UUID.fromString(getUserByEmail(principalEmailAddress).getId());
+      principalId = UUID.fromString(getUserByEmail(principalEmailAddress).getId());
+      ctx.setAttr(AuthDecorator.PRINCIPAL_ID_ATTR, principalId);
+      return principalId;
     } else {
       return null;
     }
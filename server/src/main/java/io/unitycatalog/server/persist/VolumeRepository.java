@@ -68,14 +68,14 @@ public class VolumeRepository {
     try (Session session = sessionFactory.openSession()) {
       Transaction tx = session.beginTransaction();
       try {
-        SchemaInfoDAO schemaInfoDAO =
+        UUID schemaId =
             repositories
                 .getSchemaRepository()
-                .getSchemaDAO(
+                .findSchemaId(
                     session,
                     createVolumeRequest.getCatalogName(),
                     createVolumeRequest.getSchemaName());
-        if (schemaInfoDAO == null) {
+        if (schemaId == null) {
           throw new BaseException(
               ErrorCode.NOT_FOUND,
               "Schema not found: "
@@ -92,7 +92,7 @@ public class VolumeRepository {
           throw new BaseException(
               ErrorCode.ALREADY_EXISTS, "Volume already exists: " + volumeFullName);
         }
-        volumeInfoDAO.setSchemaId(schemaInfoDAO.getId());
+        volumeInfoDAO.setSchemaId(schemaId);
         session.persist(volumeInfoDAO);
         tx.commit();
         LOGGER.info("Added volume: {}", volumeInfo.getName());
@@ -126,13 +126,13 @@ public class VolumeRepository {
 
   public VolumeInfoDAO getVolumeDAO(
       Session session, String catalogName, String schemaName, String volumeName) {
-    SchemaInfoDAO schemaInfo =
-        repositories.getSchemaRepository().getSchemaDAO(session, catalogName, schemaName);
-    if (schemaInfo == null) {
+    UUID schemaId =
+        repositories.getSchemaRepository().findSchemaId(session, catalogName, schemaName);
+    if (schemaId == null) {
       throw new BaseException(
           ErrorCode.NOT_FOUND, "Schema not found: " + catalogName + "." + schemaName);
     }
-    return getVolumeDAO(session, schemaInfo.getId(), volumeName);
+    return getVolumeDAO(session, schemaId, volumeName);
   }
 
   public VolumeInfoDAO getVolumeDAO(Session session, UUID schemaId, String volumeName) {
@@ -184,12 +184,7 @@ public class VolumeRepository {
   }
 
   public UUID getSchemaId(Session session, String catalogName, String schemaName) {
-    SchemaInfoDAO schemaInfo =
-        repositories.getSchemaRepository().getSchemaDAO(session, catalogName, schemaName);
-    if (schemaInfo == null) {
-      throw new BaseException(ErrorCode.NOT_FOUND, "Schema not found: " + schemaName);
-    }
-    return schemaInfo.getId();
+    return repositories.getSchemaRepository().getSchemaId(session, catalogName, schemaName);
   }
 
   /**
@@ -307,13 +302,12 @@ public class VolumeRepository {
       String catalog = namespace[0], schema = namespace[1], volume = namespace[2];
       Transaction tx = session.beginTransaction();
       try {
-        SchemaInfoDAO schemaInfo =
-            repositories.getSchemaRepository().getSchemaDAO(session, catalog, schema);
-        if (schemaInfo == null) {
+        UUID schemaId = repositories.getSchemaRepository().findSchemaId(session, catalog, schema);
+        if (schemaId == null) {
           throw new BaseException(
               ErrorCode.NOT_FOUND, "Schema not found: " + catalog + "." + schema);
         }
-        deleteVolume(session, schemaInfo.getId(), volume);
+        deleteVolume(session, schemaId, volume);
         tx.commit();
       } catch (Exception e) {
         tx.rollback();
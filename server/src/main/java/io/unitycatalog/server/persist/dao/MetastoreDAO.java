@@ -1,6 +1,7 @@
 package io.unitycatalog.server.persist.dao;
 
 import io.unitycatalog.server.model.GetMetastoreSummaryResponse;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
@@ -11,9 +12,14 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "uc_metastore")
+// Second-level cache
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 // Lombok
 @Getter
 @Setter
@@ -7,9 +7,14 @@ import java.util.Date;
 import java.util.UUID;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "uc_schemas")
+// Second-level cache
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 // Lombok
 @Getter
 @Setter
@@ -17,6 +17,7 @@ import lombok.experimental.SuperBuilder;
     name = "uc_tables",
     indexes = {
       @Index(name = "idx_name", columnList = "name"),
+      @Index(name = "idx_schema_id_name", columnList = "schema_id,name"),
     })
 // Lombok annotations
 @Getter
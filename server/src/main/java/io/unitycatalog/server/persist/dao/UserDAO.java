@@ -1,16 +1,33 @@
 package io.unitycatalog.server.persist.dao;
 
 import io.unitycatalog.control.model.User;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import java.util.Date;
+import java.util.Locale;
 import java.util.UUID;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "uc_users")
+@Table(
+    name = "uc_users",
+    indexes = {
+      @Index(name = "uc_users_email_idx", columnList = "email"),
+      @Index(name = "uc_users_email_lower_idx", columnList = "email_lower"),
+      @Index(name = "uc_users_external_id_idx", columnList = "external_id"),
+      @Index(name = "uc_users_name_idx", columnList = "name"),
+    })
+// Second-level cache
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 // Lombok annotations
 @Getter
 @Setter
@@ -22,6 +39,11 @@ public class UserDAO extends IdentifiableDAO {
   @Column(name = "email")
   private String email;
 
+  // The email in lower case, which case-insensitive lookups compare against so that they can use
+  // its index. It is derived from the email whenever the user is saved.
+  @Column(name = "email_lower")
+  private String emailLower;
+
   @Column(name = "external_id")
   private String externalId;
 
@@ -37,6 +59,12 @@ public class UserDAO extends IdentifiableDAO {
   @Column(name = "picture_url")
   private String pictureUrl;
 
+  @PrePersist
+  @PreUpdate
+  void lowerCaseEmail() {
+    emailLower = email == null ? null : email.toLowerCase(Locale.ROOT);
+  }
+
   public static UserDAO from(User user) {
     return UserDAO.builder()
         .id(UUID.fromString(user.getId()))
@@ -0,0 +1,39 @@
+package io.unitycatalog.server.persist.model;
+
+import java.util.UUID;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** A create, update or delete of a user as part of a bulk request. */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BulkUserOperation {
+
+  public enum Type {
+    CREATE,
+    UPDATE,
+    DELETE
+  }
+
+  private final Type type;
+  private final String id;
+  private final CreateUser createUser;
+  private final UpdateUser updateUser;
+
+  /**
+   * Create a user. The id of the new user is chosen up front, so that later operations of the same
+   * request can refer to it.
+   */
+  public static BulkUserOperation create(CreateUser createUser) {
+    return new BulkUserOperation(Type.CREATE, UUID.randomUUID().toString(), createUser, null);
+  }
+
+  public static BulkUserOperation update(String id, UpdateUser updateUser) {
+    return new BulkUserOperation(Type.UPDATE, id, null, updateUser);
+  }
+
+  public static BulkUserOperation delete(String id) {
+    return new BulkUserOperation(Type.DELETE, id, null, null);
+  }
+}
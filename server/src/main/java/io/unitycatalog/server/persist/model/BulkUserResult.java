@@ -0,0 +1,28 @@
+package io.unitycatalog.server.persist.model;
+
+import io.unitycatalog.control.model.User;
+import io.unitycatalog.server.exception.BaseException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** The outcome of a {@link BulkUserOperation}, either the affected user or the error. */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BulkUserResult {
+
+  private final User user;
+  private final BaseException error;
+
+  public static BulkUserResult success(User user) {
+    return new BulkUserResult(user, null);
+  }
+
+  public static BulkUserResult failure(BaseException error) {
+    return new BulkUserResult(null, error);
+  }
+
+  public boolean isSuccess() {
+    return error == null;
+  }
+}
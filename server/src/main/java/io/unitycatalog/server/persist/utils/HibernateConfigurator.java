@@ -1,18 +1,38 @@
 package io.unitycatalog.server.persist.utils;
 
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
 import io.unitycatalog.server.persist.dao.*;
 import io.unitycatalog.server.utils.ServerProperties;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
 import java.util.Properties;
+import java.util.UUID;
+import javax.cache.CacheManager;
 import lombok.Getter;
 import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.cfg.Configuration;
 import org.hibernate.service.ServiceRegistry;
+import org.hibernate.stat.HibernateMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,23 +40,77 @@ import org.slf4j.LoggerFactory;
  * This class configures the hibernate properties and adds annotated classes to the session factory.
  * This session factory is used to create sessions for database operations across the repository
  * classes.
+ *
+ * <p>Sessions get their connections from a HikariCP pool configured with the {@code
+ * server.db.pool.*} server properties. The pool records its metrics, such as the connection
+ * acquisition time and the number of active and pending connections, in the given meter registry,
+ * and it is closed with the session factory.
+ *
+ * <p>Catalogs, schemas, the metastore and users are read on nearly every request, so these entities
+ * and the queries looking them up by name can be kept in the second-level cache of the session
+ * factory, if enabled with {@code server.db.second-level-cache}. The cache is local to the session
+ * factory, bounded by {@code server.db.second-level-cache.max-entries} per region, and its entries
+ * expire after {@code server.db.second-level-cache.ttl}. Hibernate evicts cached entities and query
+ * results on every update and delete made through the session factory, but not on changes made by
+ * other servers sharing the database, which are only seen once the entries expire. The hit and miss
+ * counts of the cache regions are recorded in the meter registry as well, when {@code
+ * server.metrics} is enabled, as gathering the session factory statistics has a cost.
  */
 @Getter
 public class HibernateConfigurator {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(HibernateConfigurator.class);
+  private static final List<Class<?>> CACHED_ENTITIES =
+      List.of(CatalogInfoDAO.class, SchemaInfoDAO.class, MetastoreDAO.class, UserDAO.class);
 
   private final SessionFactory sessionFactory;
   private final Properties hibernateProperties;
 
   public HibernateConfigurator(ServerProperties serverProperties) {
+    this(serverProperties, Metrics.globalRegistry);
+  }
+
+  public HibernateConfigurator(ServerProperties serverProperties, MeterRegistry meterRegistry) {
     this.hibernateProperties = setupHibernateProperties(serverProperties);
-    this.sessionFactory = createSessionFactory(hibernateProperties);
+    this.sessionFactory =
+        createSessionFactory(
+            hibernateProperties,
+            createDataSource(serverProperties, hibernateProperties, meterRegistry),
+            createCacheManager(serverProperties),
+            serverProperties.isMetricsEnabled());
+    if (serverProperties.isMetricsEnabled()) {
+      HibernateMetrics.monitor(meterRegistry, sessionFactory, "unity-catalog", Tags.empty());
+    }
   }
 
-  private static SessionFactory createSessionFactory(Properties hibernateProperties) {
+  private static SessionFactory createSessionFactory(
+      Properties hibernateProperties,
+      HikariDataSource dataSource,
+      CacheManager cacheManager,
+      boolean generateStatistics) {
     try {
-      Configuration configuration = new Configuration().setProperties(hibernateProperties);
+      Properties settings = new Properties();
+      settings.putAll(hibernateProperties);
+      settings.put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource);
+      settings.put(AvailableSettings.GENERATE_STATISTICS, String.valueOf(generateStatistics));
+      if (cacheManager != null) {
+        settings.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+        settings.put(AvailableSettings.USE_QUERY_CACHE, "true");
+        settings.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+        // the region factory closes the cache manager with the session factory
+        settings.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        settings.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create");
+      } else {
+        settings.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+      }
+      Configuration configuration = new Configuration().setProperties(settings);
+      configuration.setSessionFactoryObserver(
+          new SessionFactoryObserver() {
+            @Override
+            public void sessionFactoryClosed(SessionFactory factory) {
+              dataSource.close();
+            }
+          });
 
       // Add annotated classes
       configuration.addAnnotatedClass(CatalogInfoDAO.class);
@@ -57,10 +131,84 @@ public class HibernateConfigurator {
 
       return configuration.buildSessionFactory(serviceRegistry);
     } catch (Exception e) {
+      dataSource.close();
+      if (cacheManager != null) {
+        cacheManager.close();
+      }
       throw new RuntimeException("Exception during creation of SessionFactory", e);
     }
   }
 
+  private static HikariDataSource createDataSource(
+      ServerProperties serverProperties,
+      Properties hibernateProperties,
+      MeterRegistry meterRegistry) {
+    HikariConfig config = new HikariConfig();
+    config.setPoolName("unity-catalog");
+    config.setDriverClassName(hibernateProperties.getProperty("hibernate.connection.driver_class"));
+    config.setJdbcUrl(hibernateProperties.getProperty("hibernate.connection.url"));
+    config.setUsername(
+        hibernateProperties.getProperty(
+            "hibernate.connection.username",
+            hibernateProperties.getProperty("hibernate.connection.user")));
+    config.setPassword(hibernateProperties.getProperty("hibernate.connection.password"));
+    config.setMaximumPoolSize(
+        Integer.parseInt(serverProperties.getProperty("server.db.pool.maximum-size", "10")));
+    config.setMinimumIdle(
+        Integer.parseInt(serverProperties.getProperty("server.db.pool.minimum-idle", "10")));
+    config.setConnectionTimeout(
+        getDurationMillis(serverProperties, "server.db.pool.connection-timeout", "PT30S"));
+    config.setIdleTimeout(
+        getDurationMillis(serverProperties, "server.db.pool.idle-timeout", "PT10M"));
+    config.setMaxLifetime(
+        getDurationMillis(serverProperties, "server.db.pool.max-lifetime", "PT30M"));
+    // driver properties, such as the prepared statement cache settings of the JDBC driver
+    serverProperties.getDataSourceProperties().forEach(config::addDataSourceProperty);
+    config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    return new HikariDataSource(config);
+  }
+
+  private static CacheManager createCacheManager(ServerProperties serverProperties) {
+    String secondLevelCache =
+        serverProperties.getProperty("server.db.second-level-cache", "disable");
+    if (!secondLevelCache.equalsIgnoreCase("enable")) {
+      return null;
+    }
+    long maxEntries =
+        Long.parseLong(
+            serverProperties.getProperty("server.db.second-level-cache.max-entries", "10000"));
+    long ttlNanos =
+        Duration.parse(serverProperties.getProperty("server.db.second-level-cache.ttl", "PT1M"))
+            .toNanos();
+    // a cache manager of its own, so that session factories in the same JVM share no regions
+    CacheManager cacheManager =
+        new CaffeineCachingProvider()
+            .getCacheManager(
+                URI.create("unity-catalog-" + UUID.randomUUID()),
+                HibernateConfigurator.class.getClassLoader());
+    // the update timestamps region keeps one entry per table and is left unbounded. It does not
+    // expire either, as the cached query results are validated against it.
+    List<String> boundedRegions = new ArrayList<>();
+    for (Class<?> entityClass : CACHED_ENTITIES) {
+      boundedRegions.add(entityClass.getName());
+    }
+    boundedRegions.add(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+    for (String region : boundedRegions) {
+      CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+      configuration.setMaximumSize(OptionalLong.of(maxEntries));
+      configuration.setExpireAfterWrite(OptionalLong.of(ttlNanos));
+      // the cached entries are never modified, so they need not be copied
+      configuration.setStoreByValue(false);
+      cacheManager.createCache(region, configuration);
+    }
+    return cacheManager;
+  }
+
+  private static long getDurationMillis(
+      ServerProperties serverProperties, String key, String defaultValue) {
+    return Duration.parse(serverProperties.getProperty(key, defaultValue)).toMillis();
+  }
+
   public static Properties setupHibernateProperties(ServerProperties serverProperties) {
     Path hibernatePropertiesPath = Paths.get("etc/conf/hibernate.properties");
     Properties hibernateProperties = new Properties();
@@ -0,0 +1,194 @@
+package io.unitycatalog.server.persist.utils;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.unitycatalog.server.utils.ServerProperties;
+import jakarta.transaction.Synchronization;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.hibernate.Session;
+
+/**
+ * A bounded, versioned cache of catalog and schema name to id mappings.
+ *
+ * <p>Nearly every repository call resolves a {@code catalog.schema} prefix to the ids of the
+ * catalog and schema before touching the entity itself. This cache is shared by all repositories of
+ * a server instance so that those lookups are served from memory once they have been resolved. It
+ * is enabled with {@code server.namespace-cache}, holds the names of at most {@code
+ * server.namespace-cache.max-entries} catalogs, and drops the names of a catalog and its schemas
+ * {@code server.namespace-cache.ttl} after the first of them was cached.
+ *
+ * <p>Only successful lookups are cached. Renames and deletes of catalogs and schemas invalidate the
+ * affected entries once their transaction completes. Every invalidation bumps a version counter and
+ * a lookup only populates the cache if no invalidation happened while it was reading the database,
+ * so a slow reader can never re-insert a mapping that was invalidated underneath it. Changes made by
+ * other servers sharing the database are only seen once the entries expire.
+ *
+ * <p>Entries are keyed by the names as requested. Depending on the collation of the database, names
+ * may be compared ignoring case, so the same catalog or schema can be cached under several casings.
+ * The entries are therefore grouped by the lower-cased catalog name, so that an invalidation drops
+ * every casing of a name without looking at the entries of other catalogs.
+ */
+public class NamespaceCache {
+
+  public static final long DEFAULT_MAX_SIZE = 10_000;
+  public static final Duration DEFAULT_TTL = Duration.ofMinutes(1);
+
+  public record SchemaIds(UUID catalogId, UUID schemaId) {}
+
+  private record SchemaKey(String catalogName, String schemaName) {}
+
+  /** The cached entries of the casings of one catalog name. */
+  private record Namespace(Map<String, UUID> catalogIds, Map<SchemaKey, SchemaIds> schemaIds) {
+    Namespace() {
+      this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+  }
+
+  private final Cache<String, Namespace> namespaces;
+  private final AtomicLong version = new AtomicLong();
+
+  /** Creates the cache configured by the {@code server.namespace-cache} server properties. */
+  public static NamespaceCache create(ServerProperties serverProperties) {
+    String namespaceCache = serverProperties.getProperty("server.namespace-cache", "disable");
+    if (!namespaceCache.equalsIgnoreCase("enable")) {
+      // caches nothing
+      return new NamespaceCache(0, DEFAULT_TTL, Ticker.systemTicker());
+    }
+    long maxSize =
+        Long.parseLong(
+            serverProperties.getProperty(
+                "server.namespace-cache.max-entries", String.valueOf(DEFAULT_MAX_SIZE)));
+    Duration ttl =
+        Duration.parse(
+            serverProperties.getProperty("server.namespace-cache.ttl", DEFAULT_TTL.toString()));
+    return new NamespaceCache(maxSize, ttl, Ticker.systemTicker());
+  }
+
+  public NamespaceCache() {
+    this(DEFAULT_MAX_SIZE, DEFAULT_TTL, Ticker.systemTicker());
+  }
+
+  NamespaceCache(long maxSize, Duration ttl, Ticker ticker) {
+    this.namespaces =
+        CacheBuilder.newBuilder().ticker(ticker).maximumSize(maxSize).expireAfterWrite(ttl).build();
+  }
+
+  private static String namespaceKey(String catalogName) {
+    return catalogName.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Get the id of a catalog, calling the loader on a cache miss.
+   *
+   * @param catalogName The name of the catalog
+   * @param loader Resolves the id from the database, returns null if the catalog does not exist
+   * @return The catalog id, or null if the loader returned null
+   */
+  public UUID getCatalogId(String catalogName, Supplier<UUID> loader) {
+    Namespace namespace = namespaces.getIfPresent(namespaceKey(catalogName));
+    UUID catalogId = namespace != null ? namespace.catalogIds().get(catalogName) : null;
+    if (catalogId != null) {
+      return catalogId;
+    }
+    long loadVersion = version.get();
+    catalogId = loader.get();
+    if (catalogId != null) {
+      synchronized (this) {
+        if (loadVersion == version.get()) {
+          namespaceFor(catalogName).catalogIds().put(catalogName, catalogId);
+        }
+      }
+    }
+    return catalogId;
+  }
+
+  /**
+   * Get the ids of a schema and its parent catalog, calling the loader on a cache miss.
+   *
+   * @param catalogName The name of the catalog
+   * @param schemaName The name of the schema
+   * @param loader Resolves the ids from the database, returns null if the schema does not exist
+   * @return The schema ids, or null if the loader returned null
+   */
+  public SchemaIds getSchemaIds(String catalogName, String schemaName, Supplier<SchemaIds> loader) {
+    SchemaKey key = new SchemaKey(catalogName, schemaName);
+    Namespace namespace = namespaces.getIfPresent(namespaceKey(catalogName));
+    SchemaIds ids = namespace != null ? namespace.schemaIds().get(key) : null;
+    if (ids != null) {
+      return ids;
+    }
+    long loadVersion = version.get();
+    ids = loader.get();
+    if (ids != null) {
+      synchronized (this) {
+        if (loadVersion == version.get()) {
+          Namespace current = namespaceFor(catalogName);
+          current.schemaIds().put(key, ids);
+          current.catalogIds().put(catalogName, ids.catalogId());
+        }
+      }
+    }
+    return ids;
+  }
+
+  private Namespace namespaceFor(String catalogName) {
+    return namespaces.asMap().computeIfAbsent(namespaceKey(catalogName), name -> new Namespace());
+  }
+
+  /** Drop the catalog and every schema below it. */
+  public synchronized void invalidateCatalog(String catalogName) {
+    version.incrementAndGet();
+    namespaces.invalidate(namespaceKey(catalogName));
+  }
+
+  public synchronized void invalidateSchema(String catalogName, String schemaName) {
+    version.incrementAndGet();
+    Namespace namespace = namespaces.getIfPresent(namespaceKey(catalogName));
+    if (namespace != null) {
+      namespace.schemaIds().keySet().removeIf(key -> key.schemaName().equalsIgnoreCase(schemaName));
+    }
+  }
+
+  public synchronized void invalidateAll() {
+    version.incrementAndGet();
+    namespaces.invalidateAll();
+  }
+
+  /**
+   * Invalidate a catalog once the current transaction of the session completes, whether it commits
+   * or rolls back.
+   */
+  public void invalidateCatalogOnCompletion(Session session, String catalogName) {
+    afterCompletion(session, () -> invalidateCatalog(catalogName));
+  }
+
+  /**
+   * Invalidate a schema once the current transaction of the session completes, whether it commits
+   * or rolls back.
+   */
+  public void invalidateSchemaOnCompletion(Session session, String catalogName, String schemaName) {
+    afterCompletion(session, () -> invalidateSchema(catalogName, schemaName));
+  }
+
+  static void afterCompletion(Session session, Runnable action) {
+    session
+        .getTransaction()
+        .registerSynchronization(
+            new Synchronization() {
+              @Override
+              public void beforeCompletion() {}
+
+              @Override
+              public void afterCompletion(int status) {
+                action.run();
+              }
+            });
+  }
+}
@@ -6,6 +6,7 @@ import io.unitycatalog.server.persist.CatalogRepository;
 import io.unitycatalog.server.persist.PropertyRepository;
 import io.unitycatalog.server.persist.SchemaRepository;
 import io.unitycatalog.server.persist.dao.CatalogInfoDAO;
+import io.unitycatalog.server.persist.dao.IdentifiableDAO;
 import io.unitycatalog.server.persist.dao.PropertyDAO;
 import io.unitycatalog.server.persist.dao.SchemaInfoDAO;
 import io.unitycatalog.server.utils.Constants;
@@ -15,6 +16,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.HashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import org.hibernate.Session;
 
@@ -45,6 +48,75 @@ public class RepositoryUtils {
     }
   }
 
+  /**
+   * Attach properties to a page of entities, loading the properties of the whole page with a single
+   * query. Entities without properties get an empty map, same as {@link #attachProperties}.
+   *
+   * @param entityInfos The entities to attach properties to
+   * @param idGetter Returns the id of an entity
+   * @param propertiesSetter Sets the properties of an entity
+   * @param entityType The type of the entities
+   * @param session The Hibernate session
+   */
+  public static <T> void attachProperties(
+      List<T> entityInfos,
+      Function<T, String> idGetter,
+      BiConsumer<T, Map<String, String>> propertiesSetter,
+      String entityType,
+      Session session) {
+    List<UUID> entityIds = entityInfos.stream().map(e -> UUID.fromString(idGetter.apply(e))).toList();
+    Map<UUID, Map<String, String>> properties =
+        PropertyRepository.findProperties(session, entityIds, entityType);
+    for (int i = 0; i < entityInfos.size(); i++) {
+      propertiesSetter.accept(
+          entityInfos.get(i), properties.getOrDefault(entityIds.get(i), new HashMap<>()));
+    }
+  }
+
+  /**
+   * Look up the id of a securable within its schema without loading the entity.
+   *
+   * @param session The Hibernate session
+   * @param entityClass The DAO class of the securable, which must have a schema as parent
+   * @param schemaId The id of the parent schema
+   * @param name The name of the securable
+   * @return The id of the securable, or null if it doesn't exist
+   */
+  public static <T extends IdentifiableDAO> UUID findEntityId(
+      Session session, Class<T> entityClass, UUID schemaId, String name) {
+    return session
+        .createQuery(
+            "SELECT e.id FROM "
+                + entityClass.getSimpleName()
+                + " e WHERE e.schemaId = :schemaId AND e.name = :name",
+            UUID.class)
+        .setParameter("schemaId", schemaId)
+        .setParameter("name", name)
+        .uniqueResult();
+  }
+
+  /**
+   * Look up the ids of the schema and catalog a securable belongs to, with a single query.
+   *
+   * @param session The Hibernate session
+   * @param entityClass The DAO class of the securable, which must have a schema as parent
+   * @param entityId The id of the securable
+   * @return The catalog and schema ids, or null if the securable doesn't exist
+   */
+  public static <T extends IdentifiableDAO> NamespaceCache.SchemaIds findParentIds(
+      Session session, Class<T> entityClass, UUID entityId) {
+    Object[] ids =
+        session
+            .createQuery(
+                "SELECT s.catalogId, s.id FROM "
+                    + entityClass.getSimpleName()
+                    + " e, SchemaInfoDAO s WHERE s.id = e.schemaId AND e.id = :entityId",
+                Object[].class)
+            .setParameter("entityId", entityId)
+            .uniqueResult();
+    return ids != null ? new NamespaceCache.SchemaIds((UUID) ids[0], (UUID) ids[1]) : null;
+  }
+
   public static String[] parseFullName(String fullName) {
     String[] parts = fullName.split("\\.");
     if (parts.length != 3) {
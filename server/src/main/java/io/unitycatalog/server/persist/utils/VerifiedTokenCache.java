@@ -0,0 +1,132 @@
+package io.unitycatalog.server.persist.utils;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import io.unitycatalog.control.model.User;
+import io.unitycatalog.server.utils.ServerProperties;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.hibernate.Session;
+
+/**
+ * A bounded, versioned cache of access tokens that passed verification.
+ *
+ * <p>Every authenticated request verifies the signature of its access token and looks up the state
+ * of the user it was issued to. Clients send the same token with each request, so this cache maps
+ * the SHA-256 hash of a raw token to its decoded form and the id and state of its user, and repeated
+ * requests with a known token neither check the signature nor read the database. The raw tokens
+ * themselves are not retained.
+ *
+ * <p>The cache is enabled unless {@code server.token-cache} is disabled, and holds at most {@code
+ * server.token-cache.max-entries} tokens. An entry is dropped once its token expires, and at the
+ * latest after {@code server.token-cache.ttl}. Updates and deletes of a user invalidate the entries
+ * of all its tokens once their transaction completes. As users are looked up by email, which the
+ * database may compare ignoring case, the entries of every casing of the email are invalidated. As
+ * in {@link NamespaceCache}, a version counter keeps a verification that read the user before such
+ * an invalidation from re-inserting the stale state. Users disabled or deleted by other servers
+ * sharing the database keep access until the entries of their tokens expire.
+ */
+public class VerifiedTokenCache {
+
+  public static final long DEFAULT_MAX_SIZE = 10_000;
+  public static final Duration DEFAULT_MAX_TTL = Duration.ofMinutes(1);
+
+  public record VerifiedToken(DecodedJWT decodedJWT, UUID principalId, User.StateEnum userState) {
+    public String subject() {
+      return decodedJWT.getSubject();
+    }
+  }
+
+  private record Entry(VerifiedToken token, Instant expiresAt) {}
+
+  private final Cache<HashCode, Entry> tokens;
+  private final Duration maxTtl;
+  private final Clock clock;
+  private final AtomicLong version = new AtomicLong();
+
+  /** Creates the cache configured by the {@code server.token-cache} server properties. */
+  public static VerifiedTokenCache create(ServerProperties serverProperties) {
+    String tokenCache = serverProperties.getProperty("server.token-cache", "enable");
+    if (!tokenCache.equalsIgnoreCase("enable")) {
+      // caches nothing
+      return new VerifiedTokenCache(0, DEFAULT_MAX_TTL, Clock.systemUTC());
+    }
+    long maxSize =
+        Long.parseLong(
+            serverProperties.getProperty(
+                "server.token-cache.max-entries", String.valueOf(DEFAULT_MAX_SIZE)));
+    Duration maxTtl =
+        Duration.parse(
+            serverProperties.getProperty("server.token-cache.ttl", DEFAULT_MAX_TTL.toString()));
+    return new VerifiedTokenCache(maxSize, maxTtl, Clock.systemUTC());
+  }
+
+  public VerifiedTokenCache() {
+    this(DEFAULT_MAX_SIZE, DEFAULT_MAX_TTL, Clock.systemUTC());
+  }
+
+  VerifiedTokenCache(long maxSize, Duration maxTtl, Clock clock) {
+    this.tokens = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(maxTtl).build();
+    this.maxTtl = maxTtl;
+    this.clock = clock;
+  }
+
+  /**
+   * Get the verified form of a token, calling the verifier on a cache miss.
+   *
+   * @param token The raw access token
+   * @param verifier Verifies the token and looks up its user, throws if the token is not valid
+   * @return The verified token
+   */
+  public VerifiedToken getVerifiedToken(String token, Supplier<VerifiedToken> verifier) {
+    HashCode key = Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+    Instant now = clock.instant();
+    Entry entry = tokens.getIfPresent(key);
+    if (entry != null) {
+      if (now.isBefore(entry.expiresAt())) {
+        return entry.token();
+      }
+      tokens.asMap().remove(key, entry);
+    }
+    long loadVersion = version.get();
+    VerifiedToken verifiedToken = verifier.get();
+    Instant expiresAt = now.plus(maxTtl);
+    Instant tokenExpiresAt = verifiedToken.decodedJWT().getExpiresAtAsInstant();
+    if (tokenExpiresAt != null && tokenExpiresAt.isBefore(expiresAt)) {
+      expiresAt = tokenExpiresAt;
+    }
+    synchronized (this) {
+      if (loadVersion == version.get()) {
+        tokens.put(key, new Entry(verifiedToken, expiresAt));
+      }
+    }
+    return verifiedToken;
+  }
+
+  /** Drop the tokens issued to a user. */
+  public synchronized void invalidateUser(String subject) {
+    version.incrementAndGet();
+    tokens.asMap().values().removeIf(entry -> subject.equalsIgnoreCase(entry.token().subject()));
+  }
+
+  public synchronized void invalidateAll() {
+    version.incrementAndGet();
+    tokens.invalidateAll();
+  }
+
+  /**
+   * Invalidate the tokens of a user once the current transaction of the session completes, whether
+   * it commits or rolls back.
+   */
+  public void invalidateUserOnCompletion(Session session, String subject) {
+    NamespaceCache.afterCompletion(session, () -> invalidateUser(subject));
+  }
+}
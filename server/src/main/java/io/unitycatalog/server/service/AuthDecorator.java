@@ -18,8 +18,11 @@ import io.unitycatalog.server.exception.AuthorizationException;
 import io.unitycatalog.server.exception.ErrorCode;
 import io.unitycatalog.server.persist.Repositories;
 import io.unitycatalog.server.persist.UserRepository;
+import io.unitycatalog.server.persist.utils.VerifiedTokenCache;
+import io.unitycatalog.server.persist.utils.VerifiedTokenCache.VerifiedToken;
 import io.unitycatalog.server.security.SecurityContext;
 import io.unitycatalog.server.utils.JwksOperations;
+import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,8 +34,12 @@ import org.slf4j.LoggerFactory;
  * signature is checked against the internal issuer key. If all these checks pass, the request is
  * allowed to continue.
  *
- * <p>The decoded token is also added to the request attributes so it can be referenced by the
- * request if needed.
+ * <p>The decoded token and the id of its user are also added to the request attributes so they can
+ * be referenced by the request if needed, without looking up the user again.
+ *
+ * <p>Tokens that passed verification are kept in the {@link VerifiedTokenCache} along with the
+ * state of their user, so further requests with the same token skip the signature check and the
+ * user lookup.
  */
 public class AuthDecorator implements DecoratingHttpServiceFunction {
 
@@ -46,11 +53,16 @@ public class AuthDecorator implements DecoratingHttpServiceFunction {
   public static final AttributeKey<DecodedJWT> DECODED_JWT_ATTR =
       AttributeKey.valueOf(DecodedJWT.class, "DECODED_JWT_ATTR");
 
+  public static final AttributeKey<UUID> PRINCIPAL_ID_ATTR =
+      AttributeKey.valueOf(UUID.class, "PRINCIPAL_ID_ATTR");
+
   private final JwksOperations jwksOperations;
+  private final VerifiedTokenCache verifiedTokenCache;
 
   public AuthDecorator(SecurityContext securityContext, Repositories repositories) {
     this.jwksOperations = new JwksOperations(securityContext);
     this.userRepository = repositories.getUserRepository();
+    this.verifiedTokenCache = repositories.getVerifiedTokenCache();
   }
 
   @Override
@@ -66,8 +78,25 @@ public class AuthDecorator implements DecoratingHttpServiceFunction {
             .findFirst()
             .orElse(null);
 
-    DecodedJWT decodedJWT =
-        JWT.decode(getAccessTokenFromCookieOrAuthHeader(authorizationHeader, authorizationCookie));
+    String token = getAccessTokenFromCookieOrAuthHeader(authorizationHeader, authorizationCookie);
+    VerifiedToken verifiedToken =
+        verifiedTokenCache.getVerifiedToken(token, () -> verifyToken(token));
+
+    String subject = verifiedToken.subject();
+    if (verifiedToken.userState() != User.StateEnum.ENABLED) {
+      throw new AuthorizationException(ErrorCode.PERMISSION_DENIED, "User not allowed: " + subject);
+    }
+
+    LOGGER.debug("Access allowed for subject: {}", subject);
+
+    ctx.setAttr(DECODED_JWT_ATTR, verifiedToken.decodedJWT());
+    ctx.setAttr(PRINCIPAL_ID_ATTR, verifiedToken.principalId());
+
+    return delegate.serve(ctx, req);
+  }
+
+  private VerifiedToken verifyToken(String token) {
+    DecodedJWT decodedJWT = JWT.decode(token);
 
     String issuer = decodedJWT.getIssuer();
     String keyId = decodedJWT.getKeyId();
@@ -88,17 +117,9 @@ public class AuthDecorator implements DecoratingHttpServiceFunction {
       user = userRepository.getUserByEmail(subject);
     } catch (Exception e) {
       LOGGER.debug("User not found: {}", subject);
-      user = null;
-    }
-    if (user == null || user.getState() != User.StateEnum.ENABLED) {
       throw new AuthorizationException(ErrorCode.PERMISSION_DENIED, "User not allowed: " + subject);
     }
-
-    LOGGER.debug("Access allowed for subject: {}", subject);
-
-    ctx.setAttr(DECODED_JWT_ATTR, decodedJWT);
-
-    return delegate.serve(ctx, req);
+    return new VerifiedToken(decodedJWT, UUID.fromString(user.getId()), user.getState());
   }
 
   private String getAccessTokenFromCookieOrAuthHeader(
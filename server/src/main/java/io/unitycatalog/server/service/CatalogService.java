@@ -1,5 +1,7 @@
 package io.unitycatalog.server.service;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.HttpStatus;
 import com.linecorp.armeria.server.annotation.Delete;
@@ -16,6 +18,7 @@ import io.unitycatalog.server.exception.GlobalExceptionHandler;
 import io.unitycatalog.server.model.CatalogInfo;
 import io.unitycatalog.server.model.CreateCatalog;
 import io.unitycatalog.server.model.ListCatalogsResponse;
+import io.unitycatalog.server.model.SecurableType;
 import io.unitycatalog.server.model.UpdateCatalog;
 import io.unitycatalog.server.persist.CatalogRepository;
 import io.unitycatalog.server.persist.MetastoreRepository;
@@ -67,10 +70,12 @@ public class CatalogService {
         catalogRepository.listCatalogs(maxResults, pageToken);
 
     filterCatalogs("""
-        #authorize(#principal, #metastore, OWNER) ||
-        #authorizeAny(#principal, #catalog, OWNER, USE_CATALOG)
+        #authorize(#principal, #metastore, OWNER)
         """,
-        listCatalogsResponse.getCatalogs());
+        "#permit",
+        listCatalogsResponse.getCatalogs(),
+        Privileges.OWNER,
+        Privileges.USE_CATALOG);
 
     return HttpResponse.ofJson(listCatalogsResponse);
   }
@@ -109,20 +114,24 @@ public class CatalogService {
     return HttpResponse.of(HttpStatus.OK);
   }
 
-  public void filterCatalogs(String expression, List<CatalogInfo> entries) {
+  public void filterCatalogs(
+      String parentExpression,
+      String childExpression,
+      List<CatalogInfo> entries,
+      Privileges... privileges) {
     // TODO: would be nice to move this to filtering in the Decorator response
     UUID principalId = userRepository.findPrincipalId();
+    Supplier<Map<SecurableType, Object>> parentIds =
+        Suppliers.memoize(() -> Map.of(METASTORE, metastoreRepository.getMetastoreId()));
 
-    evaluator.filter(
+    evaluator.filterChildren(
         principalId,
-        expression,
+        parentExpression,
+        childExpression,
         entries,
-        ci ->
-            Map.of(
-                METASTORE,
-                metastoreRepository.getMetastoreId(),
-                CATALOG,
-                UUID.fromString(ci.getId())));
+        ci -> parentIds.get(),
+        ci -> UUID.fromString(ci.getId()),
+        privileges);
   }
 
   private void initializeAuthorizations(CatalogInfo catalogInfo) {
@@ -11,17 +11,19 @@ import io.unitycatalog.server.auth.UnityCatalogAuthorizer;
 import io.unitycatalog.server.auth.annotation.AuthorizeExpression;
 import io.unitycatalog.server.auth.annotation.AuthorizeKey;
 import io.unitycatalog.server.auth.annotation.AuthorizeKeys;
+import io.unitycatalog.server.auth.decorator.KeyMapper;
 import io.unitycatalog.server.auth.decorator.UnityAccessEvaluator;
 import io.unitycatalog.server.exception.GlobalExceptionHandler;
-import io.unitycatalog.server.model.CatalogInfo;
 import io.unitycatalog.server.model.CreateFunctionRequest;
 import io.unitycatalog.server.model.FunctionInfo;
 import io.unitycatalog.server.model.ListFunctionsResponse;
 import io.unitycatalog.server.model.SchemaInfo;
+import io.unitycatalog.server.model.SecurableType;
 import io.unitycatalog.server.persist.*;
 import io.unitycatalog.server.persist.model.Privileges;
 import lombok.SneakyThrows;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -37,21 +39,19 @@ public class FunctionService {
 
   private final FunctionRepository functionRepository;
   private final SchemaRepository schemaRepository;
-  private final CatalogRepository catalogRepository;
-  private final MetastoreRepository metastoreRepository;
   private final UserRepository userRepository;
 
   private final UnityCatalogAuthorizer authorizer;
   private final UnityAccessEvaluator evaluator;
+  private final KeyMapper keyMapper;
 
   @SneakyThrows
   public FunctionService(UnityCatalogAuthorizer authorizer, Repositories repositories) {
     this.authorizer = authorizer;
     this.evaluator = new UnityAccessEvaluator(authorizer);
-    this.catalogRepository = repositories.getCatalogRepository();
+    this.keyMapper = new KeyMapper(repositories);
     this.schemaRepository = repositories.getSchemaRepository();
     this.functionRepository = repositories.getFunctionRepository();
-    this.metastoreRepository = repositories.getMetastoreRepository();
     this.userRepository = repositories.getUserRepository();
   }
 
@@ -83,9 +83,10 @@ public class FunctionService {
     filterFunctions("""
             #authorize(#principal, #metastore, OWNER) ||
             #authorize(#principal, #catalog, OWNER) ||
-            (#authorize(#principal, #schema, OWNER) && #authorize(#principal, #catalog, USE_CATALOG)) ||
-            (#authorize(#principal, #schema, USE_SCHEMA) && #authorizeAny(#principal, #catalog, USE_CATALOG) && #authorizeAny(#principal, #function, OWNER, EXECUTE))
-            """, listFunctionsResponse.getFunctions());
+            (#authorize(#principal, #schema, OWNER) && #authorize(#principal, #catalog, USE_CATALOG))
+            """, """
+            #authorize(#principal, #schema, USE_SCHEMA) && #authorizeAny(#principal, #catalog, USE_CATALOG)
+            """, listFunctionsResponse.getFunctions(), Privileges.OWNER, Privileges.EXECUTE);
     return HttpResponse.ofJson(listFunctionsResponse);
   }
 
@@ -115,28 +116,28 @@ public class FunctionService {
     return HttpResponse.of(HttpStatus.OK);
   }
 
-  public void filterFunctions(String expression, List<FunctionInfo> entries) {
+  public void filterFunctions(
+          String parentExpression,
+          String childExpression,
+          List<FunctionInfo> entries,
+          Privileges... privileges) {
     // TODO: would be nice to move this to filtering in the Decorator response
     UUID principalId = userRepository.findPrincipalId();
+    Map<String, Map<SecurableType, Object>> parentIds = new HashMap<>();
 
-    evaluator.filter(
+    evaluator.filterChildren(
             principalId,
-            expression,
+            parentExpression,
+            childExpression,
             entries,
-            fi -> {
-              CatalogInfo catalogInfo = catalogRepository.getCatalog(fi.getCatalogName());
-              SchemaInfo schemaInfo =
-                      schemaRepository.getSchema(fi.getCatalogName() + "." + fi.getSchemaName());
-              return Map.of(
-                      METASTORE,
-                      metastoreRepository.getMetastoreId(),
-                      CATALOG,
-                      UUID.fromString(catalogInfo.getId()),
-                      SCHEMA,
-                      UUID.fromString(schemaInfo.getSchemaId()),
-                      FUNCTION,
-                      UUID.fromString(fi.getFunctionId()));
-            });
+            fi ->
+                    parentIds.computeIfAbsent(
+                            fi.getCatalogName() + "." + fi.getSchemaName(),
+                            schema ->
+                                    keyMapper.mapResourceKeys(
+                                            Map.of(METASTORE, "metastore", SCHEMA, schema))),
+            fi -> UUID.fromString(fi.getFunctionId()),
+            privileges);
   }
 
   private void initializeAuthorizations(FunctionInfo functionInfo) {
@@ -1,9 +1,9 @@
 package io.unitycatalog.server.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
 import com.linecorp.armeria.server.annotation.ExceptionHandler;
 import com.linecorp.armeria.server.annotation.Get;
 import com.linecorp.armeria.server.annotation.Head;
@@ -13,18 +13,21 @@ import com.linecorp.armeria.server.annotation.ProducesJson;
 import io.unitycatalog.server.exception.IcebergRestExceptionHandler;
 import io.unitycatalog.server.model.ListSchemasResponse;
 import io.unitycatalog.server.model.ListTablesResponse;
-import io.unitycatalog.server.model.SchemaInfo;
 import io.unitycatalog.server.persist.Repositories;
+import io.unitycatalog.server.persist.SchemaRepository;
 import io.unitycatalog.server.persist.TableRepository;
+import io.unitycatalog.server.persist.utils.PagedListingHelper;
 import io.unitycatalog.server.service.iceberg.MetadataService;
+import io.unitycatalog.server.service.iceberg.PagedListTablesResponse;
 import io.unitycatalog.server.service.iceberg.TableConfigService;
-import io.unitycatalog.server.utils.JsonUtils;
-import java.util.Collections;
+import io.unitycatalog.server.utils.RESTObjectMapper;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.UUID;
 import org.apache.iceberg.TableMetadata;
 import org.apache.iceberg.catalog.Namespace;
 import org.apache.iceberg.catalog.TableIdentifier;
@@ -34,7 +37,6 @@ import org.apache.iceberg.exceptions.NoSuchViewException;
 import org.apache.iceberg.rest.responses.ConfigResponse;
 import org.apache.iceberg.rest.responses.GetNamespaceResponse;
 import org.apache.iceberg.rest.responses.ListNamespacesResponse;
-import org.apache.iceberg.rest.responses.LoadTableResponse;
 import org.apache.iceberg.rest.responses.LoadViewResponse;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
@@ -49,6 +51,7 @@ public class IcebergRestCatalogService {
   private final TableService tableService;
   private final TableConfigService tableConfigService;
   private final MetadataService metadataService;
+  private final SchemaRepository schemaRepository;
   private final TableRepository tableRepository;
   private final SessionFactory sessionFactory;
 
@@ -64,6 +67,7 @@ public class IcebergRestCatalogService {
     this.tableService = tableService;
     this.tableConfigService = tableConfigService;
     this.metadataService = metadataService;
+    this.schemaRepository = repositories.getSchemaRepository();
     this.tableRepository = repositories.getTableRepository();
     this.sessionFactory = repositories.getSessionFactory();
   }
@@ -87,26 +91,23 @@ public class IcebergRestCatalogService {
   @Get("/v1/catalogs/{catalog}/namespaces")
   @ProducesJson
   public ListNamespacesResponse listNamespaces(
-      @Param("catalog") String catalog, @Param("parent") Optional<String> parent)
-      throws JsonProcessingException {
-    List<Namespace> namespaces;
-    if (parent.isPresent() && !parent.get().isEmpty()) {
-      // nested namespaces is not supported, so child namespaces will be empty
-      namespaces = Collections.emptyList();
-    } else {
-      String respContent =
-          schemaService
-              .listSchemas(catalog, Optional.of(Integer.MAX_VALUE), Optional.empty())
-              .aggregate()
-              .join()
-              .contentUtf8();
-      ListSchemasResponse resp =
-          JsonUtils.getInstance().readValue(respContent, ListSchemasResponse.class);
-      assert resp.getSchemas() != null;
-      namespaces =
-          resp.getSchemas().stream()
-              .map(schemaInfo -> Namespace.of(schemaInfo.getName()))
-              .collect(Collectors.toList());
+      @Param("catalog") String catalog, @Param("parent") Optional<String> parent) {
+    List<Namespace> namespaces = new ArrayList<>();
+    // nested namespaces is not supported, so child namespaces will be empty
+    if (parent.isEmpty() || parent.get().isEmpty()) {
+      try (Session session = sessionFactory.openSession()) {
+        UUID catalogId = schemaRepository.getCatalogId(session, catalog);
+        Optional<String> pageToken = Optional.empty();
+        do {
+          ListSchemasResponse page =
+              schemaRepository.listSchemas(
+                  session, catalogId, catalog, Optional.empty(), pageToken);
+          schemaService.filterListedSchemas(page.getSchemas());
+          page.getSchemas()
+              .forEach(schemaInfo -> namespaces.add(Namespace.of(schemaInfo.getName())));
+          pageToken = Optional.ofNullable(page.getNextPageToken());
+        } while (pageToken.isPresent());
+      }
     }
 
     return ListNamespacesResponse.builder().addAll(namespaces).build();
@@ -115,14 +116,11 @@ public class IcebergRestCatalogService {
   @Get("/v1/catalogs/{catalog}/namespaces/{namespace}")
   @ProducesJson
   public GetNamespaceResponse getNamespace(
-      @Param("catalog") String catalog, @Param("namespace") String namespace)
-      throws JsonProcessingException {
-
+      @Param("catalog") String catalog, @Param("namespace") String namespace) {
     String schemaFullName = String.join(".", catalog, namespace);
-    String resp = schemaService.getSchema(schemaFullName).aggregate().join().contentUtf8();
     return GetNamespaceResponse.builder()
         .withNamespace(Namespace.of(namespace))
-        .setProperties(JsonUtils.getInstance().readValue(resp, SchemaInfo.class).getProperties())
+        .setProperties(schemaRepository.getSchema(schemaFullName).getProperties())
         .build();
   }
 
@@ -133,42 +131,47 @@ public class IcebergRestCatalogService {
       @Param("catalog") String catalog,
       @Param("namespace") String namespace,
       @Param("table") String table) {
-    try (Session session = sessionFactory.openSession()) {
-      tableRepository.getTable(catalog + "." + namespace + "." + table);
-      String metadataLocation =
-          tableRepository.getTableUniformMetadataLocation(session, catalog, namespace, table);
-      if (metadataLocation == null) {
-        throw new NoSuchTableException("Table does not exist: %s", namespace + "." + table);
-      } else {
-        return HttpResponse.of(HttpStatus.OK);
-      }
-    }
+    getTableUniformMetadataLocation(catalog, namespace, table);
+    return HttpResponse.of(HttpStatus.OK);
   }
 
   @Get("/v1/catalogs/{catalog}/namespaces/{namespace}/tables/{table}")
-  @ProducesJson
-  public LoadTableResponse loadTable(
+  public HttpResponse loadTable(
       @Param("catalog") String catalog,
       @Param("namespace") String namespace,
-      @Param("table") String table) {
+      @Param("table") String table)
+      throws IOException {
+    String metadataLocation = getTableUniformMetadataLocation(catalog, namespace, table);
+    TableMetadata tableMetadata = metadataService.readTableMetadata(metadataLocation);
+    Map<String, String> config = tableConfigService.getTableConfig(tableMetadata);
+
+    // The config holds freshly vended credentials, but the metadata of an unchanged table is
+    // embedded as it was serialized the last time, instead of serializing a LoadTableResponse.
+    StringWriter writer = new StringWriter();
+    try (JsonGenerator generator = RESTObjectMapper.mapper().createGenerator(writer)) {
+      generator.writeStartObject();
+      generator.writeStringField("metadata-location", tableMetadata.metadataFileLocation());
+      generator.writeFieldName("metadata");
+      generator.writeRawValue(metadataService.readTableMetadataJson(metadataLocation));
+      if (!config.isEmpty()) {
+        generator.writeObjectField("config", config);
+      }
+      generator.writeEndObject();
+    }
+    return HttpResponse.of(HttpStatus.OK, MediaType.JSON_UTF_8, writer.toString());
+  }
+
+  private String getTableUniformMetadataLocation(String catalog, String namespace, String table) {
     String metadataLocation;
     try (Session session = sessionFactory.openSession()) {
-      tableRepository.getTable(catalog + "." + namespace + "." + table);
+      session.setDefaultReadOnly(true);
       metadataLocation =
           tableRepository.getTableUniformMetadataLocation(session, catalog, namespace, table);
     }
-
     if (metadataLocation == null) {
       throw new NoSuchTableException("Table does not exist: %s", namespace + "." + table);
     }
-
-    TableMetadata tableMetadata = metadataService.readTableMetadata(metadataLocation);
-    Map<String, String> config = tableConfigService.getTableConfig(tableMetadata);
-
-    return LoadTableResponse.builder()
-        .withTableMetadata(tableMetadata)
-        .addAllConfig(config)
-        .build();
+    return metadataLocation;
   }
 
   @Get("/v1/catalogs/{catalog}/namespaces/{namespace}/views/{view}")
@@ -190,44 +193,26 @@ public class IcebergRestCatalogService {
 
   @Get("/v1/catalogs/{catalog}/namespaces/{namespace}/tables")
   @ProducesJson
-  public org.apache.iceberg.rest.responses.ListTablesResponse listTables(
-      @Param("catalog") String catalog, @Param("namespace") String namespace)
-      throws JsonProcessingException {
-    AggregatedHttpResponse resp =
-        tableService
-            .listTables(
-                catalog,
-                namespace,
-                Optional.of(Integer.MAX_VALUE),
-                Optional.empty(),
-                Optional.empty(),
-                Optional.empty())
-            .aggregate()
-            .join();
-    List<TableIdentifier> filteredTables;
+  public PagedListTablesResponse listTables(
+      @Param("catalog") String catalog,
+      @Param("namespace") String namespace,
+      @Param("pageToken") Optional<String> pageToken,
+      @Param("pageSize") Optional<Integer> pageSize) {
+    // clients that support pagination send an empty page token with their first request, all
+    // other clients get every table in one response
+    Optional<Integer> maxResults = pageToken.map(token -> PagedListingHelper.getPageSize(pageSize));
+    ListTablesResponse page;
     try (Session session = sessionFactory.openSession()) {
-      filteredTables =
-          Objects.requireNonNull(
-                  JsonUtils.getInstance()
-                      .readValue(resp.contentUtf8(), ListTablesResponse.class)
-                      .getTables())
-              .stream()
-              .filter(
-                  tableInfo -> {
-                    String metadataLocation =
-                        tableRepository.getTableUniformMetadataLocation(
-                            session, catalog, namespace, tableInfo.getName());
-                    return metadataLocation != null;
-                  })
-              .map(
-                  tableInfo ->
-                      TableIdentifier.of(
-                          Namespace.of(tableInfo.getSchemaName()), tableInfo.getName()))
-              .collect(Collectors.toList());
+      page =
+          tableRepository.listUniformTables(
+              session, catalog, namespace, maxResults, pageToken.filter(token -> !token.isEmpty()));
     }
+    tableService.filterListedTables(page.getTables());
+    List<TableIdentifier> identifiers =
+        page.getTables().stream()
+            .map(tableInfo -> TableIdentifier.of(Namespace.of(namespace), tableInfo.getName()))
+            .toList();
 
-    return org.apache.iceberg.rest.responses.ListTablesResponse.builder()
-        .addAll(filteredTables)
-        .build();
+    return new PagedListTablesResponse(identifiers, page.getNextPageToken());
   }
 }
@@ -7,12 +7,14 @@ import io.unitycatalog.server.auth.UnityCatalogAuthorizer;
 import io.unitycatalog.server.auth.annotation.AuthorizeExpression;
 import io.unitycatalog.server.auth.annotation.AuthorizeKey;
 import io.unitycatalog.server.auth.annotation.AuthorizeKeys;
+import io.unitycatalog.server.auth.decorator.KeyMapper;
 import io.unitycatalog.server.auth.decorator.UnityAccessEvaluator;
 import io.unitycatalog.server.exception.GlobalExceptionHandler;
 import io.unitycatalog.server.model.*;
 import io.unitycatalog.server.persist.*;
 import io.unitycatalog.server.persist.model.Privileges;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -30,21 +32,19 @@ public class ModelService {
 
   private final ModelRepository modelRepository;
   private final SchemaRepository schemaRepository;
-  private final CatalogRepository catalogRepository;
-  private final MetastoreRepository metastoreRepository;
   private final UserRepository userRepository;
 
   private final UnityCatalogAuthorizer authorizer;
   private final UnityAccessEvaluator evaluator;
+  private final KeyMapper keyMapper;
 
   @SneakyThrows
   public ModelService(UnityCatalogAuthorizer authorizer, Repositories repositories) {
     this.authorizer = authorizer;
     this.evaluator = new UnityAccessEvaluator(authorizer);
-    this.catalogRepository = repositories.getCatalogRepository();
+    this.keyMapper = new KeyMapper(repositories);
     this.schemaRepository = repositories.getSchemaRepository();
     this.modelRepository = repositories.getModelRepository();
-    this.metastoreRepository = repositories.getMetastoreRepository();
     this.userRepository = repositories.getUserRepository();
   }
 
@@ -80,9 +80,10 @@ public class ModelService {
     filterModels("""
             #authorize(#principal, #metastore, OWNER) ||
             #authorize(#principal, #catalog, OWNER) ||
-            (#authorize(#principal, #catalog, USE_CATALOG) && #authorize(#principal, #schema, OWNER)) ||
-            (#authorizeAny(#principal, #registered_model, OWNER, EXECUTE) && #authorize(#principal, #schema, USE_SCHEMA) && #authorize(#principal, #catalog, USE_CATALOG))
-            """, listRegisteredModelsResponse.getRegisteredModels());
+            (#authorize(#principal, #catalog, USE_CATALOG) && #authorize(#principal, #schema, OWNER))
+            """, """
+            #authorize(#principal, #schema, USE_SCHEMA) && #authorize(#principal, #catalog, USE_CATALOG)
+            """, listRegisteredModelsResponse.getRegisteredModels(), Privileges.OWNER, Privileges.EXECUTE);
 
     return HttpResponse.ofJson(listRegisteredModelsResponse);
   }
@@ -231,28 +232,28 @@ public class ModelService {
         UUID.fromString(schemaInfo.getSchemaId()), UUID.fromString(registeredModelInfo.getId()));
   }
 
-  public void filterModels(String expression, List<RegisteredModelInfo> entries) {
+  public void filterModels(
+          String parentExpression,
+          String childExpression,
+          List<RegisteredModelInfo> entries,
+          Privileges... privileges) {
     // TODO: would be nice to move this to filtering in the Decorator response
     UUID principalId = userRepository.findPrincipalId();
+    Map<String, Map<SecurableType, Object>> parentIds = new HashMap<>();
 
-    evaluator.filter(
+    evaluator.filterChildren(
             principalId,
-            expression,
+            parentExpression,
+            childExpression,
             entries,
-            ti -> {
-              CatalogInfo catalogInfo = catalogRepository.getCatalog(ti.getCatalogName());
-              SchemaInfo schemaInfo =
-                      schemaRepository.getSchema(ti.getCatalogName() + "." + ti.getSchemaName());
-              return Map.of(
-                      METASTORE,
-                      metastoreRepository.getMetastoreId(),
-                      CATALOG,
-                      UUID.fromString(catalogInfo.getId()),
-                      SCHEMA,
-                      UUID.fromString(schemaInfo.getSchemaId()),
-                      REGISTERED_MODEL,
-                      UUID.fromString(ti.getId()));
-            });
+            mi ->
+                    parentIds.computeIfAbsent(
+                            mi.getCatalogName() + "." + mi.getSchemaName(),
+                            schema ->
+                                    keyMapper.mapResourceKeys(
+                                            Map.of(METASTORE, "metastore", SCHEMA, schema))),
+            mi -> UUID.fromString(mi.getId()),
+            privileges);
   }
 
   private void removeAuthorizations(RegisteredModelInfo registeredModelInfo) {
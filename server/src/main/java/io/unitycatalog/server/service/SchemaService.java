@@ -11,17 +11,20 @@ import com.linecorp.armeria.server.annotation.Post;
 import io.unitycatalog.server.auth.UnityCatalogAuthorizer;
 import io.unitycatalog.server.auth.annotation.AuthorizeExpression;
 import io.unitycatalog.server.auth.annotation.AuthorizeKey;
+import io.unitycatalog.server.auth.decorator.KeyMapper;
 import io.unitycatalog.server.auth.decorator.UnityAccessEvaluator;
 import io.unitycatalog.server.exception.GlobalExceptionHandler;
 import io.unitycatalog.server.model.CatalogInfo;
 import io.unitycatalog.server.model.CreateSchema;
 import io.unitycatalog.server.model.ListSchemasResponse;
 import io.unitycatalog.server.model.SchemaInfo;
+import io.unitycatalog.server.model.SecurableType;
 import io.unitycatalog.server.model.UpdateSchema;
 import io.unitycatalog.server.persist.*;
 import io.unitycatalog.server.persist.model.Privileges;
 import lombok.SneakyThrows;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -35,18 +38,18 @@ import static io.unitycatalog.server.model.SecurableType.SCHEMA;
 public class SchemaService {
   private final SchemaRepository schemaRepository;
   private final CatalogRepository catalogRepository;
-  private final MetastoreRepository metastoreRepository;
   private final UserRepository userRepository;
   private final UnityCatalogAuthorizer authorizer;
   private final UnityAccessEvaluator evaluator;
+  private final KeyMapper keyMapper;
 
   @SneakyThrows
   public SchemaService(UnityCatalogAuthorizer authorizer, Repositories repositories) {
     this.authorizer = authorizer;
     this.evaluator = new UnityAccessEvaluator(authorizer);
+    this.keyMapper = new KeyMapper(repositories);
     this.schemaRepository = repositories.getSchemaRepository();
     this.catalogRepository = repositories.getCatalogRepository();
-    this.metastoreRepository = repositories.getMetastoreRepository();
     this.userRepository = repositories.getUserRepository();
   }
 
@@ -71,12 +74,7 @@ public class SchemaService {
       @Param("page_token") Optional<String> pageToken) {
     ListSchemasResponse listSchemasResponse =
         schemaRepository.listSchemas(catalogName, maxResults, pageToken);
-    filterSchemas("""
-        #authorize(#principal, #metastore, OWNER) ||
-        #authorize(#principal, #catalog, OWNER) ||
-        (#authorize(#principal, #schema, USE_SCHEMA) && #authorizeAny(#principal, #catalog, OWNER, USE_CATALOG))
-        """,
-        listSchemasResponse.getSchemas());
+    filterListedSchemas(listSchemasResponse.getSchemas());
     return HttpResponse.ofJson(listSchemasResponse);
   }
 
@@ -122,24 +120,37 @@ public class SchemaService {
     return HttpResponse.of(HttpStatus.OK);
   }
 
-  public void filterSchemas(String expression, List<SchemaInfo> entries) {
+  /** Removes the schemas that the principal of the current request may not list. */
+  public void filterListedSchemas(List<SchemaInfo> schemas) {
+    filterSchemas("""
+        #authorize(#principal, #metastore, OWNER) ||
+        #authorize(#principal, #catalog, OWNER)
+        """, """
+        #authorizeAny(#principal, #catalog, OWNER, USE_CATALOG)
+        """,
+        schemas, Privileges.USE_SCHEMA);
+  }
+
+  public void filterSchemas(
+      String parentExpression,
+      String childExpression,
+      List<SchemaInfo> entries,
+      Privileges... privileges) {
     // TODO: would be nice to move this to filtering in the Decorator response
     UUID principalId = userRepository.findPrincipalId();
+    Map<String, Map<SecurableType, Object>> parentIds = new HashMap<>();
 
-    evaluator.filter(
+    evaluator.filterChildren(
         principalId,
-        expression,
+        parentExpression,
+        childExpression,
         entries,
-        si -> {
-          CatalogInfo catalogInfo = catalogRepository.getCatalog(si.getCatalogName());
-          return Map.of(
-              METASTORE,
-              metastoreRepository.getMetastoreId(),
-              CATALOG,
-              UUID.fromString(catalogInfo.getId()),
-              SCHEMA,
-              UUID.fromString(si.getSchemaId()));
-        });
+        si ->
+            parentIds.computeIfAbsent(
+                si.getCatalogName(),
+                catalog -> keyMapper.mapResourceKeys(Map.of(METASTORE, "metastore", CATALOG, catalog))),
+        si -> UUID.fromString(si.getSchemaId()),
+        privileges);
   }
 
   private void createAuthorizations(SchemaInfo schemaInfo) {
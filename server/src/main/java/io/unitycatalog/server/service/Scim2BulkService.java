@@ -0,0 +1,218 @@
+package io.unitycatalog.server.service;
+
+import static io.unitycatalog.server.model.SecurableType.METASTORE;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.linecorp.armeria.server.annotation.ExceptionHandler;
+import com.linecorp.armeria.server.annotation.Post;
+import com.linecorp.armeria.server.annotation.Produces;
+import com.linecorp.armeria.server.annotation.StatusCode;
+import com.unboundid.scim2.common.exceptions.BadRequestException;
+import com.unboundid.scim2.common.messages.ErrorResponse;
+import com.unboundid.scim2.common.types.UserResource;
+import com.unboundid.scim2.common.utils.JsonUtils;
+import io.unitycatalog.server.auth.UnityCatalogAuthorizer;
+import io.unitycatalog.server.auth.annotation.AuthorizeExpression;
+import io.unitycatalog.server.auth.annotation.AuthorizeKey;
+import io.unitycatalog.server.exception.BaseException;
+import io.unitycatalog.server.exception.ErrorCode;
+import io.unitycatalog.server.exception.GlobalExceptionHandler;
+import io.unitycatalog.server.exception.Scim2RuntimeException;
+import io.unitycatalog.server.persist.Repositories;
+import io.unitycatalog.server.persist.UserRepository;
+import io.unitycatalog.server.persist.model.BulkUserOperation;
+import io.unitycatalog.server.persist.model.BulkUserResult;
+import io.unitycatalog.server.persist.model.UpdateUser;
+import io.unitycatalog.server.utils.Scim2Utils;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * SCIM2-compliant bulk user management.
+ *
+ * <p>Implements the {@code /Bulk} endpoint of the SCIM 2.0 protocol for user resources, so that
+ * identity providers can provision many users with a single request. Users are created with
+ * {@code POST /Users}, and updated or deleted with {@code PATCH} or {@code DELETE /Users/{id}}, where
+ * the id may also be {@code bulkId:<bulkId>} to refer to a user created earlier in the same request.
+ *
+ * <p>The operations are applied in order by {@link UserRepository#applyBulk}, which writes them in
+ * a few transactions with batched statements, and the response holds the result of each applied
+ * operation. Malformed requests are rejected as a whole before any operation is applied.
+ */
+@ExceptionHandler(GlobalExceptionHandler.class)
+public class Scim2BulkService {
+  public static final String BULK_RESPONSE_SCHEMA =
+      "urn:ietf:params:scim:api:messages:2.0:BulkResponse";
+  public static final int MAX_OPERATIONS = 1000;
+
+  private static final String USERS_PATH = "/Users";
+  private static final String USERS_LOCATION = "/api/1.0/unity-control/scim2/Users/";
+  private static final String BULK_ID_PREFIX = "bulkId:";
+
+  public record BulkRequest(
+      List<String> schemas,
+      Integer failOnErrors,
+      @JsonProperty("Operations") List<BulkOperation> operations) {}
+
+  public record BulkOperation(String method, String bulkId, String path, JsonNode data) {}
+
+  public record BulkResponse(
+      List<String> schemas, @JsonProperty("Operations") List<BulkOperationResponse> operations) {}
+
+  public record BulkOperationResponse(
+      String method, String bulkId, String location, String status, ErrorResponse response) {}
+
+  private final UserRepository userRepository;
+  private final UnityCatalogAuthorizer authorizer;
+
+  public Scim2BulkService(UnityCatalogAuthorizer authorizer, Repositories repositories) {
+    this.authorizer = authorizer;
+    this.userRepository = repositories.getUserRepository();
+  }
+
+  @Post("")
+  @Produces("application/scim+json")
+  @StatusCode(200)
+  @AuthorizeExpression("#authorize(#principal, #metastore, OWNER)")
+  @AuthorizeKey(METASTORE)
+  public BulkResponse bulk(BulkRequest bulkRequest) {
+    List<BulkOperation> operations =
+        Optional.ofNullable(bulkRequest.operations()).orElse(List.of());
+    if (operations.size() > MAX_OPERATIONS) {
+      throw new Scim2RuntimeException(
+          BadRequestException.tooMany(
+              "A bulk request can hold at most " + MAX_OPERATIONS + " operations."));
+    }
+
+    Map<String, String> idsByBulkId = new HashMap<>();
+    List<BulkUserOperation> userOperations = new ArrayList<>();
+    for (BulkOperation operation : operations) {
+      userOperations.add(asUserOperation(operation, idsByBulkId));
+    }
+
+    int failOnErrors = Optional.ofNullable(bulkRequest.failOnErrors()).orElse(0);
+    List<BulkUserResult> results = userRepository.applyBulk(userOperations, failOnErrors);
+
+    List<BulkOperationResponse> responses = new ArrayList<>();
+    for (int i = 0; i < results.size(); i++) {
+      BulkUserOperation userOperation = userOperations.get(i);
+      BulkUserResult result = results.get(i);
+      if (result.isSuccess() && userOperation.getType() == BulkUserOperation.Type.DELETE) {
+        authorizer.clearAuthorizationsForPrincipal(UUID.fromString(userOperation.getId()));
+      }
+      responses.add(asOperationResponse(operations.get(i), userOperation, result));
+    }
+    return new BulkResponse(List.of(BULK_RESPONSE_SCHEMA), responses);
+  }
+
+  private BulkUserOperation asUserOperation(
+      BulkOperation operation, Map<String, String> idsByBulkId) {
+    String method = Optional.ofNullable(operation.method()).orElse("").toUpperCase(Locale.ROOT);
+    switch (method) {
+      case "POST" -> {
+        if (!USERS_PATH.equals(operation.path())) {
+          throw invalidPath(operation);
+        }
+        BulkUserOperation userOperation =
+            BulkUserOperation.create(
+                Scim2Utils.asCreateUser(readData(operation, UserResource.class)));
+        if (operation.bulkId() != null) {
+          idsByBulkId.put(operation.bulkId(), userOperation.getId());
+        }
+        return userOperation;
+      }
+      case "PATCH" -> {
+        String id = resolveUserId(operation, idsByBulkId);
+        UpdateUser updateUser =
+            Scim2Utils.asUpdateUser(
+                    Scim2Utils.asPatchRequest(readData(operation, JsonNode.class)))
+                .orElseThrow(
+                    () ->
+                        new Scim2RuntimeException(
+                            BadRequestException.invalidValue(
+                                "Only replacing the active state of a user is supported.")));
+        return BulkUserOperation.update(id, updateUser);
+      }
+      case "DELETE" -> {
+        return BulkUserOperation.delete(resolveUserId(operation, idsByBulkId));
+      }
+      default -> throw new Scim2RuntimeException(
+          BadRequestException.invalidSyntax(
+              "Unsupported bulk operation method: " + operation.method()));
+    }
+  }
+
+  private static String resolveUserId(BulkOperation operation, Map<String, String> idsByBulkId) {
+    String path = operation.path();
+    if (path == null || !path.startsWith(USERS_PATH + "/")) {
+      throw invalidPath(operation);
+    }
+    String id = path.substring(USERS_PATH.length() + 1);
+    if (id.startsWith(BULK_ID_PREFIX)) {
+      String bulkId = id.substring(BULK_ID_PREFIX.length());
+      id = idsByBulkId.get(bulkId);
+      if (id == null) {
+        throw new Scim2RuntimeException(
+            BadRequestException.invalidValue(
+                "No user is created earlier in the request with bulkId: " + bulkId));
+      }
+    }
+    return id;
+  }
+
+  private static <T> T readData(BulkOperation operation, Class<T> type) {
+    if (operation.data() == null) {
+      throw new Scim2RuntimeException(
+          BadRequestException.invalidSyntax(
+              "Bulk operation " + operation.method() + " " + operation.path() + " has no data."));
+    }
+    try {
+      return JsonUtils.nodeToValue(operation.data(), type);
+    } catch (JsonProcessingException e) {
+      throw new Scim2RuntimeException(BadRequestException.invalidSyntax(e.getMessage()));
+    }
+  }
+
+  private static Scim2RuntimeException invalidPath(BulkOperation operation) {
+    return new Scim2RuntimeException(
+        BadRequestException.invalidPath(
+            "Unsupported bulk operation path: " + operation.method() + " " + operation.path()));
+  }
+
+  private static BulkOperationResponse asOperationResponse(
+      BulkOperation operation, BulkUserOperation userOperation, BulkUserResult result) {
+    if (result.isSuccess()) {
+      String status =
+          switch (userOperation.getType()) {
+            case CREATE -> "201";
+            case UPDATE -> "200";
+            case DELETE -> "204";
+          };
+      return new BulkOperationResponse(
+          operation.method(),
+          operation.bulkId(),
+          USERS_LOCATION + userOperation.getId(),
+          status,
+          null);
+    }
+    BaseException error = result.getError();
+    ErrorResponse errorResponse = new ErrorResponse(error.getErrorCode().getHttpStatus().code());
+    if (error.getErrorCode() == ErrorCode.ALREADY_EXISTS) {
+      errorResponse.setScimType(BadRequestException.UNIQUENESS);
+    }
+    errorResponse.setDetail(error.getMessage());
+    return new BulkOperationResponse(
+        operation.method(),
+        operation.bulkId(),
+        null,
+        String.valueOf(errorResponse.getStatus()),
+        errorResponse);
+  }
+}
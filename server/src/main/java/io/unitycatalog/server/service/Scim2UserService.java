@@ -3,21 +3,15 @@ package io.unitycatalog.server.service;
 import static io.unitycatalog.server.model.SecurableType.METASTORE;
 import static io.unitycatalog.server.utils.Scim2Utils.asUserResource;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.HttpStatus;
 import com.linecorp.armeria.server.annotation.*;
 import com.unboundid.scim2.common.exceptions.BadRequestException;
-import com.unboundid.scim2.common.exceptions.PreconditionFailedException;
 import com.unboundid.scim2.common.exceptions.ResourceConflictException;
 import com.unboundid.scim2.common.exceptions.ScimException;
-import com.unboundid.scim2.common.exceptions.ServerErrorException;
 import com.unboundid.scim2.common.filters.Filter;
 import com.unboundid.scim2.common.messages.ListResponse;
-import com.unboundid.scim2.common.messages.PatchOpType;
-import com.unboundid.scim2.common.messages.PatchOperation;
-import com.unboundid.scim2.common.messages.PatchRequest;
-import com.unboundid.scim2.common.types.Email;
 import com.unboundid.scim2.common.types.Meta;
 import com.unboundid.scim2.common.types.UserResource;
 import com.unboundid.scim2.common.utils.FilterEvaluator;
@@ -34,6 +28,7 @@ import io.unitycatalog.server.persist.Repositories;
 import io.unitycatalog.server.persist.UserRepository;
 import io.unitycatalog.server.persist.model.CreateUser;
 import io.unitycatalog.server.persist.model.UpdateUser;
+import io.unitycatalog.server.utils.Scim2UserFilters;
 import io.unitycatalog.server.utils.Scim2Utils;
 import java.util.Calendar;
 import java.util.List;
@@ -75,17 +70,22 @@ public class Scim2UserService {
       @Param("startIndex") Optional<Integer> startIndex,
       @Param("count") Optional<Integer> count) {
     final Filter userFilter = filter.filter(f -> !f.isEmpty()).map(this::parseFilter).orElse(null);
-    FilterEvaluator filterEvaluator = new FilterEvaluator();
-
-    List<UserResource> userResourcesList =
-        userRepository
-            .listUsers(
-                startIndex.orElse(1) - 1,
-                count.orElse(50),
-                m -> match(filterEvaluator, userFilter, asUserResource(m)))
-            .stream()
-            .map(Scim2Utils::asUserResource)
-            .toList();
+    int offset = Math.max(startIndex.orElse(1), 1) - 1;
+    int maxUsers = count.orElse(50);
+
+    // common filters are evaluated by the database, others by scanning all users
+    Optional<UserRepository.UserFilter> userRepositoryFilter =
+        userFilter == null ? Optional.empty() : Scim2UserFilters.toUserFilter(userFilter);
+    List<User> users;
+    if (userFilter == null || userRepositoryFilter.isPresent()) {
+      users = userRepository.listUsers(offset, maxUsers, userRepositoryFilter.orElse(null));
+    } else {
+      FilterEvaluator filterEvaluator = new FilterEvaluator();
+      users =
+          userRepository.listUsers(
+              offset, maxUsers, m -> match(filterEvaluator, userFilter, asUserResource(m)));
+    }
+    List<UserResource> userResourcesList = users.stream().map(Scim2Utils::asUserResource).toList();
 
     Meta meta = new Meta();
     meta.setCreated(Calendar.getInstance());
@@ -109,30 +109,9 @@ public class Scim2UserService {
   @AuthorizeExpression("#authorize(#principal, #metastore, OWNER)")
   @AuthorizeKey(METASTORE)
   public UserResource createScimUser(UserResource userResource) {
-    // Get primary email address
-    Email primaryEmail =
-        userResource.getEmails().stream()
-            .filter(Email::getPrimary)
-            .findFirst()
-            .orElseThrow(
-                () ->
-                    new Scim2RuntimeException(
-                        new PreconditionFailedException("User does not have a primary email.")));
-
-    String pictureUrl = "";
-    if (userResource.getPhotos() != null && !userResource.getPhotos().isEmpty()) {
-      pictureUrl = userResource.getPhotos().get(0).getValue().toString();
-    }
+    CreateUser createUser = Scim2Utils.asCreateUser(userResource);
     try {
-      User user =
-          userRepository.createUser(
-              CreateUser.builder()
-                  .name(userResource.getDisplayName())
-                  .email(primaryEmail.getValue())
-                  .active(userResource.getActive())
-                  .externalId(userResource.getExternalId())
-                  .pictureUrl(pictureUrl)
-                  .build());
+      User user = userRepository.createUser(createUser);
       return asUserResource(user);
     } catch (BaseException e) {
       if (e.getErrorCode() == ErrorCode.ALREADY_EXISTS) {
@@ -185,36 +164,14 @@ public class Scim2UserService {
   }
 
   @Patch("/{id}")
-  public HttpResponse patchUser(@Param("id") String id, PatchRequest patchRequest) {
-
-    return patchRequest.getOperations().stream()
-        .filter(
-            op ->
-                op.getOpType() == PatchOpType.REPLACE
-                    && op.getPath() == null) // Only support patch for okta
-        .findFirst()
-        .map(op -> handleUserUpdate(id, op))
-        .orElse(HttpResponse.of(HttpStatus.NOT_IMPLEMENTED));
-  }
-
-  private HttpResponse handleUserUpdate(String id, PatchOperation operation) {
-    try {
-      Boolean value = operation.getValues(Boolean.class).get(0);
-      UpdateUser updateUser = UpdateUser.builder().active(value).build();
-      userRepository.updateUser(id, updateUser);
-      return HttpResponse.of(HttpStatus.OK);
-    } catch (ScimException | JsonProcessingException e) {
-      return handleExceptionDuringPatch(e);
-    }
-  }
-
-  private HttpResponse handleExceptionDuringPatch(Exception ex) {
-    if (ex instanceof ScimException) {
-      throw new Scim2RuntimeException((ScimException) ex);
-    } else {
-      throw new Scim2RuntimeException(
-          new ServerErrorException("Problem with patch operation", ex.getMessage(), ex));
+  public HttpResponse patchUser(@Param("id") String id, JsonNode patchRequest) {
+    Optional<UpdateUser> updateUser =
+        Scim2Utils.asUpdateUser(Scim2Utils.asPatchRequest(patchRequest));
+    if (updateUser.isEmpty()) {
+      return HttpResponse.of(HttpStatus.NOT_IMPLEMENTED);
     }
+    userRepository.updateUser(id, updateUser.get());
+    return HttpResponse.of(HttpStatus.OK);
   }
 
   private Filter parseFilter(String filter) {
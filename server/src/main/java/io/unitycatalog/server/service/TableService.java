@@ -11,17 +11,19 @@ import io.unitycatalog.server.auth.UnityCatalogAuthorizer;
 import io.unitycatalog.server.auth.annotation.AuthorizeExpression;
 import io.unitycatalog.server.auth.annotation.AuthorizeKey;
 import io.unitycatalog.server.auth.annotation.AuthorizeKeys;
+import io.unitycatalog.server.auth.decorator.KeyMapper;
 import io.unitycatalog.server.auth.decorator.UnityAccessEvaluator;
 import io.unitycatalog.server.exception.GlobalExceptionHandler;
-import io.unitycatalog.server.model.CatalogInfo;
 import io.unitycatalog.server.model.CreateTable;
 import io.unitycatalog.server.model.ListTablesResponse;
 import io.unitycatalog.server.model.SchemaInfo;
+import io.unitycatalog.server.model.SecurableType;
 import io.unitycatalog.server.model.TableInfo;
 import io.unitycatalog.server.persist.*;
 import io.unitycatalog.server.persist.model.Privileges;
 import lombok.SneakyThrows;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -37,21 +39,19 @@ public class TableService {
 
   private final TableRepository tableRepository;
   private final SchemaRepository schemaRepository;
-  private final CatalogRepository catalogRepository;
-  private final MetastoreRepository metastoreRepository;
   private final UserRepository userRepository;
 
   private final UnityCatalogAuthorizer authorizer;
   private final UnityAccessEvaluator evaluator;
+  private final KeyMapper keyMapper;
 
   @SneakyThrows
   public TableService(UnityCatalogAuthorizer authorizer, Repositories repositories) {
     this.authorizer = authorizer;
     this.evaluator = new UnityAccessEvaluator(authorizer);
+    this.keyMapper = new KeyMapper(repositories);
     this.tableRepository = repositories.getTableRepository();
     this.schemaRepository = repositories.getSchemaRepository();
-    this.catalogRepository = repositories.getCatalogRepository();
-    this.metastoreRepository = repositories.getMetastoreRepository();
     this.userRepository = repositories.getUserRepository();
   }
 
@@ -105,12 +105,7 @@ public class TableService {
             omitProperties.orElse(false),
             omitColumns.orElse(false));
 
-    filterTables("""
-          #authorize(#principal, #metastore, OWNER) ||
-          #authorize(#principal, #catalog, OWNER) ||
-          (#authorize(#principal, #schema, OWNER) && #authorize(#principal, #catalog, USE_CATALOG)) ||
-          (#authorize(#principal, #schema, USE_SCHEMA) && #authorize(#principal, #catalog, USE_CATALOG) && #authorizeAny(#principal, #table, OWNER, SELECT, MODIFY))
-          """, listTablesResponse.getTables());
+    filterListedTables(listTablesResponse.getTables());
 
     return HttpResponse.ofJson(listTablesResponse);
   }
@@ -128,28 +123,39 @@ public class TableService {
     return HttpResponse.of(HttpStatus.OK);
   }
 
-  public void filterTables(String expression, List<TableInfo> entries) {
+  /** Removes the tables that the principal of the current request may not list. */
+  public void filterListedTables(List<TableInfo> tables) {
+    filterTables("""
+          #authorize(#principal, #metastore, OWNER) ||
+          #authorize(#principal, #catalog, OWNER) ||
+          (#authorize(#principal, #schema, OWNER) && #authorize(#principal, #catalog, USE_CATALOG))
+          """, """
+          #authorize(#principal, #schema, USE_SCHEMA) && #authorize(#principal, #catalog, USE_CATALOG)
+          """, tables, Privileges.OWNER, Privileges.SELECT, Privileges.MODIFY);
+  }
+
+  public void filterTables(
+      String parentExpression,
+      String childExpression,
+      List<TableInfo> entries,
+      Privileges... privileges) {
     // TODO: would be nice to move this to filtering in the Decorator response
     UUID principalId = userRepository.findPrincipalId();
+    Map<String, Map<SecurableType, Object>> parentIds = new HashMap<>();
 
-    evaluator.filter(
+    evaluator.filterChildren(
             principalId,
-            expression,
+            parentExpression,
+            childExpression,
             entries,
-            ti -> {
-              CatalogInfo catalogInfo = catalogRepository.getCatalog(ti.getCatalogName());
-              SchemaInfo schemaInfo =
-                      schemaRepository.getSchema(ti.getCatalogName() + "." + ti.getSchemaName());
-              return Map.of(
-                      METASTORE,
-                      metastoreRepository.getMetastoreId(),
-                      CATALOG,
-                      UUID.fromString(catalogInfo.getId()),
-                      SCHEMA,
-                      UUID.fromString(schemaInfo.getSchemaId()),
-                      TABLE,
-                      UUID.fromString(ti.getTableId()));
-            });
+            ti ->
+                    parentIds.computeIfAbsent(
+                            ti.getCatalogName() + "." + ti.getSchemaName(),
+                            schema ->
+                                    keyMapper.mapResourceKeys(
+                                            Map.of(METASTORE, "metastore", SCHEMA, schema))),
+            ti -> UUID.fromString(ti.getTableId()),
+            privileges);
   }
 
   private void initializeAuthorizations(TableInfo tableInfo) {
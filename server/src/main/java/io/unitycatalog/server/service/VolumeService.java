@@ -12,18 +12,20 @@ import io.unitycatalog.server.auth.UnityCatalogAuthorizer;
 import io.unitycatalog.server.auth.annotation.AuthorizeExpression;
 import io.unitycatalog.server.auth.annotation.AuthorizeKey;
 import io.unitycatalog.server.auth.annotation.AuthorizeKeys;
+import io.unitycatalog.server.auth.decorator.KeyMapper;
 import io.unitycatalog.server.auth.decorator.UnityAccessEvaluator;
 import io.unitycatalog.server.exception.GlobalExceptionHandler;
-import io.unitycatalog.server.model.CatalogInfo;
 import io.unitycatalog.server.model.CreateVolumeRequestContent;
 import io.unitycatalog.server.model.ListVolumesResponseContent;
 import io.unitycatalog.server.model.SchemaInfo;
+import io.unitycatalog.server.model.SecurableType;
 import io.unitycatalog.server.model.UpdateVolumeRequestContent;
 import io.unitycatalog.server.model.VolumeInfo;
 import io.unitycatalog.server.persist.*;
 import io.unitycatalog.server.persist.model.Privileges;
 import lombok.SneakyThrows;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -38,21 +40,19 @@ import static io.unitycatalog.server.model.SecurableType.VOLUME;
 public class VolumeService {
   private final VolumeRepository volumeRepository;
   private final SchemaRepository schemaRepository;
-  private final CatalogRepository catalogRepository;
-  private final MetastoreRepository metastoreRepository;
   private final UserRepository userRepository;
 
   private final UnityCatalogAuthorizer authorizer;
   private final UnityAccessEvaluator evaluator;
+  private final KeyMapper keyMapper;
 
   @SneakyThrows
   public VolumeService(UnityCatalogAuthorizer authorizer, Repositories repositories) {
     this.authorizer = authorizer;
     this.evaluator = new UnityAccessEvaluator(authorizer);
+    this.keyMapper = new KeyMapper(repositories);
     this.volumeRepository = repositories.getVolumeRepository();
     this.schemaRepository = repositories.getSchemaRepository();
-    this.catalogRepository = repositories.getCatalogRepository();
-    this.metastoreRepository = repositories.getMetastoreRepository();
     this.userRepository = repositories.getUserRepository();
   }
 
@@ -87,9 +87,10 @@ public class VolumeService {
     filterVolumes("""
             #authorize(#principal, #metastore, OWNER) ||
             #authorize(#principal, #catalog, OWNER) ||
-            (#authorize(#principal, #schema, OWNER) && #authorize(#principal, #catalog, USE_CATALOG)) ||
-            (#authorize(#principal, #schema, USE_SCHEMA) && #authorize(#principal, #catalog, USE_CATALOG) && #authorizeAny(#principal, #volume, OWNER, READ_VOLUME))
-            """, listVolumesResponse.getVolumes());
+            (#authorize(#principal, #schema, OWNER) && #authorize(#principal, #catalog, USE_CATALOG))
+            """, """
+            #authorize(#principal, #schema, USE_SCHEMA) && #authorize(#principal, #catalog, USE_CATALOG)
+            """, listVolumesResponse.getVolumes(), Privileges.OWNER, Privileges.READ_VOLUME);
 
     return HttpResponse.ofJson(listVolumesResponse);
   }
@@ -132,28 +133,28 @@ public class VolumeService {
     return HttpResponse.of(HttpStatus.OK);
   }
 
-  public void filterVolumes(String expression, List<VolumeInfo> entries) {
+  public void filterVolumes(
+          String parentExpression,
+          String childExpression,
+          List<VolumeInfo> entries,
+          Privileges... privileges) {
     // TODO: would be nice to move this to filtering in the Decorator response
     UUID principalId = userRepository.findPrincipalId();
+    Map<String, Map<SecurableType, Object>> parentIds = new HashMap<>();
 
-    evaluator.filter(
+    evaluator.filterChildren(
             principalId,
-            expression,
+            parentExpression,
+            childExpression,
             entries,
-            vi -> {
-              CatalogInfo catalogInfo = catalogRepository.getCatalog(vi.getCatalogName());
-              SchemaInfo schemaInfo =
-                      schemaRepository.getSchema(vi.getCatalogName() + "." + vi.getSchemaName());
-              return Map.of(
-                      METASTORE,
-                      metastoreRepository.getMetastoreId(),
-                      CATALOG,
-                      UUID.fromString(catalogInfo.getId()),
-                      SCHEMA,
-                      UUID.fromString(schemaInfo.getSchemaId()),
-                      VOLUME,
-                      UUID.fromString(vi.getVolumeId()));
-            });
+            vi ->
+                    parentIds.computeIfAbsent(
+                            vi.getCatalogName() + "." + vi.getSchemaName(),
+                            schema ->
+                                    keyMapper.mapResourceKeys(
+                                            Map.of(METASTORE, "metastore", SCHEMA, schema))),
+            vi -> UUID.fromString(vi.getVolumeId()),
+            privileges);
   }
 
   private void initializeAuthorizations(VolumeInfo volumeInfo) {
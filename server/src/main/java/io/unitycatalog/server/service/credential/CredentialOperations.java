@@ -19,7 +19,7 @@ import static io.unitycatalog.server.utils.Constants.URI_SCHEME_ABFSS;
 import static io.unitycatalog.server.utils.Constants.URI_SCHEME_GS;
 import static io.unitycatalog.server.utils.Constants.URI_SCHEME_S3;
 
-public class CredentialOperations {
+public class CredentialOperations implements AutoCloseable {
 
   private final AwsCredentialVendor awsCredentialVendor;
   private final AzureCredentialVendor azureCredentialVendor;
@@ -34,6 +34,16 @@ public class CredentialOperations {
     this.gcpCredentialVendor = gcpCredentialVendor;
   }
 
+  @Override
+  public void close() {
+    if (awsCredentialVendor != null) {
+      awsCredentialVendor.close();
+    }
+    if (gcpCredentialVendor != null) {
+      gcpCredentialVendor.close();
+    }
+  }
+
   public TemporaryCredentials vendCredential(String path, Set<CredentialContext.Privilege> privileges) {
     if (path == null || path.isEmpty()) {
       throw new BaseException(ErrorCode.FAILED_PRECONDITION, "Storage location is null or empty.");
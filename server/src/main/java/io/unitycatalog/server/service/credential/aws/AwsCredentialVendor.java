@@ -1,26 +1,64 @@
 package io.unitycatalog.server.service.credential.aws;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.unitycatalog.server.exception.BaseException;
 import io.unitycatalog.server.exception.ErrorCode;
 import io.unitycatalog.server.service.credential.CredentialContext;
 import io.unitycatalog.server.utils.ServerProperties;
+import java.net.URI;
+import java.time.Clock;
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.sts.StsClient;
+import software.amazon.awssdk.services.sts.StsClientBuilder;
 import software.amazon.awssdk.services.sts.model.Credentials;
 
-public class AwsCredentialVendor {
+/**
+ * Vends temporary S3 credentials by assuming the configured role with a session policy scoped to
+ * the requested locations.
+ *
+ * <p>The STS client of each storage configuration is created once and reused. The vended
+ * credentials are cached per storage base, privileges and locations, so e.g. the tasks of a job
+ * reading the same table share one set of credentials. Cached credentials are refreshed once they
+ * are within {@link #REFRESH_AHEAD} of their expiration, so callers always receive credentials that
+ * are valid for at least that long.
+ */
+public class AwsCredentialVendor implements AutoCloseable {
+  static final Duration CREDENTIAL_DURATION = Duration.ofHours(1);
+  static final Duration REFRESH_AHEAD = Duration.ofMinutes(15);
+  public static final long DEFAULT_CREDENTIAL_CACHE_SIZE = 10_000;
+
+  private record CredentialKey(
+      String storageBase, Set<CredentialContext.Privilege> privileges, List<String> locations) {}
 
   private final Map<String, S3StorageConfig> s3Configurations;
+  private final Map<String, StsClient> stsClients = new ConcurrentHashMap<>();
+  private final Cache<CredentialKey, Credentials> credentials =
+      CacheBuilder.newBuilder()
+          .maximumSize(DEFAULT_CREDENTIAL_CACHE_SIZE)
+          .expireAfterWrite(CREDENTIAL_DURATION.minus(REFRESH_AHEAD))
+          .build();
+  private final Clock clock;
 
   public AwsCredentialVendor(ServerProperties serverProperties) {
+    this(serverProperties, Clock.systemUTC());
+  }
+
+  AwsCredentialVendor(ServerProperties serverProperties, Clock clock) {
     this.s3Configurations = serverProperties.getS3Configurations();
+    this.clock = clock;
   }
 
   public Credentials vendAwsCredentials(CredentialContext context) {
@@ -38,13 +76,37 @@ public class AwsCredentialVendor {
           .build();
     }
 
-    // TODO: cache sts client
-    StsClient stsClient = getStsClientForStorageConfig(s3StorageConfig);
+    CredentialKey key =
+        new CredentialKey(
+            context.getStorageBase(),
+            Set.copyOf(context.getPrivileges()),
+            context.getLocations().stream().map(AwsCredentialVendor::normalizeLocation).toList());
+    Credentials cached = credentials.getIfPresent(key);
+    if (cached != null && !needsRefresh(cached)) {
+      return cached;
+    }
+    if (cached != null) {
+      credentials.asMap().remove(key, cached);
+    }
+    try {
+      // concurrent requests for the same key wait for a single assumeRole call
+      return credentials.get(key, () -> assumeRole(s3StorageConfig, key));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new BaseException(ErrorCode.INTERNAL, "Failed to vend S3 credentials.", e.getCause());
+    }
+  }
+
+  private Credentials assumeRole(S3StorageConfig s3StorageConfig, CredentialKey key) {
+    StsClient stsClient =
+        stsClients.computeIfAbsent(
+            key.storageBase(), k -> getStsClientForStorageConfig(s3StorageConfig));
 
     // TODO: Update this with relevant user/role type info once available
     String roleSessionName = "uc-%s".formatted(UUID.randomUUID());
-    String awsPolicy =
-        AwsPolicyGenerator.generatePolicy(context.getPrivileges(), context.getLocations());
+    String awsPolicy = AwsPolicyGenerator.generatePolicy(key.privileges(), key.locations());
 
     return stsClient
         .assumeRole(
@@ -52,10 +114,34 @@ public class AwsCredentialVendor {
                 r.roleArn(s3StorageConfig.getAwsRoleArn())
                     .policy(awsPolicy)
                     .roleSessionName(roleSessionName)
-                    .durationSeconds((int) Duration.ofHours(1).toSeconds()))
+                    .durationSeconds((int) CREDENTIAL_DURATION.toSeconds()))
         .credentials();
   }
 
+  /** Close the STS clients created so far. Later requests create new clients. */
+  @Override
+  public void close() {
+    for (String storageBase : stsClients.keySet()) {
+      StsClient stsClient = stsClients.remove(storageBase);
+      if (stsClient != null) {
+        stsClient.close();
+      }
+    }
+  }
+
+  private boolean needsRefresh(Credentials cached) {
+    return cached.expiration() != null
+        && cached.expiration().isBefore(clock.instant().plus(REFRESH_AHEAD));
+  }
+
+  private static String normalizeLocation(String location) {
+    String normalized = URI.create(location).normalize().toString();
+    while (normalized.endsWith("/")) {
+      normalized = normalized.substring(0, normalized.length() - 1);
+    }
+    return normalized;
+  }
+
   private StsClient getStsClientForStorageConfig(S3StorageConfig s3StorageConfig) {
     AwsCredentialsProvider credentialsProvider;
     if (s3StorageConfig.getSecretKey() != null && !s3StorageConfig.getAccessKey().isEmpty()) {
@@ -69,9 +155,13 @@ public class AwsCredentialVendor {
 
     // TODO: should we try and set the region to something configurable or specific to the server
     // instead?
-    return StsClient.builder()
-        .credentialsProvider(credentialsProvider)
-        .region(Region.of(s3StorageConfig.getRegion()))
-        .build();
+    StsClientBuilder builder =
+        StsClient.builder()
+            .credentialsProvider(credentialsProvider)
+            .region(Region.of(s3StorageConfig.getRegion()));
+    if (s3StorageConfig.getStsEndpoint() != null && !s3StorageConfig.getStsEndpoint().isEmpty()) {
+      builder.endpointOverride(URI.create(s3StorageConfig.getStsEndpoint()));
+    }
+    return builder.build();
   }
 }
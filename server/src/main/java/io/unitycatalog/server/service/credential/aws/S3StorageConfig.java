@@ -14,4 +14,7 @@ public class S3StorageConfig {
   private final String accessKey;
   private final String secretKey;
   private final String sessionToken;
+  // Optional STS endpoint, e.g. of an S3 compatible storage. Uses the regional AWS endpoint if
+  // null.
+  private final String stsEndpoint;
 }
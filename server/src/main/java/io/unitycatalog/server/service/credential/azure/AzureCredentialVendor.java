@@ -13,19 +13,47 @@ import com.azure.storage.file.datalake.implementation.util.DataLakeSasImplUtil;
 import com.azure.storage.file.datalake.models.UserDelegationKey;
 import com.azure.storage.file.datalake.sas.DataLakeServiceSasSignatureValues;
 import com.azure.storage.file.datalake.sas.PathSasPermission;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.unitycatalog.server.exception.BaseException;
+import io.unitycatalog.server.exception.ErrorCode;
 import io.unitycatalog.server.service.credential.CredentialContext;
 import io.unitycatalog.server.utils.ServerProperties;
 import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
+/**
+ * Vends user delegation SAS tokens scoped to a single ADLS path.
+ *
+ * <p>The service client of each storage account is created once. User delegation keys are fetched
+ * once per account with a lifetime of {@link #DELEGATION_KEY_LIFETIME} and reused to sign the SAS
+ * tokens locally, so vending a token for a new path does not need a round trip to Azure. A new key
+ * is fetched once the cached key would expire before a newly signed token.
+ */
 public class AzureCredentialVendor {
+  static final Duration SAS_LIFETIME = Duration.ofHours(1);
+  static final Duration DELEGATION_KEY_LIFETIME = Duration.ofDays(1);
 
   private final Map<String, ADLSStorageConfig> adlsConfigurations;
+  private final Map<String, DataLakeServiceAsyncClient> serviceClients = new ConcurrentHashMap<>();
+  private final Cache<String, UserDelegationKey> delegationKeys =
+      CacheBuilder.newBuilder().expireAfterWrite(DELEGATION_KEY_LIFETIME).build();
+  private final Clock clock;
 
   public AzureCredentialVendor(ServerProperties serverProperties) {
+    this(serverProperties, Clock.systemUTC());
+  }
+
+  AzureCredentialVendor(ServerProperties serverProperties, Clock clock) {
     this.adlsConfigurations = serverProperties.getAdlsConfigurations();
+    this.clock = clock;
   }
 
   public AzureCredential vendAzureCredential(CredentialContext context) {
@@ -33,40 +61,20 @@ public class AzureCredentialVendor {
         ADLSLocationUtils.parseLocation(context.getStorageBase());
     ADLSStorageConfig config = adlsConfigurations.get(locationParts.accountName());
 
-    TokenCredential tokenCredential;
-    if (config == null) {
-      // fallback to creating credential from environment variables (or somewhere on the default
-      // chain)
-      tokenCredential = new DefaultAzureCredentialBuilder().build();
-    } else {
-      if (config.isTestMode()) {
-        // allow pass-through of a dummy value for integration testing
-        return AzureCredential.builder()
-            .sasToken(
-                format(
-                    "%s/%s/%s",
-                    config.getTenantId(), config.getClientId(), config.getClientSecret()))
-            .expirationTimeInEpochMillis(253370790000000L)
-            .build();
-      }
-      tokenCredential =
-          new ClientSecretCredentialBuilder()
-              .tenantId(config.getTenantId())
-              .clientId(config.getClientId())
-              .clientSecret(config.getClientSecret())
-              .build();
+    if (config != null && config.isTestMode()) {
+      // allow pass-through of a dummy value for integration testing
+      return AzureCredential.builder()
+          .sasToken(
+              format(
+                  "%s/%s/%s", config.getTenantId(), config.getClientId(), config.getClientSecret()))
+          .expirationTimeInEpochMillis(253370790000000L)
+          .build();
     }
-    DataLakeServiceAsyncClient serviceClient =
-        new DataLakeServiceClientBuilder()
-            .httpClient(HttpClient.createDefault())
-            .endpoint("https://" + locationParts.account())
-            .credential(tokenCredential)
-            .buildAsyncClient();
 
     // TODO: possibly make this configurable - defaulted to 1 hour right now
-    OffsetDateTime start = OffsetDateTime.now();
-    OffsetDateTime expiry = start.plusHours(1);
-    UserDelegationKey key = serviceClient.getUserDelegationKey(start, expiry).toFuture().join();
+    OffsetDateTime start = OffsetDateTime.now(clock);
+    OffsetDateTime expiry = start.plus(SAS_LIFETIME);
+    UserDelegationKey key = getUserDelegationKey(locationParts.account(), config, expiry);
 
     PathSasPermission perms = resolvePrivileges(context.getPrivileges());
     DataLakeServiceSasSignatureValues sasSignatureValues =
@@ -90,6 +98,62 @@ public class AzureCredentialVendor {
         .build();
   }
 
+  /** Get a cached user delegation key of the account that is valid at least until the expiry. */
+  private UserDelegationKey getUserDelegationKey(
+      String account, ADLSStorageConfig config, OffsetDateTime expiry) {
+    UserDelegationKey cached = delegationKeys.getIfPresent(account);
+    if (cached != null && !cached.getSignedExpiry().isBefore(expiry)) {
+      return cached;
+    }
+    if (cached != null) {
+      delegationKeys.asMap().remove(account, cached);
+    }
+    try {
+      // concurrent requests for the same account wait for a single key request
+      return delegationKeys.get(
+          account,
+          () -> {
+            OffsetDateTime start = OffsetDateTime.now(clock);
+            return fetchUserDelegationKey(
+                account, config, start, start.plus(DELEGATION_KEY_LIFETIME));
+          });
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new BaseException(
+          ErrorCode.INTERNAL, "Failed to get user delegation key.", e.getCause());
+    }
+  }
+
+  UserDelegationKey fetchUserDelegationKey(
+      String account, ADLSStorageConfig config, OffsetDateTime start, OffsetDateTime expiry) {
+    DataLakeServiceAsyncClient serviceClient =
+        serviceClients.computeIfAbsent(account, k -> createServiceClient(account, config));
+    return serviceClient.getUserDelegationKey(start, expiry).toFuture().join();
+  }
+
+  private DataLakeServiceAsyncClient createServiceClient(String account, ADLSStorageConfig config) {
+    TokenCredential tokenCredential;
+    if (config == null) {
+      // fallback to creating credential from environment variables (or somewhere on the default
+      // chain)
+      tokenCredential = new DefaultAzureCredentialBuilder().build();
+    } else {
+      tokenCredential =
+          new ClientSecretCredentialBuilder()
+              .tenantId(config.getTenantId())
+              .clientId(config.getClientId())
+              .clientSecret(config.getClientSecret())
+              .build();
+    }
+    return new DataLakeServiceClientBuilder()
+        .httpClient(HttpClient.createDefault())
+        .endpoint("https://" + account)
+        .credential(tokenCredential)
+        .buildAsyncClient();
+  }
+
   private PathSasPermission resolvePrivileges(Set<CredentialContext.Privilege> privileges) {
     PathSasPermission result = new PathSasPermission();
     if (privileges.contains(CredentialContext.Privilege.UPDATE)) {
@@ -9,6 +9,9 @@ import com.google.auth.oauth2.GoogleCredentials;
 import com.google.auth.oauth2.OAuth2Credentials;
 import com.google.auth.oauth2.ServiceAccountCredentials;
 import com.google.common.base.CharMatcher;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.unitycatalog.server.exception.BaseException;
 import io.unitycatalog.server.exception.ErrorCode;
 import io.unitycatalog.server.service.credential.CredentialContext;
@@ -16,38 +19,180 @@ import io.unitycatalog.server.utils.ServerProperties;
 import java.io.IOException;
 import java.net.URI;
 import java.sql.Date;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import lombok.SneakyThrows;
 import org.apache.iceberg.Files;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-public class GcpCredentialVendor {
+/**
+ * Vends GCS access tokens downscoped to the requested locations.
+ *
+ * <p>The source credentials of each bucket configuration are loaded once. Downscoped tokens are
+ * cached per bucket, set of locations and privileges, and refreshed in the background {@link
+ * #REFRESH_AHEAD} before they expire for as long as they keep being requested. Concurrent requests
+ * for a token that is not cached yet share a single token exchange.
+ */
+public class GcpCredentialVendor implements AutoCloseable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(GcpCredentialVendor.class);
 
   public static final List<String> INITIAL_SCOPES =
       List.of("https://www.googleapis.com/auth/cloud-platform");
 
+  static final Duration REFRESH_AHEAD = Duration.ofMinutes(5);
+  // Tokens that are not requested for this long are neither refreshed nor kept
+  static final Duration IDLE_TIMEOUT = Duration.ofMinutes(30);
+  // Upper bound for tokens without an expiration time, the default lifetime of GCP access tokens
+  static final Duration MAX_TOKEN_LIFETIME = Duration.ofHours(1);
+  public static final long DEFAULT_TOKEN_CACHE_SIZE = 10_000;
+
+  // The locations are kept exactly as requested, as the access boundary matches them as prefixes,
+  // e.g. a/b grants access to a/bc while a/b/ does not
+  private record TokenKey(
+      String storageBase, Set<CredentialContext.Privilege> privileges, Set<String> locations) {}
+
+  private static final class CachedToken {
+    private final AccessToken token;
+    // the context the token was requested for, to refresh it with
+    private final CredentialContext context;
+    private volatile Instant lastRequested = Instant.now();
+
+    private CachedToken(AccessToken token, CredentialContext context) {
+      this.token = token;
+      this.context = context;
+    }
+  }
+
   private final Map<String, String> gcsConfigurations;
+  private final Map<String, GoogleCredentials> sourceCredentials = new ConcurrentHashMap<>();
+  private final Cache<TokenKey, CachedToken> tokens =
+      CacheBuilder.newBuilder()
+          .maximumSize(DEFAULT_TOKEN_CACHE_SIZE)
+          .expireAfterWrite(MAX_TOKEN_LIFETIME)
+          .build();
+  private final ScheduledExecutorService refresher;
 
   public GcpCredentialVendor(ServerProperties serverProperties) {
+    this(
+        serverProperties,
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "gcp-token-refresh");
+              thread.setDaemon(true);
+              return thread;
+            }));
+  }
+
+  GcpCredentialVendor(ServerProperties serverProperties, ScheduledExecutorService refresher) {
     this.gcsConfigurations = serverProperties.getGcsConfigurations();
+    this.refresher = refresher;
+  }
+
+  /** Stop refreshing the cached tokens in the background. */
+  @Override
+  public void close() {
+    refresher.shutdownNow();
   }
 
-  @SneakyThrows
   public AccessToken vendGcpToken(CredentialContext credentialContext) {
     String serviceAccountKeyJsonFilePath =
         gcsConfigurations.get(credentialContext.getStorageBase());
+    if (serviceAccountKeyJsonFilePath != null
+        && serviceAccountKeyJsonFilePath.startsWith("testing://")) {
+      // allow pass-through of a dummy value for integration testing
+      return AccessToken.newBuilder()
+          .setTokenValue(serviceAccountKeyJsonFilePath)
+          .setExpirationTime(Date.from(Instant.ofEpochMilli(253370790000000L)))
+          .build();
+    }
 
+    TokenKey key =
+        new TokenKey(
+            credentialContext.getStorageBase(),
+            Set.copyOf(credentialContext.getPrivileges()),
+            Set.copyOf(credentialContext.getLocations()));
+    CachedToken cached = tokens.getIfPresent(key);
+    if (cached != null && !isExpiring(cached.token)) {
+      cached.lastRequested = Instant.now();
+      return cached.token;
+    }
+    if (cached != null) {
+      // the background refresh did not succeed in time
+      tokens.asMap().remove(key, cached);
+    }
+    try {
+      return tokens.get(
+              key,
+              () -> {
+                CachedToken token =
+                    new CachedToken(fetchToken(credentialContext), credentialContext);
+                scheduleRefresh(key, token);
+                return token;
+              })
+          .token;
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new BaseException(ErrorCode.INTERNAL, "Failed to vend GCS token.", e.getCause());
+    }
+  }
+
+  private AccessToken fetchToken(CredentialContext context) throws IOException {
+    GoogleCredentials creds =
+        sourceCredentials.computeIfAbsent(context.getStorageBase(), this::loadSourceCredentials);
+    return exchangeToken(creds, context);
+  }
+
+  private void scheduleRefresh(TokenKey key, CachedToken cached) {
+    if (cached.token.getExpirationTime() == null) {
+      return;
+    }
+    Duration delay =
+        Duration.between(Instant.now(), cached.token.getExpirationTime().toInstant())
+            .minus(REFRESH_AHEAD);
+    refresher.schedule(
+        () -> refresh(key, cached), Math.max(delay.toMillis(), 0), TimeUnit.MILLISECONDS);
+  }
+
+  private void refresh(TokenKey key, CachedToken cached) {
+    if (tokens.getIfPresent(key) != cached) {
+      return;
+    }
+    if (cached.lastRequested.isBefore(Instant.now().minus(IDLE_TIMEOUT))) {
+      tokens.asMap().remove(key, cached);
+      return;
+    }
+    try {
+      CachedToken refreshed = new CachedToken(fetchToken(cached.context), cached.context);
+      refreshed.lastRequested = cached.lastRequested;
+      if (tokens.asMap().replace(key, cached, refreshed)) {
+        scheduleRefresh(key, refreshed);
+      }
+    } catch (Exception e) {
+      LOGGER.warn("Failed to refresh GCS token for {}.", key.storageBase(), e);
+    }
+  }
+
+  private static boolean isExpiring(AccessToken token) {
+    return token.getExpirationTime() != null
+        && token.getExpirationTime().toInstant().isBefore(Instant.now().plus(REFRESH_AHEAD));
+  }
+
+  @SneakyThrows
+  GoogleCredentials loadSourceCredentials(String storageBase) {
+    String serviceAccountKeyJsonFilePath = gcsConfigurations.get(storageBase);
     GoogleCredentials creds;
     if (serviceAccountKeyJsonFilePath != null && !serviceAccountKeyJsonFilePath.isEmpty()) {
-      if (serviceAccountKeyJsonFilePath.startsWith("testing://")) {
-        // allow pass-through of a dummy value for integration testing
-        return AccessToken.newBuilder()
-            .setTokenValue(serviceAccountKeyJsonFilePath)
-            .setExpirationTime(Date.from(Instant.ofEpochMilli(253370790000000L)))
-            .build();
-      }
       creds =
           ServiceAccountCredentials.fromStream(
               Files.localInput(serviceAccountKeyJsonFilePath).newStream());
@@ -58,9 +203,12 @@ public class GcpCredentialVendor {
         throw new BaseException(ErrorCode.FAILED_PRECONDITION, "GCS credentials not found.", e);
       }
     }
+    return creds.createScoped(INITIAL_SCOPES);
+  }
 
-    return downscopeGcpCreds(creds.createScoped(INITIAL_SCOPES), credentialContext)
-        .refreshAccessToken();
+  AccessToken exchangeToken(GoogleCredentials credentials, CredentialContext context)
+      throws IOException {
+    return downscopeGcpCreds(credentials, context).refreshAccessToken();
   }
 
   OAuth2Credentials downscopeGcpCreds(GoogleCredentials credentials, CredentialContext context) {
@@ -72,25 +220,9 @@ public class GcpCredentialVendor {
         .forEach(
             location -> {
               URI locationUri = URI.create(location);
-              String path = CharMatcher.is('/').trimLeadingFrom(locationUri.getPath());
-
               String resource =
                   format("//storage.googleapis.com/projects/_/buckets/%s", locationUri.getHost());
-
-              // for reading/writing objects
-              String resourceNameStartsWithExpr =
-                  format(
-                      "resource.name.startsWith('projects/_/buckets/%s/objects/%s')",
-                      locationUri.getHost(), path);
-
-              // for listing objects
-              String objectListPrefixStartsWithExpr =
-                  format(
-                      "api.getAttribute('storage.googleapis.com/objectListPrefix', '').startsWith('%s')",
-                      path);
-
-              String combinedExpr =
-                  resourceNameStartsWithExpr + " || " + objectListPrefixStartsWithExpr;
+              String combinedExpr = availabilityExpression(locationUri);
 
               boundaryBuilder.addRule(
                   CredentialAccessBoundary.AccessBoundaryRule.newBuilder()
@@ -110,6 +242,25 @@ public class GcpCredentialVendor {
         .build();
   }
 
+  /** The condition under which the objects of a bucket at or below a location are available. */
+  static String availabilityExpression(URI locationUri) {
+    String path = CharMatcher.is('/').trimLeadingFrom(locationUri.getPath());
+
+    // for reading/writing objects
+    String resourceNameStartsWithExpr =
+        format(
+            "resource.name.startsWith('projects/_/buckets/%s/objects/%s')",
+            locationUri.getHost(), path);
+
+    // for listing objects
+    String objectListPrefixStartsWithExpr =
+        format(
+            "api.getAttribute('storage.googleapis.com/objectListPrefix', '').startsWith('%s')",
+            path);
+
+    return resourceNameStartsWithExpr + " || " + objectListPrefixStartsWithExpr;
+  }
+
   List<String> resolvePrivilegesToRoles(Set<CredentialContext.Privilege> privileges) {
     if (privileges.contains(CredentialContext.Privilege.UPDATE)) {
       return List.of("inRole:roles/storage.objectAdmin");
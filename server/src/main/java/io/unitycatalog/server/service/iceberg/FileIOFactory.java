@@ -9,6 +9,7 @@ import io.unitycatalog.server.service.credential.aws.S3StorageConfig;
 import io.unitycatalog.server.service.credential.azure.ADLSLocationUtils;
 import io.unitycatalog.server.service.credential.azure.AzureCredential;
 import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.iceberg.aws.s3.S3FileIO;
 import org.apache.iceberg.azure.AzureProperties;
 import org.apache.iceberg.azure.adlsv2.ADLSFileIO;
@@ -24,74 +25,213 @@ import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.sts.model.Credentials;
 
 import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static io.unitycatalog.server.utils.Constants.URI_SCHEME_ABFS;
 import static io.unitycatalog.server.utils.Constants.URI_SCHEME_ABFSS;
 import static io.unitycatalog.server.utils.Constants.URI_SCHEME_GS;
 import static io.unitycatalog.server.utils.Constants.URI_SCHEME_S3;
 
-public class FileIOFactory {
+/**
+ * Creates the {@link FileIO}s used to read table metadata.
+ *
+ * <p>Cloud FileIOs are cached per storage base with credentials scoped to the whole storage base,
+ * so that reading the metadata of another table in the same bucket or container reuses the
+ * clients and credentials. A FileIO is replaced {@link #EXPIRY_MARGIN} before its credentials
+ * expire, and a replaced FileIO is closed {@link #DEFAULT_CLOSE_DELAY} later so that reads still
+ * using it can complete. If no AWS credentials can be vended, the S3 FileIO falls back to the
+ * default credentials provider chain and is only kept for {@link #FALLBACK_TTL}, so that vending
+ * is retried soon after a transient failure. The cached FileIOs are closed with the factory.
+ */
+@Slf4j
+public class FileIOFactory implements AutoCloseable {
+  static final Duration EXPIRY_MARGIN = Duration.ofMinutes(5);
+  static final Duration DEFAULT_CLOSE_DELAY = Duration.ofMinutes(1);
+  static final Duration FALLBACK_TTL = Duration.ofMinutes(1);
+
+  record CachedFileIO(FileIO fileIO, Instant expiration) {}
 
   private final CredentialOperations credentialOps;
   private final Map<String, S3StorageConfig> s3Configurations;
+  private final Map<String, CachedFileIO> fileIOs = new ConcurrentHashMap<>();
+  // replaced FileIOs that are not closed yet
+  private final Set<FileIO> replacedFileIOs = ConcurrentHashMap.newKeySet();
+  private final Clock clock;
+  private final Duration closeDelay;
+  private final ScheduledExecutorService closer =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "fileio-closer");
+            thread.setDaemon(true);
+            return thread;
+          });
 
   public FileIOFactory(CredentialOperations credentialOps, ServerProperties serverProperties) {
+    this(credentialOps, serverProperties, Clock.systemUTC(), DEFAULT_CLOSE_DELAY);
+  }
+
+  FileIOFactory(
+      CredentialOperations credentialOps,
+      ServerProperties serverProperties,
+      Clock clock,
+      Duration closeDelay) {
     this.credentialOps = credentialOps;
     this.s3Configurations = serverProperties.getS3Configurations();
+    this.clock = clock;
+    this.closeDelay = closeDelay;
   }
 
-  // TODO: Cache fileIOs
   public FileIO getFileIO(URI tableLocationUri) {
-    return switch (tableLocationUri.getScheme()) {
-      case URI_SCHEME_ABFS, URI_SCHEME_ABFSS -> getADLSFileIO(tableLocationUri);
-      case URI_SCHEME_GS -> getGCSFileIO(tableLocationUri);
-      case URI_SCHEME_S3 -> getS3FileIO(tableLocationUri);
+    String scheme = tableLocationUri.getScheme();
+    if (!isCloudScheme(scheme)) {
       // TODO: should we default/fallback to HadoopFileIO ?
-      default -> new SimpleLocalFileIO();
+      return new SimpleLocalFileIO();
+    }
+    CredentialContext context = getCredentialContextFromStorageBase(tableLocationUri);
+    String storageBase = context.getStorageBase();
+    CachedFileIO cached = fileIOs.get(storageBase);
+    if (cached != null && isFresh(cached)) {
+      return cached.fileIO();
+    }
+    // credentials are vended without holding a lock on the map, as vending them may take a network
+    // round trip. Concurrent requests may then each create a FileIO, the first one installed wins.
+    CachedFileIO created = createFileIO(scheme, context);
+    while (true) {
+      boolean installed =
+          cached == null
+              ? fileIOs.putIfAbsent(storageBase, created) == null
+              : fileIOs.replace(storageBase, cached, created);
+      if (installed) {
+        if (cached != null) {
+          closeLater(cached.fileIO());
+        }
+        return created.fileIO();
+      }
+      cached = fileIOs.get(storageBase);
+      if (cached != null && isFresh(cached)) {
+        closeLater(created.fileIO());
+        return cached.fileIO();
+      }
+    }
+  }
+
+  private boolean isFresh(CachedFileIO cached) {
+    return clock.instant().plus(EXPIRY_MARGIN).isBefore(cached.expiration());
+  }
+
+  private static boolean isCloudScheme(String scheme) {
+    return scheme != null
+        && switch (scheme) {
+          case URI_SCHEME_ABFS, URI_SCHEME_ABFSS, URI_SCHEME_GS, URI_SCHEME_S3 -> true;
+          default -> false;
+        };
+  }
+
+  private CachedFileIO createFileIO(String scheme, CredentialContext context) {
+    return switch (scheme) {
+      case URI_SCHEME_ABFS, URI_SCHEME_ABFSS -> getADLSFileIO(context);
+      case URI_SCHEME_GS -> getGCSFileIO(context);
+      default -> getS3FileIO(context);
     };
   }
 
-  protected ADLSFileIO getADLSFileIO(URI tableLocationUri) {
-    CredentialContext credentialContext = getCredentialContextFromTableLocation(tableLocationUri);
-    AzureCredential credential = credentialOps.vendAzureCredential(credentialContext);
-    ADLSLocationUtils.ADLSLocationParts locationParts = ADLSLocationUtils.parseLocation(tableLocationUri.toString());
+  private void closeLater(FileIO fileIO) {
+    replacedFileIOs.add(fileIO);
+    closer.schedule(
+        () -> {
+          if (replacedFileIOs.remove(fileIO)) {
+            closeQuietly(fileIO);
+          }
+        },
+        closeDelay.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  private static void closeQuietly(FileIO fileIO) {
+    try {
+      fileIO.close();
+    } catch (RuntimeException e) {
+      log.warn("Failed to close FileIO.", e);
+    }
+  }
+
+  /** Closes the cached FileIOs, and the replaced ones right away. */
+  @Override
+  public void close() {
+    closer.shutdownNow();
+    replacedFileIOs.forEach(FileIOFactory::closeQuietly);
+    replacedFileIOs.clear();
+    fileIOs.values().forEach(cached -> closeQuietly(cached.fileIO()));
+    fileIOs.clear();
+  }
+
+  protected CachedFileIO getADLSFileIO(CredentialContext context) {
+    AzureCredential credential = credentialOps.vendAzureCredential(context);
+    ADLSLocationUtils.ADLSLocationParts locationParts =
+        ADLSLocationUtils.parseLocation(context.getStorageBase());
 
-    // NOTE: when fileio caching is implemented, need to set/deal with expiry here
     Map<String, String> properties =
       Map.of(AzureProperties.ADLS_SAS_TOKEN_PREFIX + locationParts.account(), credential.getSasToken());
 
     ADLSFileIO result = new ADLSFileIO();
     result.initialize(properties);
-    return result;
+    return new CachedFileIO(
+        result, Instant.ofEpochMilli(credential.getExpirationTimeInEpochMillis()));
   }
 
   @SneakyThrows
-  protected GCSFileIO getGCSFileIO(URI tableLocationUri) {
-    CredentialContext credentialContext = getCredentialContextFromTableLocation(tableLocationUri);
-    AccessToken gcpToken = credentialOps.vendGcpToken(credentialContext);
+  protected CachedFileIO getGCSFileIO(CredentialContext context) {
+    AccessToken gcpToken = credentialOps.vendGcpToken(context);
 
-    // NOTE: when fileio caching is implemented, need to set/deal with expiry here
     Map<String, String> properties =
       Map.of(
         GCPProperties.GCS_OAUTH2_TOKEN, gcpToken.getTokenValue());
 
     GCSFileIO result = new GCSFileIO();
     result.initialize(properties);
-    return result;
+    Instant expiration =
+        gcpToken.getExpirationTime() == null
+            ? Instant.MAX
+            : gcpToken.getExpirationTime().toInstant();
+    return new CachedFileIO(result, expiration);
   }
 
-  protected S3FileIO getS3FileIO(URI tableLocationUri) {
-    CredentialContext context = getCredentialContextFromTableLocation(tableLocationUri);
+  protected CachedFileIO getS3FileIO(CredentialContext context) {
     S3StorageConfig s3StorageConfig = s3Configurations.get(context.getStorageBase());
 
+    Credentials awsSessionCredentials = vendAwsCredentials(context);
+    AwsCredentialsProvider credentialsProvider =
+        awsSessionCredentials == null
+            ? DefaultCredentialsProvider.create()
+            : StaticCredentialsProvider.create(
+                AwsSessionCredentials.create(
+                    awsSessionCredentials.accessKeyId(),
+                    awsSessionCredentials.secretAccessKey(),
+                    awsSessionCredentials.sessionToken()));
+
     S3FileIO s3FileIO =
-        new S3FileIO(() -> getS3Client(getAwsCredentialsProvider(context), s3StorageConfig.getRegion()));
+        new S3FileIO(() -> getS3Client(credentialsProvider, s3StorageConfig.getRegion()));
 
     s3FileIO.initialize(Map.of());
 
-    return s3FileIO;
+    Instant expiration;
+    if (awsSessionCredentials == null) {
+      // retry vending soon, even though the default provider chain refreshes its own credentials
+      expiration = clock.instant().plus(EXPIRY_MARGIN).plus(FALLBACK_TTL);
+    } else if (awsSessionCredentials.expiration() == null) {
+      expiration = Instant.MAX;
+    } else {
+      expiration = awsSessionCredentials.expiration();
+    }
+    return new CachedFileIO(s3FileIO, expiration);
   }
 
   protected S3Client getS3Client(AwsCredentialsProvider awsCredentialsProvider, String region) {
@@ -102,18 +242,20 @@ public class FileIOFactory {
         .build();
   }
 
-  private AwsCredentialsProvider getAwsCredentialsProvider(CredentialContext context) {
+  private Credentials vendAwsCredentials(CredentialContext context) {
     try {
-      Credentials awsSessionCredentials = credentialOps.vendAwsCredential(context);
-      return StaticCredentialsProvider.create(
-        AwsSessionCredentials.create(awsSessionCredentials.accessKeyId(), awsSessionCredentials.secretAccessKey(), awsSessionCredentials.sessionToken()));
+      return credentialOps.vendAwsCredential(context);
     } catch (BaseException e) {
-      return DefaultCredentialsProvider.create();
+      return null;
     }
   }
 
-  private CredentialContext getCredentialContextFromTableLocation(URI tableLocationUri) {
+  private CredentialContext getCredentialContextFromStorageBase(URI tableLocationUri) {
+    // the FileIO is shared by all tables of the storage base, so its credentials are scoped to the
+    // root of the storage base rather than to the location of a single table
+    URI storageBaseUri =
+        URI.create(tableLocationUri.getScheme() + "://" + tableLocationUri.getAuthority());
     // FIXME!! privileges are defaulted to READ only here for now as Iceberg REST impl doesn't support write
-    return CredentialContext.create(tableLocationUri, Set.of(CredentialContext.Privilege.SELECT));
+    return CredentialContext.create(storageBaseUri, Set.of(CredentialContext.Privilege.SELECT));
   }
 }
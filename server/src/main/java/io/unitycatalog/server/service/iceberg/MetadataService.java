@@ -1,25 +1,79 @@
 package io.unitycatalog.server.service.iceberg;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.unitycatalog.server.exception.BaseException;
+import io.unitycatalog.server.exception.ErrorCode;
 import java.net.URI;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import org.apache.iceberg.TableMetadata;
 import org.apache.iceberg.TableMetadataParser;
 import org.apache.iceberg.io.FileIO;
 
+/**
+ * Reads Iceberg table metadata files.
+ *
+ * <p>Metadata files are never modified once written, so a metadata location always identifies the
+ * same content. The parsed metadata and its serialized JSON are cached by location in an LRU cache
+ * bounded by {@link #DEFAULT_MAX_CACHE_BYTES}, so that clients polling an unchanged table neither
+ * download and parse the metadata file nor serialize the metadata again.
+ */
 public class MetadataService {
+  static final long DEFAULT_MAX_CACHE_BYTES = 64L * 1024 * 1024;
+
+  private record CachedTableMetadata(TableMetadata metadata, String json) {}
 
   private final FileIOFactory fileIOFactory;
+  private final Cache<String, CachedTableMetadata> tableMetadataCache;
 
   public MetadataService(FileIOFactory fileIOFactory) {
+    this(fileIOFactory, DEFAULT_MAX_CACHE_BYTES);
+  }
+
+  MetadataService(FileIOFactory fileIOFactory, long maxCacheBytes) {
     this.fileIOFactory = fileIOFactory;
+    // the weight estimates the bytes of both the serialized and the parsed metadata by twice the
+    // length of the JSON
+    this.tableMetadataCache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxCacheBytes)
+            .<String, CachedTableMetadata>weigher(
+                (location, cached) ->
+                    (int) Math.min(Integer.MAX_VALUE, 2L * cached.json().length()))
+            .build();
   }
 
   public TableMetadata readTableMetadata(String metadataLocation) {
+    return getTableMetadata(metadataLocation).metadata();
+  }
+
+  /** Returns the metadata at the location serialized the way Iceberg REST responses embed it. */
+  public String readTableMetadataJson(String metadataLocation) {
+    return getTableMetadata(metadataLocation).json();
+  }
+
+  private CachedTableMetadata getTableMetadata(String metadataLocation) {
+    try {
+      // concurrent requests for the same metadata wait for a single read
+      return tableMetadataCache.get(metadataLocation, () -> loadTableMetadata(metadataLocation));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new BaseException(
+          ErrorCode.INTERNAL, "Failed to read table metadata: " + metadataLocation, e.getCause());
+    }
+  }
+
+  private CachedTableMetadata loadTableMetadata(String metadataLocation) {
     URI metadataLocationUri = URI.create(metadataLocation);
-    // TODO: cache fileIO
     FileIO fileIO = fileIOFactory.getFileIO(metadataLocationUri);
 
-    return CompletableFuture.supplyAsync(() -> TableMetadataParser.read(fileIO, metadataLocation))
-        .join();
+    TableMetadata metadata =
+        CompletableFuture.supplyAsync(() -> TableMetadataParser.read(fileIO, metadataLocation))
+            .join();
+    return new CachedTableMetadata(metadata, TableMetadataParser.toJson(metadata));
   }
 }
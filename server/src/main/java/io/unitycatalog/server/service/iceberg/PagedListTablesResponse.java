@@ -0,0 +1,23 @@
+package io.unitycatalog.server.service.iceberg;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.iceberg.catalog.TableIdentifier;
+
+/**
+ * A page of an Iceberg REST table listing. The Iceberg version used by the server predates the
+ * {@code next-page-token} field of {@link org.apache.iceberg.rest.responses.ListTablesResponse}, so
+ * this mirrors the newer response. It is serialized with the kebab-case field naming of {@link
+ * io.unitycatalog.server.utils.RESTObjectMapper}, and the token is left out of unpaginated
+ * responses.
+ */
+@Getter
+@AllArgsConstructor
+public class PagedListTablesResponse {
+  private final List<TableIdentifier> identifiers;
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private final String nextPageToken;
+}
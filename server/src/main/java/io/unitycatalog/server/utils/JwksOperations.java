@@ -5,11 +5,20 @@ import static io.unitycatalog.server.security.SecurityContext.Issuers.INTERNAL;
 import com.auth0.jwk.Jwk;
 import com.auth0.jwk.JwkProvider;
 import com.auth0.jwk.JwkProviderBuilder;
+import com.auth0.jwk.NetworkException;
+import com.auth0.jwk.RateLimitReachedException;
+import com.auth0.jwk.SigningKeyNotFoundException;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Throwables;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.linecorp.armeria.client.WebClient;
 import io.unitycatalog.server.exception.ErrorCode;
 import io.unitycatalog.server.exception.OAuthInvalidClientException;
@@ -18,29 +27,141 @@ import io.unitycatalog.server.security.SecurityContext;
 import java.net.URL;
 import java.nio.file.Path;
 import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.unitycatalog.server.service.AuthService;
 import lombok.SneakyThrows;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Resolves the verifiers of the tokens of an issuer.
+ *
+ * <p>Verifiers are cached per issuer and key id, so that verifying a token is an in-memory
+ * signature check. A verifier is created on the first use of a key, which picks up keys the issuer
+ * rotated in, and expires after {@link #VERIFIER_TTL} so that keys rotated out stop being
+ * accepted. Key ids the issuer does not know are remembered for {@link #UNKNOWN_KEY_TTL}, so that
+ * tokens with made-up key ids don't fetch the keys of the issuer on every request. As every new key
+ * id still fetches the key set, an issuer's key set is fetched for new key ids at most {@link
+ * #MAX_KEY_SET_FETCHES} times per {@link #KEY_SET_FETCH_WINDOW}, and tokens with new keys that would
+ * need further fetches are rejected until the window ends. Keys the issuer is known to have, and
+ * the keys of the server itself, are not limited, so made-up key ids can't lock out valid tokens. If
+ * the key set can't be fetched when the verifier of a known key is recreated, the key last fetched
+ * is used. The key sets of concurrent requests for the same key and the OIDC configuration of an
+ * issuer are fetched once.
+ */
 public class JwksOperations {
+  static final Duration VERIFIER_TTL = Duration.ofMinutes(15);
+  static final Duration UNKNOWN_KEY_TTL = Duration.ofMinutes(1);
+  static final Duration PROVIDER_TTL = Duration.ofHours(1);
+  static final Duration KEY_SET_FETCH_WINDOW = Duration.ofMinutes(1);
+  static final int MAX_KEY_SET_FETCHES = 10;
+  private static final long MAX_KEYS = 1000;
+  private static final long MAX_ISSUERS = 100;
+
+  private record IssuerKey(String issuer, String keyId) {}
 
   private final WebClient webClient = WebClient.builder().build();
   private static final ObjectMapper mapper = new ObjectMapper();
   private final SecurityContext securityContext;
+  private final Cache<String, JwkProvider> providers;
+  private final Cache<IssuerKey, JWTVerifier> verifiers;
+  private final Cache<IssuerKey, SigningKeyNotFoundException> unknownKeys;
+  private final Cache<IssuerKey, Jwk> knownKeys;
+  // the key set fetches of each issuer in its current window, which starts with the first fetch
+  private final Cache<String, AtomicInteger> keySetFetches;
 
   private static final Logger LOGGER = LoggerFactory.getLogger(JwksOperations.class);
 
   public JwksOperations(SecurityContext securityContext) {
+    this(securityContext, Ticker.systemTicker());
+  }
+
+  JwksOperations(SecurityContext securityContext, Ticker ticker) {
     this.securityContext = securityContext;
+    this.providers =
+        CacheBuilder.newBuilder()
+            .ticker(ticker)
+            .maximumSize(MAX_ISSUERS)
+            .expireAfterWrite(PROVIDER_TTL)
+            .build();
+    this.verifiers =
+        CacheBuilder.newBuilder()
+            .ticker(ticker)
+            .maximumSize(MAX_KEYS)
+            .expireAfterWrite(VERIFIER_TTL)
+            .build();
+    this.unknownKeys =
+        CacheBuilder.newBuilder()
+            .ticker(ticker)
+            .maximumSize(MAX_KEYS)
+            .expireAfterWrite(UNKNOWN_KEY_TTL)
+            .build();
+    this.knownKeys = CacheBuilder.newBuilder().ticker(ticker).maximumSize(MAX_KEYS).build();
+    this.keySetFetches =
+        CacheBuilder.newBuilder()
+            .ticker(ticker)
+            .maximumSize(MAX_ISSUERS)
+            .expireAfterWrite(KEY_SET_FETCH_WINDOW)
+            .build();
   }
 
   @SneakyThrows
   public JWTVerifier verifierForIssuerAndKey(String issuer, String keyId) {
-    JwkProvider jwkProvider = loadJwkProvider(issuer);
-    Jwk jwk = jwkProvider.get(keyId);
+    IssuerKey issuerKey = new IssuerKey(issuer, keyId);
+    SigningKeyNotFoundException unknownKey = unknownKeys.getIfPresent(issuerKey);
+    if (unknownKey != null) {
+      throw unknownKey;
+    }
+    try {
+      return verifiers.get(issuerKey, () -> createVerifier(issuer, keyId));
+    } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+      if (e.getCause() instanceof SigningKeyNotFoundException notFound) {
+        unknownKeys.put(issuerKey, notFound);
+      }
+      throw unwrap(e);
+    }
+  }
+
+  /** Returns the checked exception a cache loader failed with, or throws its unchecked one. */
+  private static Exception unwrap(Throwable e) {
+    Throwable cause = e.getCause();
+    Throwables.throwIfUnchecked(cause);
+    return cause instanceof Exception exception ? exception : new IllegalStateException(cause);
+  }
+
+  private JWTVerifier createVerifier(String issuer, String keyId) throws Exception {
+    JwkProvider jwkProvider;
+    try {
+      jwkProvider = providers.get(issuer, () -> loadJwkProvider(issuer));
+    } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+      throw unwrap(e);
+    }
+    IssuerKey issuerKey = new IssuerKey(issuer, keyId);
+    Jwk knownJwk = knownKeys.getIfPresent(issuerKey);
+    if (knownJwk == null
+        && !issuer.equals(INTERNAL)
+        && keySetFetches.get(issuer, AtomicInteger::new).incrementAndGet() > MAX_KEY_SET_FETCHES) {
+      LOGGER.warn("Too many key set fetches for issuer '{}', rejecting key '{}'", issuer, keyId);
+      throw new RateLimitReachedException(KEY_SET_FETCH_WINDOW.toMillis());
+    }
+    Jwk jwk;
+    try {
+      jwk = jwkProvider.get(keyId);
+    } catch (NetworkException e) {
+      if (knownJwk == null) {
+        throw e;
+      }
+      LOGGER.warn("Could not fetch key set of issuer '{}', reusing key '{}'", issuer, keyId, e);
+      jwk = knownJwk;
+    } catch (SigningKeyNotFoundException e) {
+      // forget a key the issuer rotated out
+      knownKeys.invalidate(issuerKey);
+      throw e;
+    }
 
     if (!"RSA".equalsIgnoreCase(jwk.getPublicKey().getAlgorithm())) {
       throw new OAuthInvalidRequestException(ErrorCode.ABORTED,
@@ -49,6 +170,7 @@ public class JwksOperations {
     }
 
     Algorithm algorithm = algorithmForJwk(jwk);
+    knownKeys.put(issuerKey, jwk);
 
     return JWT.require(algorithm).withIssuer(issuer).build();
   }
@@ -95,7 +217,6 @@ public class JwksOperations {
               .join()
               .contentUtf8();
 
-      // TODO: We should cache this. No need to fetch it each time.
       Map<String, Object> configMap = mapper.readValue(response, new TypeReference<>() {});
 
       if (configMap == null || configMap.isEmpty()) {
@@ -113,7 +234,8 @@ public class JwksOperations {
         throw new OAuthInvalidRequestException(ErrorCode.ABORTED, "JWKS configuration missing");
       }
 
-      // TODO: Or maybe just cache the provider for reuse.
+      // the provider is cached by the caller and verifiers are cached per key, so the provider
+      // itself fetches the key set on every call to pick up rotated keys
       return new JwkProviderBuilder(new URL(configJwksUri)).cached(false).build();
     }
   }
@@ -0,0 +1,249 @@
+package io.unitycatalog.server.utils;
+
+import com.fasterxml.jackson.databind.node.ValueNode;
+import com.unboundid.scim2.common.Path;
+import com.unboundid.scim2.common.exceptions.ScimException;
+import com.unboundid.scim2.common.filters.AndFilter;
+import com.unboundid.scim2.common.filters.ComplexValueFilter;
+import com.unboundid.scim2.common.filters.ContainsFilter;
+import com.unboundid.scim2.common.filters.EndsWithFilter;
+import com.unboundid.scim2.common.filters.EqualFilter;
+import com.unboundid.scim2.common.filters.Filter;
+import com.unboundid.scim2.common.filters.FilterVisitor;
+import com.unboundid.scim2.common.filters.GreaterThanFilter;
+import com.unboundid.scim2.common.filters.GreaterThanOrEqualFilter;
+import com.unboundid.scim2.common.filters.LessThanFilter;
+import com.unboundid.scim2.common.filters.LessThanOrEqualFilter;
+import com.unboundid.scim2.common.filters.NotEqualFilter;
+import com.unboundid.scim2.common.filters.NotFilter;
+import com.unboundid.scim2.common.filters.OrFilter;
+import com.unboundid.scim2.common.filters.PresentFilter;
+import com.unboundid.scim2.common.filters.StartsWithFilter;
+import io.unitycatalog.control.model.User;
+import io.unitycatalog.server.persist.UserRepository.UserFilter;
+import io.unitycatalog.server.persist.dao.UserDAO;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Translates SCIM user filters into filters the database evaluates.
+ *
+ * <p>The filters identity providers send when syncing users are supported: {@code eq}, {@code sw},
+ * {@code co} and {@code ew} on {@code userName}, {@code emails.value} (also as {@code
+ * emails[value ...]}) and {@code externalId}, {@code eq} on {@code active}, and any {@code and} and
+ * {@code or} of those. As in the SCIM core schema, user names and emails are compared ignoring
+ * case, against the lower-cased email the users are stored with, and external ids are compared
+ * case-sensitively, so that both can use their indexes. Other filters are not translated and left
+ * to be evaluated in memory.
+ */
+public class Scim2UserFilters implements FilterVisitor<UserFilter, String> {
+
+  private static final Scim2UserFilters INSTANCE = new Scim2UserFilters();
+
+  private static final String USER_SCHEMA_URN = "urn:ietf:params:scim:schemas:core:2.0:User";
+  private static final String EMAILS = "emails";
+  private static final char LIKE_ESCAPE = '\\';
+
+  private enum Attribute {
+    EMAIL,
+    EXTERNAL_ID,
+    ACTIVE
+  }
+
+  private Scim2UserFilters() {}
+
+  /**
+   * Translate a SCIM filter on users.
+   *
+   * @param filter The SCIM filter
+   * @return The translated filter, or empty if the filter is not supported by the database
+   */
+  public static Optional<UserFilter> toUserFilter(Filter filter) {
+    try {
+      return Optional.ofNullable(filter.visit(INSTANCE, null));
+    } catch (ScimException e) {
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public UserFilter visit(EqualFilter filter, String parent) {
+    Attribute attribute = resolve(filter.getAttributePath(), parent);
+    ValueNode value = filter.getComparisonValue();
+    if (attribute == Attribute.ACTIVE) {
+      if (value == null || !value.isBoolean()) {
+        return null;
+      }
+      boolean active = value.booleanValue();
+      return (root, cb) -> {
+        Predicate enabled = cb.equal(root.get("state"), User.StateEnum.ENABLED.toString());
+        return active ? enabled : cb.not(enabled);
+      };
+    }
+    String text = text(attribute, value);
+    if (text == null) {
+      return null;
+    }
+    return (root, cb) -> cb.equal(column(attribute, root), text);
+  }
+
+  @Override
+  public UserFilter visit(StartsWithFilter filter, String parent) {
+    return like(resolve(filter.getAttributePath(), parent), filter.getComparisonValue(), false, true);
+  }
+
+  @Override
+  public UserFilter visit(ContainsFilter filter, String parent) {
+    return like(resolve(filter.getAttributePath(), parent), filter.getComparisonValue(), true, true);
+  }
+
+  @Override
+  public UserFilter visit(EndsWithFilter filter, String parent) {
+    return like(resolve(filter.getAttributePath(), parent), filter.getComparisonValue(), true, false);
+  }
+
+  @Override
+  public UserFilter visit(AndFilter filter, String parent) throws ScimException {
+    List<UserFilter> filters = visitAll(filter.getCombinedFilters(), parent);
+    if (filters == null) {
+      return null;
+    }
+    return (root, cb) ->
+        cb.and(filters.stream().map(f -> f.toPredicate(root, cb)).toArray(Predicate[]::new));
+  }
+
+  @Override
+  public UserFilter visit(OrFilter filter, String parent) throws ScimException {
+    List<UserFilter> filters = visitAll(filter.getCombinedFilters(), parent);
+    if (filters == null) {
+      return null;
+    }
+    return (root, cb) ->
+        cb.or(filters.stream().map(f -> f.toPredicate(root, cb)).toArray(Predicate[]::new));
+  }
+
+  @Override
+  public UserFilter visit(ComplexValueFilter filter, String parent) throws ScimException {
+    Path path = filter.getAttributePath();
+    if (parent != null
+        || !isUserSchema(path)
+        || path.size() != 1
+        || path.getElement(0).getValueFilter() != null
+        || !path.getElement(0).getAttribute().equalsIgnoreCase(EMAILS)) {
+      return null;
+    }
+    return filter.getValueFilter().visit(this, EMAILS);
+  }
+
+  // Negations and ordering comparisons are rare in provisioning and differ from SQL on missing
+  // values, so they are left to the in-memory evaluation
+
+  @Override
+  public UserFilter visit(NotEqualFilter filter, String parent) {
+    return null;
+  }
+
+  @Override
+  public UserFilter visit(PresentFilter filter, String parent) {
+    return null;
+  }
+
+  @Override
+  public UserFilter visit(GreaterThanFilter filter, String parent) {
+    return null;
+  }
+
+  @Override
+  public UserFilter visit(GreaterThanOrEqualFilter filter, String parent) {
+    return null;
+  }
+
+  @Override
+  public UserFilter visit(LessThanFilter filter, String parent) {
+    return null;
+  }
+
+  @Override
+  public UserFilter visit(LessThanOrEqualFilter filter, String parent) {
+    return null;
+  }
+
+  @Override
+  public UserFilter visit(NotFilter filter, String parent) {
+    return null;
+  }
+
+  private List<UserFilter> visitAll(List<Filter> filters, String parent) throws ScimException {
+    List<UserFilter> userFilters = new ArrayList<>();
+    for (Filter filter : filters) {
+      UserFilter userFilter = filter.visit(this, parent);
+      if (userFilter == null) {
+        return null;
+      }
+      userFilters.add(userFilter);
+    }
+    return userFilters;
+  }
+
+  private static UserFilter like(
+      Attribute attribute, ValueNode value, boolean anyPrefix, boolean anySuffix) {
+    String text = text(attribute, value);
+    if (text == null) {
+      return null;
+    }
+    String pattern =
+        (anyPrefix ? "%" : "")
+            + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_")
+            + (anySuffix ? "%" : "");
+    return (root, cb) -> cb.like(column(attribute, root), pattern, LIKE_ESCAPE);
+  }
+
+  /** The comparison value of a string attribute, lower cased if the attribute ignores case. */
+  private static String text(Attribute attribute, ValueNode value) {
+    if (value == null || !value.isTextual()) {
+      return null;
+    }
+    if (attribute == Attribute.EMAIL) {
+      return value.textValue().toLowerCase(Locale.ROOT);
+    } else if (attribute == Attribute.EXTERNAL_ID) {
+      return value.textValue();
+    }
+    return null;
+  }
+
+  private static Expression<String> column(Attribute attribute, Root<UserDAO> root) {
+    return attribute == Attribute.EMAIL ? root.get("emailLower") : root.get("externalId");
+  }
+
+  /** Resolve the attribute of a comparison, relative to the complex attribute it is nested in. */
+  private static Attribute resolve(Path path, String parent) {
+    if (!isUserSchema(path)) {
+      return null;
+    }
+    StringBuilder name = new StringBuilder(parent == null ? "" : parent);
+    for (Path.Element element : path) {
+      if (element.getValueFilter() != null) {
+        return null;
+      }
+      if (!name.isEmpty()) {
+        name.append('.');
+      }
+      name.append(element.getAttribute());
+    }
+    return switch (name.toString().toLowerCase(Locale.ROOT)) {
+      case "username", "emails.value" -> Attribute.EMAIL;
+      case "externalid" -> Attribute.EXTERNAL_ID;
+      case "active" -> Attribute.ACTIVE;
+      default -> null;
+    };
+  }
+
+  private static boolean isUserSchema(Path path) {
+    return path.getSchemaUrn() == null || path.getSchemaUrn().equalsIgnoreCase(USER_SCHEMA_URN);
+  }
+}
@@ -1,15 +1,32 @@
 package io.unitycatalog.server.utils;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.unboundid.scim2.common.Path;
+import com.unboundid.scim2.common.exceptions.BadRequestException;
+import com.unboundid.scim2.common.exceptions.PreconditionFailedException;
+import com.unboundid.scim2.common.messages.PatchOpType;
+import com.unboundid.scim2.common.messages.PatchOperation;
+import com.unboundid.scim2.common.messages.PatchRequest;
 import com.unboundid.scim2.common.types.Email;
 import com.unboundid.scim2.common.types.Meta;
 import com.unboundid.scim2.common.types.Photo;
 import com.unboundid.scim2.common.types.UserResource;
+import com.unboundid.scim2.common.utils.JsonUtils;
 import io.unitycatalog.control.model.User;
+import io.unitycatalog.server.exception.Scim2RuntimeException;
+import io.unitycatalog.server.persist.model.CreateUser;
+import io.unitycatalog.server.persist.model.UpdateUser;
 import java.net.URI;
 import java.util.Calendar;
 import java.util.List;
+import java.util.Optional;
 
 public class Scim2Utils {
+  private static final String ACTIVE = "active";
+  private static final String OPERATIONS = "Operations";
+
   public static UserResource asUserResource(User user) {
     Meta meta = new Meta();
     Calendar created = Calendar.getInstance();
@@ -42,4 +59,83 @@ public class Scim2Utils {
 
     return userResource;
   }
+
+  /** The user to create for a SCIM user resource, which must have a primary email. */
+  public static CreateUser asCreateUser(UserResource userResource) {
+    // Get primary email address
+    Email primaryEmail =
+        Optional.ofNullable(userResource.getEmails()).orElse(List.of()).stream()
+            .filter(email -> Boolean.TRUE.equals(email.getPrimary()))
+            .findFirst()
+            .orElseThrow(
+                () ->
+                    new Scim2RuntimeException(
+                        new PreconditionFailedException("User does not have a primary email.")));
+
+    String pictureUrl = "";
+    if (userResource.getPhotos() != null && !userResource.getPhotos().isEmpty()) {
+      pictureUrl = userResource.getPhotos().get(0).getValue().toString();
+    }
+    return CreateUser.builder()
+        .name(userResource.getDisplayName())
+        .email(primaryEmail.getValue())
+        .active(userResource.getActive())
+        .externalId(userResource.getExternalId())
+        .pictureUrl(pictureUrl)
+        .build();
+  }
+
+  /**
+   * Read a SCIM patch request on a user. A replacement without a path is expected to carry an
+   * object with the attributes to replace, but some identity providers send the bare active state
+   * ({@code {"op": "replace", "value": false}}), so such a value is read as {@code {"active":
+   * false}}.
+   */
+  public static PatchRequest asPatchRequest(JsonNode node) {
+    JsonNode patch = node;
+    if (node.path(OPERATIONS).isArray()) {
+      ObjectNode copy = (ObjectNode) node.deepCopy();
+      for (JsonNode operation : copy.path(OPERATIONS)) {
+        if (operation instanceof ObjectNode op
+            && op.path("op").asText().equalsIgnoreCase("replace")
+            && !op.hasNonNull("path")
+            && op.path("value").isBoolean()) {
+          JsonNode active = op.get("value");
+          op.putObject("value").set(ACTIVE, active);
+        }
+      }
+      patch = copy;
+    }
+    try {
+      return JsonUtils.nodeToValue(patch, PatchRequest.class);
+    } catch (JsonProcessingException e) {
+      throw new Scim2RuntimeException(BadRequestException.invalidSyntax(e.getMessage()));
+    }
+  }
+
+  /**
+   * The update of a user for a SCIM patch request. Only the replacement of the active state of a
+   * user is supported, either without a path as sent by Okta ({@code {"active": false}}) or with
+   * the path {@code active}.
+   *
+   * @return The update, or empty if the patch request is not supported
+   */
+  public static Optional<UpdateUser> asUpdateUser(PatchRequest patchRequest) {
+    for (PatchOperation operation : patchRequest.getOperations()) {
+      if (operation.getOpType() != PatchOpType.REPLACE) {
+        continue;
+      }
+      Path path = operation.getPath();
+      JsonNode value = operation.getJsonNode();
+      if (path == null || path.isRoot()) {
+        value = value.path(ACTIVE);
+      } else if (path.size() != 1 || !path.getElement(0).getAttribute().equalsIgnoreCase(ACTIVE)) {
+        continue;
+      }
+      if (value.isBoolean()) {
+        return Optional.of(UpdateUser.builder().active(value.booleanValue()).build());
+      }
+    }
+    return Optional.empty();
+  }
 }
@@ -69,6 +69,7 @@ public class ServerProperties {
       String accessKey = properties.getProperty("s3.accessKey." + i);
       String secretKey = properties.getProperty("s3.secretKey." + i);
       String sessionToken = properties.getProperty("s3.sessionToken." + i);
+      String stsEndpoint = properties.getProperty("s3.stsEndpoint." + i);
       if ((bucketPath == null || region == null || awsRoleArn == null)
           && (accessKey == null || secretKey == null || sessionToken == null)) {
         break;
@@ -81,6 +82,7 @@ public class ServerProperties {
               .accessKey(accessKey)
               .secretKey(secretKey)
               .sessionToken(sessionToken)
+              .stsEndpoint(stsEndpoint)
               .build();
       s3BucketConfigMap.put(bucketPath, s3StorageConfig);
       i++;
@@ -161,6 +163,21 @@ public class ServerProperties {
     properties.setProperty(property.getKey(), value);
   }
 
+  /**
+   * The JDBC driver properties of the connection pool, given as {@code
+   * server.db.pool.data-source.<name>} properties.
+   */
+  public Map<String, String> getDataSourceProperties() {
+    String prefix = "server.db.pool.data-source.";
+    Map<String, String> dataSourceProperties = new HashMap<>();
+    for (String key : properties.stringPropertyNames()) {
+      if (key.startsWith(prefix)) {
+        dataSourceProperties.put(key.substring(prefix.length()), properties.getProperty(key));
+      }
+    }
+    return dataSourceProperties;
+  }
+
   /**
    * Get a property value by key with a default value
    *
@@ -175,4 +192,34 @@ public class ServerProperties {
     String authorization = getProperty("server.authorization", "disable");
     return authorization.equalsIgnoreCase("enable");
   }
+
+  /**
+   * Whether to use the {@code IndexedAuthorizer} instead of the default {@code JCasbinAuthorizer}.
+   * Both store their policies in the same table, so they can be switched on an existing database.
+   * The indexed authorizer only loads the policies on startup, so it is only suitable for a single
+   * server per database.
+   */
+  public boolean isIndexedAuthorizerEnabled() {
+    String authorizer = getProperty("server.authorizer", "jcasbin");
+    return authorizer.equalsIgnoreCase("indexed");
+  }
+
+  /**
+   * Whether to serve the server metrics in the Prometheus format at {@code /metrics}. When
+   * authorization is enabled, the metrics are only served to authenticated callers.
+   */
+  public boolean isMetricsEnabled() {
+    String metrics = getProperty("server.metrics", "disable");
+    return metrics.equalsIgnoreCase("enable");
+  }
+
+  /**
+   * Whether to start the URL transcoder proxy in front of the server. Without the proxy, the server
+   * transcodes the URLs of plain HTTP/1 connections itself, but not those of HTTP/2 or TLS
+   * connections.
+   */
+  public boolean isURLTranscoderProxyEnabled() {
+    String transcoderProxy = getProperty("server.url-transcoder-proxy", "enable");
+    return transcoderProxy.equalsIgnoreCase("enable");
+  }
 }
@@ -0,0 +1,37 @@
+package io.unitycatalog.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.auth.AuthToken;
+import io.unitycatalog.server.base.auth.BaseAuthCRUDTest;
+import org.junit.jupiter.api.Test;
+
+public class MetricsTest extends BaseAuthCRUDTest {
+
+  @Override
+  protected void setUpProperties() {
+    super.setUpProperties();
+    serverProperties.setProperty("server.metrics", "enable");
+  }
+
+  private AggregatedHttpResponse getMetrics(WebClient client) {
+    return client.get("/metrics").aggregate().join();
+  }
+
+  @Test
+  public void testMetricsRequireAuthentication() {
+    String uri = serverConfig.getServerUrl();
+    assertThat(getMetrics(WebClient.of(uri)).status()).isEqualTo(HttpStatus.UNAUTHORIZED);
+
+    WebClient client =
+        WebClient.builder(uri)
+            .auth(AuthToken.ofOAuth2(securityContext.createServiceToken()))
+            .build();
+    AggregatedHttpResponse response = getMetrics(client);
+    assertThat(response.status()).isEqualTo(HttpStatus.OK);
+    assertThat(response.contentUtf8()).contains("hikaricp_connections");
+  }
+}
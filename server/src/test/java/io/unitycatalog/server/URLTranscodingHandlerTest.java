@@ -0,0 +1,111 @@
+package io.unitycatalog.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.linecorp.armeria.server.Server;
+import com.linecorp.armeria.server.annotation.Get;
+import com.linecorp.armeria.server.annotation.Param;
+import com.linecorp.armeria.server.annotation.Post;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class URLTranscodingHandlerTest {
+  private Server server;
+  // Armeria's own client rejects the separator too, so requests are sent with the JDK client
+  private final HttpClient client =
+      HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+  public static class EchoService {
+    @Get("/tables/{full_name}")
+    public String getTable(
+        @Param("full_name") String fullName, @Param("filter") Optional<String> filter) {
+      return fullName + "|" + filter.orElse("");
+    }
+
+    @Post("/tables/{full_name}")
+    public String updateTable(@Param("full_name") String fullName, String body) {
+      return fullName + "|" + body;
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    server =
+        Server.builder()
+            .http(0)
+            .annotatedService(new EchoService())
+            .childChannelPipelineCustomizer(URLTranscodingHandler::addTo)
+            .build();
+    server.start().join();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop().join();
+  }
+
+  private String send(HttpRequest.Builder request, String path) throws Exception {
+    HttpResponse<String> response =
+        client.send(
+            request.uri(URI.create("http://127.0.0.1:" + server.activeLocalPort() + path)).build(),
+            HttpResponse.BodyHandlers.ofString());
+    assertThat(response.statusCode()).isEqualTo(200);
+    return response.body();
+  }
+
+  private String get(String path) throws Exception {
+    return send(HttpRequest.newBuilder().GET(), path);
+  }
+
+  @Test
+  void testSeparatorsAreTranscoded() throws Exception {
+    assertThat(get("/tables/catalog%1Fschema%1Ftable")).isEqualTo("catalog.schema.table|");
+    assertThat(get("/tables/catalog%1fschema%1ftable?filter=a%1Fb"))
+        .isEqualTo("catalog.schema.table|a.b");
+    // the body is passed through as is
+    assertThat(
+            send(
+                HttpRequest.newBuilder().POST(HttpRequest.BodyPublishers.ofString("a%1Fb")),
+                "/tables/catalog%1Fschema%1Ftable"))
+        .isEqualTo("catalog.schema.table|a%1Fb");
+  }
+
+  @Test
+  void testOtherRequestsAreUnchanged() throws Exception {
+    assertThat(get("/tables/catalog.schema.table?filter=a%20b"))
+        .isEqualTo("catalog.schema.table|a b");
+  }
+
+  @Test
+  void testShortFirstReadsAreTranscoded() throws Exception {
+    // the request arrives in pieces shorter than the bytes needed to detect the protocol
+    try (Socket socket = new Socket("127.0.0.1", server.activeLocalPort())) {
+      socket.setTcpNoDelay(true);
+      OutputStream out = socket.getOutputStream();
+      for (String piece :
+          new String[] {
+            "GE",
+            "T",
+            " /tables/catalog%1Fschema%1Ftable HTTP/1.1\r\n"
+                + "Host: localhost\r\nConnection: close\r\n\r\n"
+          }) {
+        out.write(piece.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        Thread.sleep(100);
+      }
+      InputStream in = socket.getInputStream();
+      String response = new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+      assertThat(response).startsWith("HTTP/1.1 200").endsWith("catalog.schema.table|");
+    }
+  }
+}
@@ -0,0 +1,329 @@
+package io.unitycatalog.server.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.unitycatalog.server.exception.BaseException;
+import io.unitycatalog.server.persist.model.Privileges;
+import io.unitycatalog.server.persist.utils.HibernateConfigurator;
+import io.unitycatalog.server.utils.ServerProperties;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.casbin.adapter.JDBCAdapter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class IndexedAuthorizerTest {
+  private HibernateConfigurator hibernateConfigurator;
+  private IndexedAuthorizer authorizer;
+  // writes of rules mentioning any of these ids fail
+  private final Set<String> failingIds = ConcurrentHashMap.newKeySet();
+
+  private class FailingAdapter extends JDBCAdapter {
+    FailingAdapter(Properties properties) throws Exception {
+      super(
+          properties.getProperty("hibernate.connection.driver_class"),
+          properties.getProperty("hibernate.connection.url"),
+          properties.getProperty("hibernate.connection.user"),
+          properties.getProperty("hibernate.connection.password"));
+    }
+
+    private void check(List<String> rule) {
+      if (rule.stream().anyMatch(failingIds::contains)) {
+        throw new IllegalStateException("Failed to write " + rule);
+      }
+    }
+
+    @Override
+    public void addPolicies(String sec, String ptype, List<List<String>> rules) {
+      rules.forEach(this::check);
+      super.addPolicies(sec, ptype, rules);
+    }
+
+    @Override
+    public void removePolicies(String sec, String ptype, List<List<String>> rules) {
+      rules.forEach(this::check);
+      super.removePolicies(sec, ptype, rules);
+    }
+
+    @Override
+    public void removeFilteredPolicy(
+        String sec, String ptype, int fieldIndex, String... fieldValues) {
+      check(List.of(fieldValues));
+      super.removeFilteredPolicy(sec, ptype, fieldIndex, fieldValues);
+    }
+  }
+
+  @BeforeEach
+  void setUp() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("server.env", "test");
+    ServerProperties serverProperties = new ServerProperties(properties);
+    hibernateConfigurator = new HibernateConfigurator(serverProperties);
+    authorizer =
+        new IndexedAuthorizer(new FailingAdapter(hibernateConfigurator.getHibernateProperties()));
+  }
+
+  /** The authorizer loaded from the persisted policies. */
+  private IndexedAuthorizer reload() throws Exception {
+    return new IndexedAuthorizer(hibernateConfigurator);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    authorizer.close();
+  }
+
+  @Test
+  void testGrantAndRevokeAuthorization() {
+    UUID principal = UUID.randomUUID();
+    UUID resource = UUID.randomUUID();
+
+    assertThat(authorizer.grantAuthorization(principal, resource, Privileges.SELECT)).isTrue();
+    assertThat(authorizer.grantAuthorization(principal, resource, Privileges.SELECT)).isFalse();
+    assertThat(authorizer.authorize(principal, resource, Privileges.SELECT)).isTrue();
+    assertThat(authorizer.authorize(principal, resource, Privileges.MODIFY)).isFalse();
+    assertThat(authorizer.revokeAuthorization(principal, resource, Privileges.SELECT)).isTrue();
+    assertThat(authorizer.revokeAuthorization(principal, resource, Privileges.SELECT)).isFalse();
+    assertThat(authorizer.authorize(principal, resource, Privileges.SELECT)).isFalse();
+    assertThat(authorizer.listAuthorizations(resource)).isEmpty();
+  }
+
+  @Test
+  void testHierarchy() {
+    UUID principal = UUID.randomUUID();
+    UUID catalog = UUID.randomUUID();
+    UUID schema = UUID.randomUUID();
+    UUID table = UUID.randomUUID();
+
+    authorizer.addHierarchyChild(catalog, schema);
+    authorizer.addHierarchyChild(schema, table);
+    authorizer.grantAuthorization(principal, catalog, Privileges.SELECT);
+    authorizer.grantAuthorization(principal, catalog, Privileges.OWNER);
+    assertThat(authorizer.getHierarchyParent(table)).isEqualTo(schema);
+    assertThat(authorizer.authorize(principal, table, Privileges.SELECT)).isTrue();
+    // ownership is not inherited
+    assertThat(authorizer.authorize(principal, table, Privileges.OWNER)).isFalse();
+    assertThat(authorizer.authorizeAny(principal, table, Privileges.OWNER, Privileges.SELECT))
+        .isTrue();
+    assertThat(authorizer.authorizeAll(principal, table, Privileges.OWNER, Privileges.SELECT))
+        .isFalse();
+
+    authorizer.removeHierarchyChild(schema, table);
+    assertThat(authorizer.getHierarchyParent(table)).isNull();
+    assertThat(authorizer.authorize(principal, table, Privileges.SELECT)).isFalse();
+    authorizer.removeHierarchyChildren(catalog);
+    assertThat(authorizer.authorize(principal, schema, Privileges.SELECT)).isFalse();
+  }
+
+  @Test
+  void testClearAuthorizations() {
+    UUID principal = UUID.randomUUID();
+    UUID principal2 = UUID.randomUUID();
+    UUID resource = UUID.randomUUID();
+    UUID resource2 = UUID.randomUUID();
+
+    authorizer.grantAuthorization(principal, resource, Privileges.USE_CATALOG);
+    authorizer.grantAuthorization(principal, resource2, Privileges.USE_CATALOG);
+    authorizer.grantAuthorization(principal2, resource, Privileges.USE_CATALOG);
+    authorizer.grantAuthorization(principal2, resource, Privileges.CREATE_SCHEMA);
+    assertThat(authorizer.listAuthorizations(resource))
+        .isEqualTo(
+            Map.of(
+                principal,
+                List.of(Privileges.USE_CATALOG),
+                principal2,
+                List.of(Privileges.USE_CATALOG, Privileges.CREATE_SCHEMA)));
+
+    assertThat(authorizer.clearAuthorizationsForPrincipal(principal)).isTrue();
+    assertThat(authorizer.authorize(principal, resource2, Privileges.USE_CATALOG)).isFalse();
+    assertThat(authorizer.listAuthorizations(resource)).containsOnlyKeys(principal2);
+    assertThat(authorizer.clearAuthorizationsForResource(resource)).isTrue();
+    assertThat(authorizer.listAuthorizations(principal2, resource)).isEmpty();
+  }
+
+  @Test
+  void testAuthorizeBatch() {
+    UUID principal = UUID.randomUUID();
+    UUID schema = UUID.randomUUID();
+    UUID table = UUID.randomUUID();
+    UUID table2 = UUID.randomUUID();
+    UUID table3 = UUID.randomUUID();
+
+    authorizer.addHierarchyChild(schema, table3);
+    authorizer.grantAuthorization(principal, table, Privileges.OWNER);
+    authorizer.grantAuthorization(principal, schema, Privileges.MODIFY);
+    assertThat(
+            authorizer.authorizeBatch(
+                principal, List.of(table, table2, table3), Privileges.OWNER, Privileges.MODIFY))
+        .containsExactlyInAnyOrder(table, table3);
+  }
+
+  @Test
+  void testPoliciesArePersisted() throws Exception {
+    UUID principal = UUID.randomUUID();
+    UUID catalog = UUID.randomUUID();
+    UUID schema = UUID.randomUUID();
+    UUID other = UUID.randomUUID();
+
+    authorizer.grantAuthorization(principal, catalog, Privileges.USE_CATALOG);
+    authorizer.grantAuthorization(principal, catalog, Privileges.OWNER);
+    authorizer.grantAuthorization(principal, other, Privileges.SELECT);
+    authorizer.revokeAuthorization(principal, catalog, Privileges.OWNER);
+    authorizer.clearAuthorizationsForResource(other);
+    authorizer.addHierarchyChild(catalog, schema);
+    authorizer.flush();
+
+    IndexedAuthorizer reloaded = reload();
+    try {
+      assertThat(reloaded.listAuthorizations(principal, catalog))
+          .containsExactly(Privileges.USE_CATALOG);
+      assertThat(reloaded.listAuthorizations(other)).isEmpty();
+      assertThat(reloaded.getHierarchyParent(schema)).isEqualTo(catalog);
+    } finally {
+      reloaded.close();
+    }
+    // the policies are stored in the same format as the JCasbinAuthorizer
+    JCasbinAuthorizer jcasbin = new JCasbinAuthorizer(hibernateConfigurator);
+    assertThat(jcasbin.authorize(principal, schema, Privileges.USE_CATALOG)).isTrue();
+    assertThat(jcasbin.authorize(principal, catalog, Privileges.OWNER)).isFalse();
+  }
+
+  @Test
+  void testResourcesWithSeveralParents() {
+    UUID principal = UUID.randomUUID();
+    UUID parent = UUID.randomUUID();
+    UUID parent2 = UUID.randomUUID();
+    UUID child = UUID.randomUUID();
+
+    // like the JCasbinAuthorizer, adding a parent keeps the existing ones
+    assertThat(authorizer.addHierarchyChild(parent, child)).isTrue();
+    assertThat(authorizer.addHierarchyChild(parent2, child)).isTrue();
+    assertThat(authorizer.addHierarchyChild(parent2, child)).isFalse();
+    authorizer.grantAuthorization(principal, parent2, Privileges.SELECT);
+    assertThat(authorizer.getHierarchyParent(child)).isEqualTo(parent);
+    assertThat(authorizer.authorize(principal, child, Privileges.SELECT)).isTrue();
+
+    authorizer.removeHierarchyChild(parent, child);
+    assertThat(authorizer.getHierarchyParent(child)).isEqualTo(parent2);
+    authorizer.removeHierarchyChildren(parent2);
+    assertThat(authorizer.getHierarchyParent(child)).isNull();
+    assertThat(authorizer.authorize(principal, child, Privileges.SELECT)).isFalse();
+  }
+
+  @Test
+  void testRevokesArePersistedBeforeReturning() throws Exception {
+    UUID principal = UUID.randomUUID();
+    UUID catalog = UUID.randomUUID();
+    UUID schema = UUID.randomUUID();
+
+    authorizer.grantAuthorization(principal, catalog, Privileges.USE_CATALOG);
+    authorizer.grantAuthorization(principal, schema, Privileges.USE_SCHEMA);
+    authorizer.addHierarchyChild(catalog, schema);
+    authorizer.flush();
+    authorizer.revokeAuthorization(principal, catalog, Privileges.USE_CATALOG);
+    authorizer.clearAuthorizationsForResource(schema);
+    authorizer.removeHierarchyChild(catalog, schema);
+
+    // no flush, the revokes are already stored
+    JCasbinAuthorizer jcasbin = new JCasbinAuthorizer(hibernateConfigurator);
+    assertThat(jcasbin.listAuthorizations(principal, catalog)).isEmpty();
+    assertThat(jcasbin.listAuthorizations(principal, schema)).isEmpty();
+    assertThat(jcasbin.getHierarchyParent(schema)).isNull();
+  }
+
+  @Test
+  void testFailedRevokesAreUndone() throws Exception {
+    UUID principal = UUID.randomUUID();
+    UUID catalog = UUID.randomUUID();
+    UUID schema = UUID.randomUUID();
+
+    authorizer.grantAuthorization(principal, catalog, Privileges.USE_CATALOG);
+    authorizer.grantAuthorization(principal, schema, Privileges.USE_SCHEMA);
+    authorizer.addHierarchyChild(catalog, schema);
+    authorizer.flush();
+
+    failingIds.add(catalog.toString());
+    assertThatThrownBy(
+            () -> authorizer.revokeAuthorization(principal, catalog, Privileges.USE_CATALOG))
+        .isInstanceOf(BaseException.class);
+    assertThatThrownBy(() -> authorizer.clearAuthorizationsForResource(catalog))
+        .isInstanceOf(BaseException.class);
+    assertThatThrownBy(() -> authorizer.removeHierarchyChildren(catalog))
+        .isInstanceOf(BaseException.class);
+    // the indexes still agree with the database
+    assertThat(authorizer.authorize(principal, catalog, Privileges.USE_CATALOG)).isTrue();
+    assertThat(authorizer.getHierarchyParent(schema)).isEqualTo(catalog);
+
+    failingIds.clear();
+    assertThat(authorizer.revokeAuthorization(principal, catalog, Privileges.USE_CATALOG)).isTrue();
+    assertThat(authorizer.removeHierarchyChild(catalog, schema)).isTrue();
+    IndexedAuthorizer reloaded = reload();
+    try {
+      assertThat(reloaded.listAuthorizations(principal, catalog)).isEmpty();
+      assertThat(reloaded.listAuthorizations(principal, schema))
+          .containsExactly(Privileges.USE_SCHEMA);
+      assertThat(reloaded.getHierarchyParent(schema)).isNull();
+    } finally {
+      reloaded.close();
+    }
+  }
+
+  @Test
+  void testFailingWritesAreSetAside() throws Exception {
+    UUID principal = UUID.randomUUID();
+    UUID failing = UUID.randomUUID();
+    UUID resource = UUID.randomUUID();
+    UUID resource2 = UUID.randomUUID();
+    UUID resource3 = UUID.randomUUID();
+
+    // the grants of the batch with the failing one are retried one by one
+    failingIds.add(failing.toString());
+    authorizer.grantAuthorization(principal, failing, Privileges.SELECT);
+    authorizer.grantAuthorization(principal, resource, Privileges.SELECT);
+    authorizer.flush();
+    authorizer.grantAuthorization(principal, resource2, Privileges.SELECT);
+    authorizer.flush();
+    // a failing grant does not hold back a revoke
+    authorizer.grantAuthorization(principal, failing, Privileges.MODIFY);
+    authorizer.flush();
+    assertThat(authorizer.revokeAuthorization(principal, resource2, Privileges.SELECT)).isTrue();
+    authorizer.grantAuthorization(principal, resource3, Privileges.SELECT);
+    authorizer.flush();
+
+    IndexedAuthorizer reloaded = reload();
+    try {
+      assertThat(reloaded.listAuthorizations(principal, failing)).isEmpty();
+      assertThat(reloaded.listAuthorizations(principal, resource))
+          .containsExactly(Privileges.SELECT);
+      assertThat(reloaded.listAuthorizations(principal, resource2)).isEmpty();
+      assertThat(reloaded.listAuthorizations(principal, resource3))
+          .containsExactly(Privileges.SELECT);
+    } finally {
+      reloaded.close();
+    }
+  }
+
+  @Test
+  void testWritesAreKeptWhileTheDatabaseFails() throws Exception {
+    UUID principal = UUID.randomUUID();
+    UUID resource = UUID.randomUUID();
+
+    failingIds.add(principal.toString());
+    authorizer.grantAuthorization(principal, resource, Privileges.SELECT);
+    authorizer.grantAuthorization(principal, resource, Privileges.MODIFY);
+    authorizer.flush();
+    authorizer.flush();
+    failingIds.clear();
+    authorizer.flush();
+
+    IndexedAuthorizer reloaded = reload();
+    try {
+      assertThat(reloaded.listAuthorizations(principal, resource))
+          .containsExactlyInAnyOrder(Privileges.SELECT, Privileges.MODIFY);
+    } finally {
+      reloaded.close();
+    }
+  }
+}
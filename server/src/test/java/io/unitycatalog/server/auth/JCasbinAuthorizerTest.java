@@ -103,6 +103,23 @@ public class JCasbinAuthorizerTest {
     assertThat(authenticator.authorize(principal, schema, action)).isFalse();
   }
 
+  @Test
+  void testCachedDecisionsFollowPolicyChanges() {
+    UUID principal = UUID.randomUUID();
+    UUID catalog = UUID.randomUUID();
+    UUID schema = UUID.randomUUID();
+    Privileges action = Privileges.SELECT;
+
+    authenticator.grantAuthorization(principal, catalog, action);
+    assertThat(authenticator.authorize(principal, schema, action)).isFalse();
+    authenticator.addHierarchyChild(catalog, schema);
+    assertThat(authenticator.authorize(principal, schema, action)).isTrue();
+    assertThat(authenticator.authorize(principal, schema, action)).isTrue();
+    authenticator.clearAuthorizationsForResource(catalog);
+    assertThat(authenticator.authorize(principal, schema, action)).isFalse();
+    assertThat(authenticator.authorize(principal, catalog, action)).isFalse();
+  }
+
   @Test
   void testAuthorizeAny() {
     UUID principal = UUID.randomUUID();
@@ -0,0 +1,127 @@
+package io.unitycatalog.server.auth.decorator;
+
+import static io.unitycatalog.server.model.SecurableType.CATALOG;
+import static io.unitycatalog.server.model.SecurableType.METASTORE;
+import static io.unitycatalog.server.model.SecurableType.SCHEMA;
+import static io.unitycatalog.server.model.SecurableType.TABLE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import io.unitycatalog.server.exception.BaseException;
+import io.unitycatalog.server.model.CatalogInfo;
+import io.unitycatalog.server.model.ColumnInfo;
+import io.unitycatalog.server.model.ColumnTypeName;
+import io.unitycatalog.server.model.CreateCatalog;
+import io.unitycatalog.server.model.CreateSchema;
+import io.unitycatalog.server.model.CreateTable;
+import io.unitycatalog.server.model.DataSourceFormat;
+import io.unitycatalog.server.model.SchemaInfo;
+import io.unitycatalog.server.model.TableInfo;
+import io.unitycatalog.server.model.TableType;
+import io.unitycatalog.server.persist.Repositories;
+import io.unitycatalog.server.persist.utils.HibernateConfigurator;
+import io.unitycatalog.server.utils.ServerProperties;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class KeyMapperTest {
+  private HibernateConfigurator hibernateConfigurator;
+  private Repositories repositories;
+  private KeyMapper keyMapper;
+  private UUID catalogId;
+  private UUID schemaId;
+  private UUID tableId;
+
+  @BeforeEach
+  void setUp() {
+    Properties properties = new Properties();
+    properties.setProperty("server.env", "test");
+    ServerProperties serverProperties = new ServerProperties(properties);
+    hibernateConfigurator = new HibernateConfigurator(serverProperties);
+    repositories = new Repositories(hibernateConfigurator.getSessionFactory(), serverProperties);
+    repositories.getMetastoreRepository().initMetastoreIfNeeded();
+    keyMapper = new KeyMapper(repositories);
+
+    ServiceRequestContext ctx = ServiceRequestContext.of(HttpRequest.of(HttpMethod.POST, "/"));
+    try (SafeCloseable ignored = ctx.push()) {
+      CatalogInfo catalog =
+          repositories.getCatalogRepository().addCatalog(new CreateCatalog().name("cat"));
+      SchemaInfo schema =
+          repositories
+              .getSchemaRepository()
+              .createSchema(new CreateSchema().name("sch").catalogName("cat"));
+      TableInfo table =
+          repositories
+              .getTableRepository()
+              .createTable(
+                  new CreateTable()
+                      .name("tbl")
+                      .catalogName("cat")
+                      .schemaName("sch")
+                      .columns(
+                          List.of(
+                              new ColumnInfo()
+                                  .name("id")
+                                  .typeText("int")
+                                  .typeJson("{\"type\": \"integer\"}")
+                                  .typeName(ColumnTypeName.INT)
+                                  .position(0)))
+                      .storageLocation("/tmp/cat/sch/tbl")
+                      .tableType(TableType.EXTERNAL)
+                      .dataSourceFormat(DataSourceFormat.DELTA));
+      catalogId = UUID.fromString(catalog.getId());
+      schemaId = UUID.fromString(schema.getSchemaId());
+      tableId = UUID.fromString(table.getTableId());
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    hibernateConfigurator.getSessionFactory().close();
+  }
+
+  @Test
+  void testMapTableKeys() {
+    Map<Object, Object> expected = Map.of(CATALOG, catalogId, SCHEMA, schemaId, TABLE, tableId);
+
+    assertThat(keyMapper.mapResourceKeys(Map.of(CATALOG, "cat", SCHEMA, "sch", TABLE, "tbl")))
+        .isEqualTo(expected);
+    assertThat(keyMapper.mapResourceKeys(Map.of(TABLE, "cat.sch.tbl"))).isEqualTo(expected);
+    assertThat(keyMapper.mapResourceKeys(Map.of(TABLE, tableId.toString()))).isEqualTo(expected);
+  }
+
+  @Test
+  void testMapSchemaAndCatalogKeys() {
+    assertThat(keyMapper.mapResourceKeys(Map.of(SCHEMA, "cat.sch")))
+        .isEqualTo(Map.of(CATALOG, catalogId, SCHEMA, schemaId));
+    assertThat(keyMapper.mapResourceKeys(Map.of(CATALOG, "cat", METASTORE, "metastore")))
+        .isEqualTo(
+            Map.of(
+                CATALOG,
+                catalogId,
+                METASTORE,
+                repositories.getMetastoreRepository().getMetastoreId()));
+  }
+
+  @Test
+  void testUnknownResources() {
+    assertThatThrownBy(() -> keyMapper.mapResourceKeys(Map.of(TABLE, "cat.sch.missing")))
+        .isInstanceOf(BaseException.class)
+        .hasMessageContaining("Table not found: cat.sch.missing");
+    assertThatThrownBy(() -> keyMapper.mapResourceKeys(Map.of(TABLE, UUID.randomUUID().toString())))
+        .isInstanceOf(BaseException.class)
+        .hasMessageContaining("Table not found");
+    assertThatThrownBy(() -> keyMapper.mapResourceKeys(Map.of(SCHEMA, "cat.missing")))
+        .isInstanceOf(BaseException.class)
+        .hasMessageContaining("Schema not found");
+  }
+}
@@ -0,0 +1,212 @@
+package io.unitycatalog.server.auth.decorator;
+
+import static io.unitycatalog.server.model.SecurableType.CATALOG;
+import static io.unitycatalog.server.model.SecurableType.SCHEMA;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.MediaType;
+import io.unitycatalog.server.exception.BaseException;
+import io.unitycatalog.server.exception.ErrorCode;
+import io.unitycatalog.server.model.SecurableType;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class PeekDataHandlerTest {
+
+  private static final List<KeyLocator> FUNCTION_LOCATORS =
+      List.of(
+          payloadLocator(CATALOG, "function_info.catalog_name"),
+          payloadLocator(SCHEMA, "function_info.schema_name"));
+
+  private static KeyLocator payloadLocator(SecurableType type, String key) {
+    return KeyLocator.builder().source(KeyLocator.Source.PAYLOAD).type(type).key(key).build();
+  }
+
+  /** Feed the payload in chunks of the given size, returning how often the handler completed. */
+  private static int feed(PeekDataHandler handler, String payload, int chunkSize) {
+    byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+    int completions = 0;
+    for (int i = 0; i < bytes.length; i += chunkSize) {
+      byte[] chunk = Arrays.copyOfRange(bytes, i, Math.min(bytes.length, i + chunkSize));
+      if (handler.processPeekData(HttpData.wrap(chunk))) {
+        completions++;
+      }
+    }
+    return completions;
+  }
+
+  @Test
+  void testNestedKeysInAnyChunking() {
+    String payload =
+        "{\"function_info\": {\"name\": \"f\", \"input_params\": {\"parameters\": "
+            + "[{\"catalog_name\": \"wrong\"}]}, \"catalog_name\": \"cat\", "
+            + "\"schema_name\": \"sch\"}, \"catalog_name\": \"wrong\"}";
+    for (int chunkSize = 1; chunkSize <= payload.length(); chunkSize++) {
+      Map<SecurableType, Object> resourceKeys = new HashMap<>();
+      PeekDataHandler handler =
+          new PeekDataHandler(MediaType.JSON, FUNCTION_LOCATORS, resourceKeys);
+
+      assertThat(feed(handler, payload, chunkSize)).isEqualTo(1);
+      assertThat(resourceKeys).isEqualTo(Map.of(CATALOG, "cat", SCHEMA, "sch"));
+    }
+  }
+
+  @Test
+  void testMissingKeysResolveToNull() {
+    Map<SecurableType, Object> resourceKeys = new HashMap<>();
+    PeekDataHandler handler = new PeekDataHandler(MediaType.JSON, FUNCTION_LOCATORS, resourceKeys);
+
+    assertThat(feed(handler, "{\"function_info\": {\"catalog_name\": \"cat\"}}", 7)).isEqualTo(1);
+    assertThat(resourceKeys).containsEntry(CATALOG, "cat").containsEntry(SCHEMA, null);
+  }
+
+  @Test
+  void testSkipsLargeArraysAndTrailingData() {
+    StringBuilder payload =
+        new StringBuilder("{\"name\": \"t\", \"catalog_name\": \"cat\", \"columns\": [");
+    for (int i = 0; i < 10000; i++) {
+      payload.append(i == 0 ? "" : ",").append("{\"name\": \"col_").append(i).append("\"}");
+    }
+    // a schema_name after the columns is still found
+    payload.append("], \"schema_name\": \"sch\"} trailing garbage");
+    Map<SecurableType, Object> resourceKeys = new HashMap<>();
+    PeekDataHandler handler =
+        new PeekDataHandler(
+            MediaType.JSON,
+            List.of(payloadLocator(CATALOG, "catalog_name"), payloadLocator(SCHEMA, "schema_name")),
+            resourceKeys);
+
+    assertThat(feed(handler, payload.toString(), 8192)).isEqualTo(1);
+    assertThat(resourceKeys).isEqualTo(Map.of(CATALOG, "cat", SCHEMA, "sch"));
+  }
+
+  @Test
+  void testInvalidPayloadsAreRejected() {
+    for (String payload :
+        List.of(
+            "{\"function_info\": }",
+            "[{\"function_info\": {\"catalog_name\": \"cat\"}}]",
+            "\"cat\"",
+            "null")) {
+      Map<SecurableType, Object> resourceKeys = new HashMap<>();
+      PeekDataHandler handler =
+          new PeekDataHandler(MediaType.JSON, FUNCTION_LOCATORS, resourceKeys);
+
+      assertThatThrownBy(
+              () -> {
+                feed(handler, payload, 4);
+                handler.endOfInput();
+              })
+          .as(payload)
+          .isInstanceOf(BaseException.class)
+          .extracting("errorCode")
+          .isEqualTo(ErrorCode.INVALID_ARGUMENT);
+      assertThat(resourceKeys).isEmpty();
+    }
+  }
+
+  @Test
+  void testIncompletePayloadsAreRejected() {
+    String payload = "{\"function_info\": {\"catalog_name\": \"cat\", \"schema_name\": \"sch\"}}";
+    for (int length = 0; length < payload.length(); length++) {
+      PeekDataHandler handler =
+          new PeekDataHandler(MediaType.JSON, FUNCTION_LOCATORS, new HashMap<>());
+
+      assertThat(feed(handler, payload.substring(0, length), 3)).isEqualTo(0);
+      assertThatThrownBy(handler::endOfInput)
+          .isInstanceOf(BaseException.class)
+          .hasMessageContaining("payload");
+    }
+
+    PeekDataHandler handler =
+        new PeekDataHandler(MediaType.JSON, FUNCTION_LOCATORS, new HashMap<>());
+    assertThat(feed(handler, payload + " ", 3)).isEqualTo(1);
+    handler.endOfInput();
+  }
+
+  @Test
+  void testOtherContentTypesAreRejected() {
+    for (MediaType contentType : Arrays.asList(MediaType.PLAIN_TEXT, MediaType.FORM_DATA, null)) {
+      PeekDataHandler handler =
+          new PeekDataHandler(contentType, FUNCTION_LOCATORS, new HashMap<>());
+
+      assertThatThrownBy(() -> feed(handler, "{}", 2))
+          .isInstanceOf(BaseException.class)
+          .hasMessageContaining("Unsupported content type");
+    }
+
+    Map<SecurableType, Object> resourceKeys = new HashMap<>();
+    PeekDataHandler handler =
+        new PeekDataHandler(MediaType.JSON_UTF_8, FUNCTION_LOCATORS, resourceKeys);
+    assertThat(feed(handler, "{\"function_info\": {\"catalog_name\": \"cat\"}}", 5)).isEqualTo(1);
+    assertThat(resourceKeys).containsEntry(CATALOG, "cat");
+  }
+
+  @Test
+  void testKeysMustBeStrings() {
+    for (String value : List.of("1", "1.5", "true", "{}", "[\"cat\"]")) {
+      String payload = "{\"function_info\": {\"catalog_name\": " + value + "}}";
+      PeekDataHandler handler =
+          new PeekDataHandler(MediaType.JSON, FUNCTION_LOCATORS, new HashMap<>());
+
+      assertThatThrownBy(() -> feed(handler, payload, 4))
+          .as(payload)
+          .isInstanceOf(BaseException.class)
+          .hasMessageContaining("Expected a string");
+    }
+
+    // null is allowed, like a missing key, and other fields may have any type
+    Map<SecurableType, Object> resourceKeys = new HashMap<>();
+    PeekDataHandler handler = new PeekDataHandler(MediaType.JSON, FUNCTION_LOCATORS, resourceKeys);
+    String payload =
+        "{\"function_info\": {\"catalog_name\": null, \"schema_name\": \"sch\", "
+            + "\"is_deterministic\": true, \"position\": 1}}";
+    assertThat(feed(handler, payload, 4)).isEqualTo(1);
+    assertThat(resourceKeys).containsEntry(CATALOG, null).containsEntry(SCHEMA, "sch");
+  }
+
+  @Test
+  void testDuplicateKeysAreRejected() {
+    List<KeyLocator> locators =
+        List.of(payloadLocator(CATALOG, "catalog_name"), payloadLocator(SCHEMA, "schema_name"));
+    for (String payload :
+        List.of(
+            // the service binds the last value, so the first must not be authorized
+            "{\"catalog_name\": \"mine\", \"schema_name\": \"s\", \"catalog_name\": \"victim\"}",
+            "{\"catalog_name\": \"mine\", \"schema_name\": \"s\", \"catalog_name\": {}}",
+            "{\"function_info\": {\"catalog_name\": \"mine\", \"schema_name\": \"s\"}, "
+                + "\"function_info\": {\"catalog_name\": \"victim\"}}")) {
+      for (int chunkSize = 1; chunkSize <= payload.length(); chunkSize++) {
+        PeekDataHandler handler =
+            new PeekDataHandler(
+                MediaType.JSON,
+                payload.contains("function_info") ? FUNCTION_LOCATORS : locators,
+                new HashMap<>());
+        int size = chunkSize;
+        assertThatThrownBy(() -> feed(handler, payload, size))
+            .as(payload)
+            .isInstanceOf(BaseException.class)
+            .hasMessageContaining("Duplicate key");
+      }
+    }
+  }
+
+  @Test
+  void testDuplicatesOutsideTheKeysAreIgnored() {
+    Map<SecurableType, Object> resourceKeys = new HashMap<>();
+    PeekDataHandler handler = new PeekDataHandler(MediaType.JSON, FUNCTION_LOCATORS, resourceKeys);
+    String payload =
+        "{\"function_info\": {\"name\": \"f\", \"name\": \"g\", \"catalog_name\": \"cat\", "
+            + "\"schema_name\": \"sch\", \"properties\": {\"catalog_name\": \"a\", "
+            + "\"catalog_name\": \"b\"}}, \"comment\": \"x\", \"comment\": \"y\"}";
+
+    assertThat(feed(handler, payload, 5)).isEqualTo(1);
+    assertThat(resourceKeys).isEqualTo(Map.of(CATALOG, "cat", SCHEMA, "sch"));
+  }
+}
@@ -0,0 +1,112 @@
+package io.unitycatalog.server.auth.decorator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.unitycatalog.server.auth.JCasbinAuthorizer;
+import io.unitycatalog.server.auth.UnityCatalogAuthorizer;
+import io.unitycatalog.server.model.SecurableType;
+import io.unitycatalog.server.persist.model.Privileges;
+import io.unitycatalog.server.persist.utils.HibernateConfigurator;
+import io.unitycatalog.server.utils.ServerProperties;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class UnityAccessEvaluatorTest {
+  private static final String EXPRESSION =
+      "#authorize(#principal, #catalog, USE_CATALOG) && "
+          + "(#schema == null || #authorize(#principal, #schema, OWNER))";
+
+  private UnityCatalogAuthorizer authorizer;
+  private UnityAccessEvaluator evaluator;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("server.env", "test");
+    ServerProperties serverProperties = new ServerProperties(properties);
+    authorizer = new JCasbinAuthorizer(new HibernateConfigurator(serverProperties));
+    evaluator = new UnityAccessEvaluator(authorizer);
+  }
+
+  @Test
+  void testParsedExpressionsAreReused() {
+    assertThat(evaluator.parse(EXPRESSION)).isSameAs(evaluator.parse(EXPRESSION));
+  }
+
+  @Test
+  void testVariablesDoNotLeakBetweenEvaluations() {
+    UUID principal = UUID.randomUUID();
+    UUID catalog = UUID.randomUUID();
+    UUID schema = UUID.randomUUID();
+    authorizer.grantAuthorization(principal, catalog, Privileges.USE_CATALOG);
+
+    assertThat(
+            evaluator.evaluate(
+                principal,
+                EXPRESSION,
+                Map.of(SecurableType.CATALOG, catalog, SecurableType.SCHEMA, schema)))
+        .isFalse();
+    // #schema from the previous evaluation must not be visible anymore
+    assertThat(evaluator.evaluate(principal, EXPRESSION, Map.of(SecurableType.CATALOG, catalog)))
+        .isTrue();
+  }
+
+  @Test
+  void testFilter() {
+    UUID principal = UUID.randomUUID();
+    List<UUID> catalogs = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      UUID catalog = UUID.randomUUID();
+      catalogs.add(catalog);
+      if (i % 2 == 0) {
+        authorizer.grantAuthorization(principal, catalog, Privileges.USE_CATALOG);
+      }
+    }
+    List<UUID> expected = List.of(catalogs.get(0), catalogs.get(2));
+
+    evaluator.filter(principal, EXPRESSION, catalogs, c -> Map.of(SecurableType.CATALOG, c));
+    assertThat(catalogs).isEqualTo(expected);
+  }
+
+  @Test
+  void testFilterChildren() {
+    UUID principal = UUID.randomUUID();
+    UUID ownedSchema = UUID.randomUUID();
+    UUID usableSchema = UUID.randomUUID();
+    UUID hiddenSchema = UUID.randomUUID();
+    authorizer.grantAuthorization(principal, ownedSchema, Privileges.OWNER);
+    authorizer.grantAuthorization(principal, usableSchema, Privileges.USE_SCHEMA);
+
+    // each table is a (schema, table) pair
+    List<UUID[]> tables = new ArrayList<>();
+    List<UUID[]> expected = new ArrayList<>();
+    for (UUID schema : List.of(ownedSchema, usableSchema, hiddenSchema)) {
+      for (int i = 0; i < 4; i++) {
+        UUID[] table = {schema, UUID.randomUUID()};
+        tables.add(table);
+        if (schema == ownedSchema || (schema == usableSchema && i % 2 == 0)) {
+          expected.add(table);
+        }
+        if (i % 2 == 0) {
+          authorizer.grantAuthorization(principal, table[1], Privileges.SELECT);
+        }
+      }
+    }
+
+    evaluator.filterChildren(
+        principal,
+        "#authorize(#principal, #schema, OWNER)",
+        "#authorize(#principal, #schema, USE_SCHEMA)",
+        tables,
+        t -> Map.of(SecurableType.SCHEMA, t[0]),
+        t -> t[1],
+        Privileges.OWNER,
+        Privileges.SELECT);
+    assertThat(tables).containsExactlyElementsOf(expected);
+  }
+}
@@ -0,0 +1,108 @@
+package io.unitycatalog.server.persist;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import io.unitycatalog.server.model.ColumnInfo;
+import io.unitycatalog.server.model.ColumnTypeName;
+import io.unitycatalog.server.model.CreateCatalog;
+import io.unitycatalog.server.model.CreateSchema;
+import io.unitycatalog.server.model.CreateTable;
+import io.unitycatalog.server.model.DataSourceFormat;
+import io.unitycatalog.server.model.ListTablesResponse;
+import io.unitycatalog.server.model.TableInfo;
+import io.unitycatalog.server.model.TableType;
+import io.unitycatalog.server.persist.utils.HibernateConfigurator;
+import io.unitycatalog.server.utils.ServerProperties;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TableRepositoryTest {
+  private static final String CATALOG_NAME = "catalog";
+  private static final String SCHEMA_NAME = "schema";
+  private static final int NUM_TABLES = 40;
+
+  private SessionFactory sessionFactory;
+  private TableRepository tableRepository;
+
+  @BeforeEach
+  void setUp() {
+    Properties properties = new Properties();
+    properties.setProperty("server.env", "test");
+    // gathers the session factory statistics checked below
+    properties.setProperty("server.metrics", "enable");
+    ServerProperties serverProperties = new ServerProperties(properties);
+    sessionFactory = new HibernateConfigurator(serverProperties).getSessionFactory();
+    Repositories repositories = new Repositories(sessionFactory, serverProperties);
+    tableRepository = repositories.getTableRepository();
+
+    // the repositories look up the caller from the request context
+    ServiceRequestContext ctx = ServiceRequestContext.of(HttpRequest.of(HttpMethod.POST, "/"));
+    try (SafeCloseable ignored = ctx.push()) {
+      repositories.getCatalogRepository().addCatalog(new CreateCatalog().name(CATALOG_NAME));
+      repositories
+          .getSchemaRepository()
+          .createSchema(new CreateSchema().name(SCHEMA_NAME).catalogName(CATALOG_NAME));
+      List<ColumnInfo> columns =
+          List.of(
+              column("id", "int", ColumnTypeName.INT, 0),
+              column("name", "string", ColumnTypeName.STRING, 1));
+      for (int i = 0; i < NUM_TABLES; i++) {
+        tableRepository.createTable(
+            new CreateTable()
+                .name(String.format("table_%02d", i))
+                .catalogName(CATALOG_NAME)
+                .schemaName(SCHEMA_NAME)
+                .columns(columns)
+                .storageLocation("/tmp/tables/table_" + i)
+                .tableType(TableType.EXTERNAL)
+                .dataSourceFormat(DataSourceFormat.DELTA));
+      }
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    sessionFactory.close();
+  }
+
+  private static ColumnInfo column(
+      String name, String typeText, ColumnTypeName type, int position) {
+    return new ColumnInfo()
+        .name(name)
+        .typeText(typeText)
+        .typeJson("{}")
+        .typeName(type)
+        .position(position)
+        .nullable(true);
+  }
+
+  /** The number of statements listing the first page of tables with their columns takes. */
+  private long statementsToList(int pageSize) {
+    Statistics statistics = sessionFactory.getStatistics();
+    statistics.clear();
+    ListTablesResponse response =
+        tableRepository.listTables(
+            CATALOG_NAME, SCHEMA_NAME, Optional.of(pageSize), Optional.empty(), true, false);
+    assertThat(response.getTables()).hasSize(pageSize);
+    assertThat(response.getTables())
+        .extracting(TableInfo::getColumns)
+        .allSatisfy(columns -> assertThat(columns).hasSize(2));
+    return statistics.getPrepareStatementCount();
+  }
+
+  @Test
+  public void testListingColumnsTakesAConstantNumberOfStatements() {
+    // the columns of a page are fetched with one query rather than one query per table
+    assertThat(statementsToList(NUM_TABLES)).isEqualTo(statementsToList(5));
+  }
+}
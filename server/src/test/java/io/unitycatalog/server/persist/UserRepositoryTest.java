@@ -0,0 +1,114 @@
+package io.unitycatalog.server.persist;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import io.unitycatalog.server.exception.BaseException;
+import io.unitycatalog.server.exception.ErrorCode;
+import io.unitycatalog.server.persist.model.CreateUser;
+import io.unitycatalog.server.persist.utils.HibernateConfigurator;
+import io.unitycatalog.server.service.AuthDecorator;
+import io.unitycatalog.server.utils.ServerProperties;
+import java.util.Properties;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class UserRepositoryTest {
+  private static final String EMAIL = "user@example.com";
+
+  private SessionFactory sessionFactory;
+  private UserRepository userRepository;
+  private Statistics statistics;
+  private UUID userId;
+
+  @BeforeEach
+  void setUp() {
+    Properties properties = new Properties();
+    properties.setProperty("server.env", "test");
+    // gathers the session factory statistics checked below
+    properties.setProperty("server.metrics", "enable");
+    ServerProperties serverProperties = new ServerProperties(properties);
+    sessionFactory = new HibernateConfigurator(serverProperties).getSessionFactory();
+    userRepository = new Repositories(sessionFactory, serverProperties).getUserRepository();
+    userId =
+        UUID.fromString(
+            userRepository
+                .createUser(CreateUser.builder().name("user").email(EMAIL).active(true).build())
+                .getId());
+    statistics = sessionFactory.getStatistics();
+    statistics.clear();
+  }
+
+  @AfterEach
+  void tearDown() {
+    sessionFactory.close();
+  }
+
+  private static ServiceRequestContext newContext(String subject) {
+    ServiceRequestContext ctx = ServiceRequestContext.of(HttpRequest.of(HttpMethod.GET, "/"));
+    if (subject != null) {
+      ctx.setAttr(
+          AuthDecorator.DECODED_JWT_ATTR,
+          JWT.decode(JWT.create().withSubject(subject).sign(Algorithm.none())));
+    }
+    return ctx;
+  }
+
+  @Test
+  void testPrincipalIdFromTheRequestIsUsed() {
+    UUID principalId = UUID.randomUUID();
+    ServiceRequestContext ctx = newContext(EMAIL);
+    ctx.setAttr(AuthDecorator.PRINCIPAL_ID_ATTR, principalId);
+
+    try (SafeCloseable ignored = ctx.push()) {
+      // the id set by the auth decorator wins over the email in the token
+      assertThat(userRepository.findPrincipalId()).isEqualTo(principalId);
+    }
+    assertThat(statistics.getSessionOpenCount()).isZero();
+    assertThat(statistics.getPrepareStatementCount()).isZero();
+  }
+
+  @Test
+  void testPrincipalIdIsLookedUpByEmail() {
+    ServiceRequestContext ctx = newContext(EMAIL);
+
+    try (SafeCloseable ignored = ctx.push()) {
+      assertThat(userRepository.findPrincipalId()).isEqualTo(userId);
+      assertThat(ctx.attr(AuthDecorator.PRINCIPAL_ID_ATTR)).isEqualTo(userId);
+      long sessions = statistics.getSessionOpenCount();
+      assertThat(sessions).isPositive();
+
+      // the id found is kept for the rest of the request
+      assertThat(userRepository.findPrincipalId()).isEqualTo(userId);
+      assertThat(statistics.getSessionOpenCount()).isEqualTo(sessions);
+    }
+  }
+
+  @Test
+  void testPrincipalIdWithoutAKnownUser() {
+    ServiceRequestContext ctx = newContext(null);
+    try (SafeCloseable ignored = ctx.push()) {
+      assertThat(userRepository.findPrincipalId()).isNull();
+    }
+    assertThat(statistics.getSessionOpenCount()).isZero();
+
+    ServiceRequestContext unknown = newContext("unknown@example.com");
+    try (SafeCloseable ignored = unknown.push()) {
+      assertThatThrownBy(userRepository::findPrincipalId)
+          .isInstanceOf(BaseException.class)
+          .extracting("errorCode")
+          .isEqualTo(ErrorCode.NOT_FOUND);
+      assertThat(unknown.attr(AuthDecorator.PRINCIPAL_ID_ATTR)).isNull();
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package io.unitycatalog.server.persist.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.unitycatalog.server.exception.BaseException;
+import io.unitycatalog.server.model.CreateCatalog;
+import io.unitycatalog.server.model.UpdateCatalog;
+import io.unitycatalog.server.persist.CatalogRepository;
+import io.unitycatalog.server.persist.Repositories;
+import io.unitycatalog.server.persist.dao.CatalogInfoDAO;
+import io.unitycatalog.server.utils.ServerProperties;
+import java.util.Properties;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+public class HibernateConfiguratorTest {
+
+  private static Properties testProperties() {
+    Properties properties = new Properties();
+    properties.setProperty("server.env", "test");
+    // gathers the session factory statistics checked below
+    properties.setProperty("server.metrics", "enable");
+    return properties;
+  }
+
+  @Test
+  void testConnectionPoolMetrics() {
+    Properties properties = testProperties();
+    properties.setProperty("server.db.pool.maximum-size", "4");
+    properties.setProperty("server.db.pool.minimum-idle", "1");
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    SessionFactory sessionFactory =
+        new HibernateConfigurator(new ServerProperties(properties), meterRegistry)
+            .getSessionFactory();
+
+    try (Session session = sessionFactory.openSession()) {
+      // the connection is held until the transaction completes
+      Transaction tx = session.beginTransaction();
+      session.createNativeQuery("SELECT 1", Integer.class).getSingleResult();
+      assertThat(meterRegistry.get("hikaricp.connections.active").gauge().value()).isEqualTo(1);
+      tx.commit();
+    }
+    assertThat(meterRegistry.get("hikaricp.connections.max").gauge().value()).isEqualTo(4);
+    assertThat(meterRegistry.get("hikaricp.connections.acquire").timer().count()).isPositive();
+    assertThat(meterRegistry.get("hikaricp.connections.pending").gauge().value()).isZero();
+
+    // the pool is closed with the session factory
+    sessionFactory.close();
+    assertThat(meterRegistry.find("hikaricp.connections").gauge()).isNull();
+  }
+
+  private static Properties cachingProperties() {
+    Properties properties = testProperties();
+    properties.setProperty("server.db.second-level-cache", "enable");
+    return properties;
+  }
+
+  @Test
+  void testSecondLevelCacheIsDisabledByDefault() {
+    ServerProperties serverProperties = new ServerProperties(testProperties());
+    SessionFactory sessionFactory = new HibernateConfigurator(serverProperties).getSessionFactory();
+    CatalogRepository catalogRepository =
+        new Repositories(sessionFactory, serverProperties).getCatalogRepository();
+    Statistics statistics = sessionFactory.getStatistics();
+
+    ServiceRequestContext ctx = ServiceRequestContext.of(HttpRequest.of(HttpMethod.POST, "/"));
+    try (SafeCloseable ignored = ctx.push()) {
+      catalogRepository.addCatalog(new CreateCatalog().name("uncached"));
+      catalogRepository.getCatalog("uncached");
+      catalogRepository.getCatalog("uncached");
+      assertThat(statistics.getQueryCachePutCount()).isZero();
+      assertThat(statistics.getSecondLevelCachePutCount()).isZero();
+    } finally {
+      sessionFactory.close();
+    }
+  }
+
+  @Test
+  void testSecondLevelCache() {
+    ServerProperties serverProperties = new ServerProperties(cachingProperties());
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    SessionFactory sessionFactory =
+        new HibernateConfigurator(serverProperties, meterRegistry).getSessionFactory();
+    CatalogRepository catalogRepository =
+        new Repositories(sessionFactory, serverProperties).getCatalogRepository();
+    Statistics statistics = sessionFactory.getStatistics();
+
+    // the repositories look up the caller from the request context
+    ServiceRequestContext ctx = ServiceRequestContext.of(HttpRequest.of(HttpMethod.POST, "/"));
+    try (SafeCloseable ignored = ctx.push()) {
+      catalogRepository.addCatalog(new CreateCatalog().name("cached"));
+      catalogRepository.getCatalog("cached");
+      statistics.clear();
+      catalogRepository.getCatalog("cached");
+      assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+      // only the properties of the catalog are read from the database
+      assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+      assertThat(
+              meterRegistry
+                  .get("hibernate.cache.query.requests")
+                  .tags("result", "hit")
+                  .functionCounter()
+                  .count())
+          .isEqualTo(1);
+      assertThat(
+              meterRegistry
+                  .get("hibernate.second.level.cache.requests")
+                  .tags("region", CatalogInfoDAO.class.getName(), "result", "miss")
+                  .functionCounter())
+          .isNotNull();
+
+      // updates evict the cached lookups
+      catalogRepository.updateCatalog("cached", new UpdateCatalog().newName("renamed"));
+      assertThatThrownBy(() -> catalogRepository.getCatalog("cached"))
+          .isInstanceOf(BaseException.class);
+      assertThat(catalogRepository.getCatalog("renamed").getName()).isEqualTo("renamed");
+      catalogRepository.deleteCatalog("renamed", false);
+      assertThatThrownBy(() -> catalogRepository.getCatalog("renamed"))
+          .isInstanceOf(BaseException.class);
+    } finally {
+      sessionFactory.close();
+    }
+  }
+
+  @Test
+  void testCachedEntriesExpire() throws InterruptedException {
+    Properties properties = cachingProperties();
+    properties.setProperty("server.db.second-level-cache.ttl", "PT0.5S");
+    ServerProperties serverProperties = new ServerProperties(properties);
+    SessionFactory sessionFactory = new HibernateConfigurator(serverProperties).getSessionFactory();
+    CatalogRepository catalogRepository =
+        new Repositories(sessionFactory, serverProperties).getCatalogRepository();
+    Statistics statistics = sessionFactory.getStatistics();
+
+    ServiceRequestContext ctx = ServiceRequestContext.of(HttpRequest.of(HttpMethod.POST, "/"));
+    try (SafeCloseable ignored = ctx.push()) {
+      catalogRepository.addCatalog(new CreateCatalog().name("expiring"));
+      catalogRepository.getCatalog("expiring");
+      statistics.clear();
+      catalogRepository.getCatalog("expiring");
+      assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+      Thread.sleep(1000);
+      statistics.clear();
+      catalogRepository.getCatalog("expiring");
+      assertThat(statistics.getQueryCacheHitCount()).isZero();
+      assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+    } finally {
+      sessionFactory.close();
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package io.unitycatalog.server.persist.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Ticker;
+import io.unitycatalog.server.utils.ServerProperties;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+public class NamespaceCacheTest {
+
+  @Test
+  public void testLookupsAreCached() {
+    NamespaceCache cache = new NamespaceCache();
+    NamespaceCache.SchemaIds ids =
+        new NamespaceCache.SchemaIds(UUID.randomUUID(), UUID.randomUUID());
+    AtomicInteger loads = new AtomicInteger();
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(
+              cache.getSchemaIds(
+                  "catalog",
+                  "schema",
+                  () -> {
+                    loads.incrementAndGet();
+                    return ids;
+                  }))
+          .isEqualTo(ids);
+    }
+    assertThat(loads.get()).isEqualTo(1);
+    // resolving a schema also caches its catalog
+    assertThat(cache.getCatalogId("catalog", () -> null)).isEqualTo(ids.catalogId());
+  }
+
+  @Test
+  public void testMissesAreNotCached() {
+    NamespaceCache cache = new NamespaceCache();
+    UUID catalogId = UUID.randomUUID();
+
+    assertThat(cache.getCatalogId("catalog", () -> null)).isNull();
+    assertThat(cache.getCatalogId("catalog", () -> catalogId)).isEqualTo(catalogId);
+  }
+
+  @Test
+  public void testInvalidation() {
+    NamespaceCache cache = new NamespaceCache();
+    NamespaceCache.SchemaIds ids =
+        new NamespaceCache.SchemaIds(UUID.randomUUID(), UUID.randomUUID());
+    NamespaceCache.SchemaIds other =
+        new NamespaceCache.SchemaIds(ids.catalogId(), UUID.randomUUID());
+
+    cache.getSchemaIds("catalog", "schema", () -> ids);
+    cache.getSchemaIds("catalog", "other", () -> other);
+
+    cache.invalidateSchema("catalog", "schema");
+    assertThat(cache.getSchemaIds("catalog", "schema", () -> null)).isNull();
+    assertThat(cache.getSchemaIds("catalog", "other", () -> null)).isEqualTo(other);
+
+    cache.invalidateCatalog("catalog");
+    assertThat(cache.getCatalogId("catalog", () -> null)).isNull();
+    assertThat(cache.getSchemaIds("catalog", "other", () -> null)).isNull();
+  }
+
+  @Test
+  public void testConcurrentInvalidationDiscardsLoad() {
+    NamespaceCache cache = new NamespaceCache();
+    UUID staleId = UUID.randomUUID();
+    UUID freshId = UUID.randomUUID();
+
+    // the catalog is renamed while the lookup is still reading the old row
+    UUID loaded =
+        cache.getCatalogId(
+            "catalog",
+            () -> {
+              cache.invalidateCatalog("catalog");
+              return staleId;
+            });
+    assertThat(loaded).isEqualTo(staleId);
+    assertThat(cache.getCatalogId("catalog", () -> freshId)).isEqualTo(freshId);
+  }
+
+  @Test
+  public void testInvalidationIgnoresCase() {
+    NamespaceCache cache = new NamespaceCache();
+    NamespaceCache.SchemaIds ids =
+        new NamespaceCache.SchemaIds(UUID.randomUUID(), UUID.randomUUID());
+
+    // a case-insensitive collation resolves differently cased names to the same rows
+    cache.getSchemaIds("Catalog", "Schema", () -> ids);
+    cache.getSchemaIds("CATALOG", "SCHEMA", () -> ids);
+
+    cache.invalidateSchema("catalog", "schema");
+    assertThat(cache.getSchemaIds("Catalog", "Schema", () -> null)).isNull();
+    assertThat(cache.getSchemaIds("CATALOG", "SCHEMA", () -> null)).isNull();
+    assertThat(cache.getCatalogId("Catalog", () -> null)).isEqualTo(ids.catalogId());
+
+    cache.invalidateCatalog("catalog");
+    assertThat(cache.getCatalogId("Catalog", () -> null)).isNull();
+    assertThat(cache.getCatalogId("CATALOG", () -> null)).isNull();
+  }
+
+  @Test
+  public void testEntriesExpire() {
+    AtomicLong nanos = new AtomicLong();
+    Ticker ticker =
+        new Ticker() {
+          @Override
+          public long read() {
+            return nanos.get();
+          }
+        };
+    NamespaceCache cache = new NamespaceCache(10, Duration.ofMinutes(1), ticker);
+    UUID staleId = UUID.randomUUID();
+    UUID freshId = UUID.randomUUID();
+
+    cache.getCatalogId("catalog", () -> staleId);
+    nanos.addAndGet(Duration.ofSeconds(59).toNanos());
+    assertThat(cache.getCatalogId("catalog", () -> freshId)).isEqualTo(staleId);
+
+    // e.g. the catalog was recreated by another server sharing the database
+    nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+    assertThat(cache.getCatalogId("catalog", () -> freshId)).isEqualTo(freshId);
+  }
+
+  @Test
+  public void testCacheIsDisabledByDefault() {
+    Properties properties = new Properties();
+    NamespaceCache disabled = NamespaceCache.create(new ServerProperties(properties));
+    UUID catalogId = UUID.randomUUID();
+    disabled.getCatalogId("catalog", () -> catalogId);
+    assertThat(disabled.getCatalogId("catalog", () -> null)).isNull();
+
+    properties.setProperty("server.namespace-cache", "enable");
+    NamespaceCache enabled = NamespaceCache.create(new ServerProperties(properties));
+    enabled.getCatalogId("catalog", () -> catalogId);
+    assertThat(enabled.getCatalogId("catalog", () -> null)).isEqualTo(catalogId);
+  }
+}
@@ -0,0 +1,151 @@
+package io.unitycatalog.server.persist.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.unitycatalog.control.model.User;
+import io.unitycatalog.server.persist.utils.VerifiedTokenCache.VerifiedToken;
+import io.unitycatalog.server.utils.MutableClock;
+import io.unitycatalog.server.utils.ServerProperties;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class VerifiedTokenCacheTest {
+  private static final Duration MAX_TTL = Duration.ofMinutes(15);
+  private static final UUID PRINCIPAL_ID = UUID.randomUUID();
+
+  private final AtomicInteger verifications = new AtomicInteger();
+  private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+  private VerifiedTokenCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new VerifiedTokenCache(100, MAX_TTL, clock);
+  }
+
+  private static String createToken(String subject, Instant expiresAt) {
+    return JWT.create().withSubject(subject).withExpiresAt(expiresAt).sign(Algorithm.none());
+  }
+
+  private Supplier<VerifiedToken> verifier(String token, User.StateEnum state) {
+    return () -> {
+      verifications.incrementAndGet();
+      return new VerifiedToken(JWT.decode(token), PRINCIPAL_ID, state);
+    };
+  }
+
+  @Test
+  void testVerifiedTokensAreCached() {
+    String token = createToken("user@example.com", null);
+
+    for (int i = 0; i < 3; i++) {
+      VerifiedToken verifiedToken =
+          cache.getVerifiedToken(token, verifier(token, User.StateEnum.ENABLED));
+      assertThat(verifiedToken.subject()).isEqualTo("user@example.com");
+    }
+    assertThat(verifications.get()).isEqualTo(1);
+
+    String other = createToken("other@example.com", null);
+    assertThat(cache.getVerifiedToken(other, verifier(other, User.StateEnum.DISABLED)).userState())
+        .isEqualTo(User.StateEnum.DISABLED);
+    assertThat(verifications.get()).isEqualTo(2);
+  }
+
+  @Test
+  void testFailedVerificationsAreNotCached() {
+    String token = createToken("user@example.com", null);
+    Supplier<VerifiedToken> failing =
+        () -> {
+          verifications.incrementAndGet();
+          throw new IllegalStateException("invalid token");
+        };
+
+    assertThatThrownBy(() -> cache.getVerifiedToken(token, failing))
+        .isInstanceOf(IllegalStateException.class);
+    cache.getVerifiedToken(token, verifier(token, User.StateEnum.ENABLED));
+    assertThat(verifications.get()).isEqualTo(2);
+  }
+
+  @Test
+  void testEntriesExpireWithTheirToken() {
+    String token = createToken("user@example.com", clock.instant().plus(Duration.ofMinutes(5)));
+    String noExpiry = createToken("user@example.com", null);
+    cache.getVerifiedToken(token, verifier(token, User.StateEnum.ENABLED));
+    cache.getVerifiedToken(noExpiry, verifier(noExpiry, User.StateEnum.ENABLED));
+
+    clock.advance(Duration.ofMinutes(5).minusSeconds(1));
+    cache.getVerifiedToken(token, verifier(token, User.StateEnum.ENABLED));
+    assertThat(verifications.get()).isEqualTo(2);
+
+    clock.advance(Duration.ofSeconds(1));
+    cache.getVerifiedToken(token, verifier(token, User.StateEnum.ENABLED));
+    assertThat(verifications.get()).isEqualTo(3);
+
+    // tokens without an expiry are verified again after the maximum time to live
+    cache.getVerifiedToken(noExpiry, verifier(noExpiry, User.StateEnum.ENABLED));
+    assertThat(verifications.get()).isEqualTo(3);
+    clock.advance(MAX_TTL);
+    cache.getVerifiedToken(noExpiry, verifier(noExpiry, User.StateEnum.ENABLED));
+    assertThat(verifications.get()).isEqualTo(4);
+  }
+
+  @Test
+  void testInvalidateUser() {
+    String token = createToken("user@example.com", null);
+    String other = createToken("other@example.com", null);
+    cache.getVerifiedToken(token, verifier(token, User.StateEnum.ENABLED));
+    cache.getVerifiedToken(other, verifier(other, User.StateEnum.ENABLED));
+
+    cache.invalidateUser("user@example.com");
+    assertThat(cache.getVerifiedToken(token, verifier(token, User.StateEnum.DISABLED)).userState())
+        .isEqualTo(User.StateEnum.DISABLED);
+    cache.getVerifiedToken(other, verifier(other, User.StateEnum.DISABLED));
+    assertThat(verifications.get()).isEqualTo(3);
+  }
+
+  @Test
+  void testStaleVerificationIsNotCached() {
+    String token = createToken("user@example.com", null);
+    // the user is disabled while the token is being verified
+    cache.getVerifiedToken(
+        token,
+        () -> {
+          cache.invalidateUser("user@example.com");
+          return verifier(token, User.StateEnum.ENABLED).get();
+        });
+
+    assertThat(cache.getVerifiedToken(token, verifier(token, User.StateEnum.DISABLED)).userState())
+        .isEqualTo(User.StateEnum.DISABLED);
+  }
+
+  @Test
+  void testInvalidationIgnoresCase() {
+    // the user is looked up, and updated, with an email differing in case from the subject
+    String token = createToken("User@Example.com", null);
+    cache.getVerifiedToken(token, verifier(token, User.StateEnum.ENABLED));
+
+    cache.invalidateUser("user@example.com");
+    assertThat(cache.getVerifiedToken(token, verifier(token, User.StateEnum.DISABLED)).userState())
+        .isEqualTo(User.StateEnum.DISABLED);
+  }
+
+  @Test
+  void testCacheCanBeDisabled() {
+    Properties properties = new Properties();
+    properties.setProperty("server.token-cache", "disable");
+    VerifiedTokenCache disabled = VerifiedTokenCache.create(new ServerProperties(properties));
+    String token = createToken("user@example.com", null);
+
+    disabled.getVerifiedToken(token, verifier(token, User.StateEnum.ENABLED));
+    disabled.getVerifiedToken(token, verifier(token, User.StateEnum.ENABLED));
+    assertThat(verifications.get()).isEqualTo(2);
+  }
+}
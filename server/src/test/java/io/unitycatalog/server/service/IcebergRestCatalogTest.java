@@ -2,6 +2,7 @@ package io.unitycatalog.server.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.linecorp.armeria.client.WebClient;
 import com.linecorp.armeria.common.AggregatedHttpResponse;
 import com.linecorp.armeria.common.auth.AuthToken;
@@ -28,6 +29,7 @@ import io.unitycatalog.server.utils.RESTObjectMapper;
 import io.unitycatalog.server.utils.TestUtils;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -162,6 +164,86 @@ public class IcebergRestCatalogTest extends BaseServerTest {
     }
   }
 
+  @Test
+  public void testListNamespacesSpanningPages() throws ApiException, IOException {
+    catalogOperations.createCatalog(new CreateCatalog().name(TestUtils.CATALOG_NAME));
+    List<Namespace> expected = new ArrayList<>();
+    for (int i = 0; i < 150; i++) {
+      String schemaName = String.format("schema_%03d", i);
+      schemaOperations.createSchema(
+          new CreateSchema().catalogName(TestUtils.CATALOG_NAME).name(schemaName));
+      expected.add(Namespace.of(schemaName));
+    }
+
+    AggregatedHttpResponse resp = client.get(TEST_BASE_PREFIX + "/namespaces").aggregate().join();
+    assertThat(resp.status().code()).isEqualTo(200);
+    assertThat(
+            RESTObjectMapper.mapper()
+                .readValue(resp.contentUtf8(), ListNamespacesResponse.class)
+                .namespaces())
+        .containsExactlyElementsOf(expected);
+  }
+
+  @Test
+  public void testListTablesPages() throws Exception {
+    catalogOperations.createCatalog(new CreateCatalog().name(TestUtils.CATALOG_NAME));
+    schemaOperations.createSchema(
+        new CreateSchema().catalogName(TestUtils.CATALOG_NAME).name(TestUtils.SCHEMA_NAME));
+    String metadataLocation =
+        Objects.requireNonNull(this.getClass().getResource("/iceberg.metadata.json"))
+            .toURI()
+            .toString();
+    for (String name : List.of("t1", "t2", "t3", "t4")) {
+      TableInfo tableInfo =
+          tableOperations.createTable(
+              new CreateTable()
+                  .name(name)
+                  .catalogName(TestUtils.CATALOG_NAME)
+                  .schemaName(TestUtils.SCHEMA_NAME)
+                  .columns(List.of())
+                  .storageLocation("/tmp/" + name)
+                  .tableType(TableType.EXTERNAL)
+                  .dataSourceFormat(DataSourceFormat.DELTA));
+      // t3 is not a uniform table
+      if (!name.equals("t3")) {
+        try (Session session = hibernateConfigurator.getSessionFactory().openSession()) {
+          Transaction tx = session.beginTransaction();
+          TableInfoDAO tableInfoDAO =
+              session.get(TableInfoDAO.class, UUID.fromString(tableInfo.getTableId()));
+          tableInfoDAO.setUniformIcebergMetadataLocation(metadataLocation);
+          tx.commit();
+        }
+      }
+    }
+    String tablesPath = TEST_BASE_PREFIX + "/namespaces/" + TestUtils.SCHEMA_NAME + "/tables";
+
+    // without a page token all tables are returned at once
+    AggregatedHttpResponse resp = client.get(tablesPath).aggregate().join();
+    assertThat(resp.status().code()).isEqualTo(200);
+    assertThat(resp.contentUtf8()).doesNotContain("next-page-token");
+    assertThat(
+            RESTObjectMapper.mapper()
+                .readValue(resp.contentUtf8(), ListTablesResponse.class)
+                .identifiers())
+        .containsExactly(
+            TableIdentifier.of(TestUtils.SCHEMA_NAME, "t1"),
+            TableIdentifier.of(TestUtils.SCHEMA_NAME, "t2"),
+            TableIdentifier.of(TestUtils.SCHEMA_NAME, "t4"));
+
+    resp = client.get(tablesPath + "?pageToken=&pageSize=2").aggregate().join();
+    JsonNode page = RESTObjectMapper.mapper().readTree(resp.contentUtf8());
+    assertThat(page.get("identifiers")).hasSize(2);
+    assertThat(page.get("next-page-token").asText()).isEqualTo("t2");
+
+    resp = client.get(tablesPath + "?pageToken=t2&pageSize=2").aggregate().join();
+    assertThat(
+            RESTObjectMapper.mapper()
+                .readValue(resp.contentUtf8(), ListTablesResponse.class)
+                .identifiers())
+        .containsExactly(TableIdentifier.of(TestUtils.SCHEMA_NAME, "t4"));
+    assertThat(resp.contentUtf8()).doesNotContain("next-page-token");
+  }
+
   @Test
   public void testTable() throws ApiException, IOException, URISyntaxException {
     CreateCatalog createCatalog =
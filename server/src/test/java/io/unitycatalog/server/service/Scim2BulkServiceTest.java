@@ -0,0 +1,166 @@
+package io.unitycatalog.server.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.unboundid.scim2.common.types.Email;
+import com.unboundid.scim2.common.types.UserResource;
+import com.unboundid.scim2.common.utils.JsonUtils;
+import io.unitycatalog.control.model.User;
+import io.unitycatalog.server.auth.UnityCatalogAuthorizer;
+import io.unitycatalog.server.exception.Scim2RuntimeException;
+import io.unitycatalog.server.persist.Repositories;
+import io.unitycatalog.server.persist.UserRepository;
+import io.unitycatalog.server.persist.model.CreateUser;
+import io.unitycatalog.server.persist.utils.HibernateConfigurator;
+import io.unitycatalog.server.service.Scim2BulkService.BulkOperation;
+import io.unitycatalog.server.service.Scim2BulkService.BulkOperationResponse;
+import io.unitycatalog.server.service.Scim2BulkService.BulkRequest;
+import io.unitycatalog.server.service.Scim2BulkService.BulkResponse;
+import io.unitycatalog.server.utils.ServerProperties;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class Scim2BulkServiceTest {
+  private SessionFactory sessionFactory;
+  private UserRepository userRepository;
+  private UnityCatalogAuthorizer authorizer;
+  private Scim2BulkService bulkService;
+
+  @BeforeEach
+  void setUp() {
+    Properties properties = new Properties();
+    properties.setProperty("server.env", "test");
+    // gathers the session factory statistics checked below
+    properties.setProperty("server.metrics", "enable");
+    ServerProperties serverProperties = new ServerProperties(properties);
+    sessionFactory = new HibernateConfigurator(serverProperties).getSessionFactory();
+    Repositories repositories = new Repositories(sessionFactory, serverProperties);
+    userRepository = repositories.getUserRepository();
+    authorizer = mock(UnityCatalogAuthorizer.class);
+    bulkService = new Scim2BulkService(authorizer, repositories);
+  }
+
+  @AfterEach
+  void tearDown() {
+    sessionFactory.close();
+  }
+
+  private static BulkOperation create(String bulkId, String email) {
+    UserResource userResource = new UserResource().setDisplayName(email);
+    userResource.setEmails(List.of(new Email().setValue(email).setPrimary(true)));
+    userResource.setExternalId("ext-" + email);
+    return new BulkOperation("POST", bulkId, "/Users", JsonUtils.valueToNode(userResource));
+  }
+
+  private static BulkOperation deactivate(String path) {
+    ObjectNode patch = JsonUtils.getJsonNodeFactory().objectNode();
+    patch.putArray("schemas").add("urn:ietf:params:scim:api:messages:2.0:PatchOp");
+    patch
+        .putArray("Operations")
+        .addObject()
+        .put("op", "replace")
+        .putObject("value")
+        .put("active", false);
+    return new BulkOperation("PATCH", null, path, patch);
+  }
+
+  private BulkResponse bulk(Integer failOnErrors, BulkOperation... operations) {
+    return bulkService.bulk(new BulkRequest(null, failOnErrors, List.of(operations)));
+  }
+
+  @Test
+  void testOperationsAreAppliedInOrder() {
+    User existing =
+        userRepository.createUser(
+            CreateUser.builder().name("existing").email("existing@example.com").build());
+
+    BulkResponse response =
+        bulk(
+            null,
+            create("alice", "alice@example.com"),
+            create("bob", "bob@example.com"),
+            deactivate("/Users/bulkId:bob"),
+            new BulkOperation("DELETE", null, "/Users/" + existing.getId(), null),
+            create("duplicate", "alice@example.com"),
+            new BulkOperation("DELETE", null, "/Users/" + UUID.randomUUID(), null));
+
+    assertThat(response.operations())
+        .extracting(BulkOperationResponse::status)
+        .containsExactly("201", "201", "200", "204", "409", "404");
+    assertThat(response.operations().get(4).response().getScimType()).isEqualTo("uniqueness");
+    assertThat(response.operations().get(0).bulkId()).isEqualTo("alice");
+    String aliceLocation = response.operations().get(0).location();
+    String aliceId = aliceLocation.substring(aliceLocation.lastIndexOf('/') + 1);
+
+    assertThat(userRepository.getUser(aliceId).getEmail()).isEqualTo("alice@example.com");
+    assertThat(userRepository.getUser(aliceId).getExternalId()).isEqualTo("ext-alice@example.com");
+    assertThat(userRepository.getUserByEmail("bob@example.com").getState())
+        .isEqualTo(User.StateEnum.DISABLED);
+    assertThat(userRepository.getUser(existing.getId()).getState())
+        .isEqualTo(User.StateEnum.DISABLED);
+    verify(authorizer).clearAuthorizationsForPrincipal(UUID.fromString(existing.getId()));
+  }
+
+  @Test
+  void testFailOnErrors() {
+    userRepository.createUser(
+        CreateUser.builder().name("alice").email("alice@example.com").build());
+
+    BulkResponse response =
+        bulk(
+            1,
+            create("bob", "bob@example.com"),
+            create("alice", "alice@example.com"),
+            create("carol", "carol@example.com"));
+
+    // processing stops at the first error
+    assertThat(response.operations())
+        .extracting(BulkOperationResponse::status)
+        .containsExactly("201", "409");
+    assertThat(userRepository.getUserByEmail("bob@example.com")).isNotNull();
+    assertThatThrownBy(() -> userRepository.getUserByEmail("carol@example.com"))
+        .hasMessageContaining("User not found");
+  }
+
+  @Test
+  void testMalformedRequestsAreRejected() {
+    assertThatThrownBy(() -> bulk(null, new BulkOperation("PUT", null, "/Users/x", null)))
+        .isInstanceOf(Scim2RuntimeException.class);
+    assertThatThrownBy(
+            () -> bulk(null, create("a", "a@example.com"), deactivate("/Users/bulkId:unknown")))
+        .isInstanceOf(Scim2RuntimeException.class);
+    // nothing is applied
+    assertThat(userRepository.listUsers(0, 10, (UserRepository.UserFilter) null)).isEmpty();
+  }
+
+  @Test
+  void testUsersAreInsertedInBatches() {
+    List<BulkOperation> operations = new ArrayList<>();
+    for (int i = 0; i < Scim2BulkService.MAX_OPERATIONS; i++) {
+      operations.add(create("user" + i, "user" + i + "@example.com"));
+    }
+    Statistics statistics = sessionFactory.getStatistics();
+    statistics.clear();
+
+    BulkResponse response = bulkService.bulk(new BulkRequest(null, null, operations));
+
+    assertThat(response.operations()).allMatch(operation -> operation.status().equals("201"));
+    assertThat(userRepository.listUsers(0, 2000, (UserRepository.UserFilter) null))
+        .hasSize(Scim2BulkService.MAX_OPERATIONS);
+    // two bulk transactions, each with a single lookup query, and the listing above
+    assertThat(statistics.getTransactionCount()).isEqualTo(2 + 1);
+    assertThat(statistics.getEntityInsertCount()).isEqualTo(Scim2BulkService.MAX_OPERATIONS);
+    assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+  }
+}
@@ -0,0 +1,74 @@
+package io.unitycatalog.server.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.linecorp.armeria.common.HttpStatus;
+import com.unboundid.scim2.common.utils.JsonUtils;
+import io.unitycatalog.control.model.User;
+import io.unitycatalog.server.auth.UnityCatalogAuthorizer;
+import io.unitycatalog.server.persist.Repositories;
+import io.unitycatalog.server.persist.UserRepository;
+import io.unitycatalog.server.persist.model.CreateUser;
+import io.unitycatalog.server.persist.utils.HibernateConfigurator;
+import io.unitycatalog.server.utils.ServerProperties;
+import java.util.Properties;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class Scim2UserServiceTest {
+  private SessionFactory sessionFactory;
+  private UserRepository userRepository;
+  private Scim2UserService userService;
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    Properties properties = new Properties();
+    properties.setProperty("server.env", "test");
+    ServerProperties serverProperties = new ServerProperties(properties);
+    sessionFactory = new HibernateConfigurator(serverProperties).getSessionFactory();
+    Repositories repositories = new Repositories(sessionFactory, serverProperties);
+    userRepository = repositories.getUserRepository();
+    userService = new Scim2UserService(mock(UnityCatalogAuthorizer.class), repositories);
+    user =
+        userRepository.createUser(
+            CreateUser.builder().name("alice").email("alice@example.com").build());
+  }
+
+  @AfterEach
+  void tearDown() {
+    sessionFactory.close();
+  }
+
+  /** Patch the user with the given operation and return the resulting state of the user. */
+  private User.StateEnum patch(String operation) throws Exception {
+    JsonNode patchRequest =
+        JsonUtils.getObjectReader()
+            .readTree(
+                "{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:PatchOp\"],"
+                    + "\"Operations\":["
+                    + operation
+                    + "]}");
+    assertThat(userService.patchUser(user.getId(), patchRequest).aggregate().join().status())
+        .isEqualTo(HttpStatus.OK);
+    return userRepository.getUser(user.getId()).getState();
+  }
+
+  @Test
+  void testPatchWithBareValue() throws Exception {
+    assertThat(patch("{\"op\":\"replace\",\"value\":false}")).isEqualTo(User.StateEnum.DISABLED);
+    assertThat(patch("{\"op\":\"replace\",\"value\":true}")).isEqualTo(User.StateEnum.ENABLED);
+  }
+
+  @Test
+  void testPatchWithObjectValue() throws Exception {
+    assertThat(patch("{\"op\":\"replace\",\"value\":{\"active\":false}}"))
+        .isEqualTo(User.StateEnum.DISABLED);
+    assertThat(patch("{\"op\":\"replace\",\"path\":\"active\",\"value\":true}"))
+        .isEqualTo(User.StateEnum.ENABLED);
+  }
+}
@@ -0,0 +1,156 @@
+package io.unitycatalog.server.service.credential.aws;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.server.Server;
+import io.unitycatalog.server.service.credential.CredentialContext;
+import io.unitycatalog.server.utils.MutableClock;
+import io.unitycatalog.server.utils.ServerProperties;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.sts.model.Credentials;
+
+public class AwsCredentialVendorTest {
+  private static final String STORAGE_BASE = "s3://bucket";
+
+  private static final String ASSUME_ROLE_RESPONSE =
+      """
+      <AssumeRoleResponse xmlns="https://sts.amazonaws.com/doc/2011-06-15/">
+        <AssumeRoleResult>
+          <Credentials>
+            <AccessKeyId>accessKey%d</AccessKeyId>
+            <SecretAccessKey>secretKey</SecretAccessKey>
+            <SessionToken>sessionToken</SessionToken>
+            <Expiration>%s</Expiration>
+          </Credentials>
+          <AssumedRoleUser>
+            <Arn>arn:aws:sts::123456789012:assumed-role/role/session</Arn>
+            <AssumedRoleId>id:session</AssumedRoleId>
+          </AssumedRoleUser>
+        </AssumeRoleResult>
+        <ResponseMetadata><RequestId>%d</RequestId></ResponseMetadata>
+      </AssumeRoleResponse>
+      """;
+
+  private final AtomicInteger assumeRoleCalls = new AtomicInteger();
+  private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+  private Server sts;
+  private AwsCredentialVendor vendor;
+
+  @BeforeEach
+  void setUp() {
+    // A stand-in for STS that answers every request with credentials valid for an hour
+    sts =
+        Server.builder()
+            .http(0)
+            .service(
+                "/",
+                (ctx, req) -> {
+                  int call = assumeRoleCalls.incrementAndGet();
+                  String body =
+                      ASSUME_ROLE_RESPONSE.formatted(
+                          call, clock.instant().plus(AwsCredentialVendor.CREDENTIAL_DURATION), call);
+                  return HttpResponse.of(HttpStatus.OK, MediaType.XML_UTF_8, body);
+                })
+            .build();
+    sts.start().join();
+
+    ServerProperties serverProperties = mock(ServerProperties.class);
+    when(serverProperties.getS3Configurations())
+        .thenReturn(
+            Map.of(
+                STORAGE_BASE,
+                S3StorageConfig.builder()
+                    .bucketPath(STORAGE_BASE)
+                    .region("us-west-2")
+                    .awsRoleArn("arn:aws:iam::123456789012:role/role")
+                    .accessKey("accessKey")
+                    .secretKey("secretKey")
+                    .stsEndpoint("http://127.0.0.1:" + sts.activeLocalPort())
+                    .build()));
+    vendor = new AwsCredentialVendor(serverProperties, clock);
+  }
+
+  @AfterEach
+  void tearDown() {
+    vendor.close();
+    sts.stop().join();
+  }
+
+  private Credentials vend(String location, CredentialContext.Privilege... privileges) {
+    return vendor.vendAwsCredentials(
+        CredentialContext.create(URI.create(location), Set.of(privileges)));
+  }
+
+  @Test
+  void testCredentialsAreShared() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Callable<Credentials>> tasks = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        String location = i % 2 == 0 ? STORAGE_BASE + "/table" : STORAGE_BASE + "/table/";
+        tasks.add(() -> vend(location, CredentialContext.Privilege.SELECT));
+      }
+      for (Future<Credentials> credentials : executor.invokeAll(tasks)) {
+        assertThat(credentials.get().accessKeyId()).isEqualTo("accessKey1");
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(assumeRoleCalls).hasValue(1);
+
+    // credentials are scoped to the privileges and locations
+    assertThat(vend(STORAGE_BASE + "/table", CredentialContext.Privilege.UPDATE).accessKeyId())
+        .isEqualTo("accessKey2");
+    assertThat(vend(STORAGE_BASE + "/other", CredentialContext.Privilege.SELECT).accessKeyId())
+        .isEqualTo("accessKey3");
+    assertThat(assumeRoleCalls).hasValue(3);
+  }
+
+  @Test
+  void testCredentialsAreRefreshedAheadOfExpiry() {
+    assertThat(vend(STORAGE_BASE + "/table", CredentialContext.Privilege.SELECT).accessKeyId())
+        .isEqualTo("accessKey1");
+
+    clock.advance(
+        AwsCredentialVendor.CREDENTIAL_DURATION
+            .minus(AwsCredentialVendor.REFRESH_AHEAD)
+            .minusSeconds(1));
+    assertThat(vend(STORAGE_BASE + "/table", CredentialContext.Privilege.SELECT).accessKeyId())
+        .isEqualTo("accessKey1");
+    clock.advance(Duration.ofSeconds(2));
+    assertThat(vend(STORAGE_BASE + "/table", CredentialContext.Privilege.SELECT).accessKeyId())
+        .isEqualTo("accessKey2");
+    assertThat(assumeRoleCalls).hasValue(2);
+  }
+
+  @Test
+  void testClose() {
+    assertThat(vend(STORAGE_BASE + "/table", CredentialContext.Privilege.SELECT).accessKeyId())
+        .isEqualTo("accessKey1");
+    vendor.close();
+    // the cached credentials are still served, and a closed client is replaced when needed
+    assertThat(vend(STORAGE_BASE + "/table", CredentialContext.Privilege.SELECT).accessKeyId())
+        .isEqualTo("accessKey1");
+    assertThat(vend(STORAGE_BASE + "/other", CredentialContext.Privilege.SELECT).accessKeyId())
+        .isEqualTo("accessKey2");
+  }
+}
@@ -0,0 +1,97 @@
+package io.unitycatalog.server.service.credential.azure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.azure.storage.file.datalake.models.UserDelegationKey;
+import io.unitycatalog.server.service.credential.CredentialContext;
+import io.unitycatalog.server.utils.MutableClock;
+import io.unitycatalog.server.utils.ServerProperties;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AzureCredentialVendorTest {
+  private static final String ACCOUNT = "uctest.dfs.core.windows.net";
+
+  private final AtomicInteger keyRequests = new AtomicInteger();
+  private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+  private AzureCredentialVendor vendor;
+
+  @BeforeEach
+  void setUp() {
+    ServerProperties serverProperties = mock(ServerProperties.class);
+    when(serverProperties.getAdlsConfigurations())
+        .thenReturn(
+            Map.of(
+                "uctest",
+                ADLSStorageConfig.builder()
+                    .tenantId("tenantId")
+                    .clientId("clientId")
+                    .clientSecret("clientSecret")
+                    .build()));
+    // Hand out keys locally instead of asking Azure for them
+    vendor =
+        new AzureCredentialVendor(serverProperties, clock) {
+          @Override
+          UserDelegationKey fetchUserDelegationKey(
+              String account,
+              ADLSStorageConfig config,
+              OffsetDateTime start,
+              OffsetDateTime expiry) {
+            assertThat(account).isEqualTo(ACCOUNT);
+            int request = keyRequests.incrementAndGet();
+            return new UserDelegationKey()
+                .setSignedObjectId("objectId")
+                .setSignedTenantId("tenantId")
+                .setSignedStart(start)
+                .setSignedExpiry(expiry)
+                .setSignedService("b")
+                .setSignedVersion("2024-05-04")
+                .setValue(Base64.getEncoder().encodeToString(("key-" + request).getBytes()));
+          }
+        };
+  }
+
+  private AzureCredential vend(String path) {
+    return vendor.vendAzureCredential(
+        CredentialContext.create(
+            URI.create("abfss://container@" + ACCOUNT + path),
+            Set.of(CredentialContext.Privilege.SELECT)));
+  }
+
+  @Test
+  void testDelegationKeyIsReused() {
+    Set<String> sasTokens = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      AzureCredential credential = vend("/table_" + i);
+      assertThat(credential.getExpirationTimeInEpochMillis())
+          .isEqualTo(clock.instant().plus(AzureCredentialVendor.SAS_LIFETIME).toEpochMilli());
+      sasTokens.add(credential.getSasToken());
+    }
+    assertThat(sasTokens).hasSize(100);
+    assertThat(keyRequests).hasValue(1);
+  }
+
+  @Test
+  void testDelegationKeyIsRenewedBeforeSasWouldOutliveIt() {
+    vend("/table");
+    clock.advance(
+        AzureCredentialVendor.DELEGATION_KEY_LIFETIME.minus(AzureCredentialVendor.SAS_LIFETIME));
+    vend("/table");
+    assertThat(keyRequests).hasValue(1);
+
+    clock.advance(Duration.ofSeconds(1));
+    vend("/table");
+    assertThat(keyRequests).hasValue(2);
+  }
+}
@@ -0,0 +1,137 @@
+package io.unitycatalog.server.service.credential.gcp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.common.util.concurrent.Uninterruptibles;
+import io.unitycatalog.server.service.credential.CredentialContext;
+import io.unitycatalog.server.utils.ServerProperties;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+public class GcpCredentialVendorTest {
+  private final AtomicInteger sourceLoads = new AtomicInteger();
+  private final AtomicInteger exchanges = new AtomicInteger();
+  private final List<CredentialContext> exchangedContexts = new CopyOnWriteArrayList<>();
+  private volatile Duration tokenLifetime = Duration.ofHours(1);
+  private final ScheduledExecutorService refresher = mock(ScheduledExecutorService.class);
+  private GcpCredentialVendor vendor;
+
+  @BeforeEach
+  void setUp() {
+    ServerProperties serverProperties = mock(ServerProperties.class);
+    when(serverProperties.getGcsConfigurations()).thenReturn(Map.of("gs://bucket", "/key.json"));
+    // Exchange tokens locally instead of asking the GCP token service for them
+    vendor =
+        new GcpCredentialVendor(serverProperties, refresher) {
+          @Override
+          GoogleCredentials loadSourceCredentials(String storageBase) {
+            sourceLoads.incrementAndGet();
+            return GoogleCredentials.create(new AccessToken("source", null));
+          }
+
+          @Override
+          AccessToken exchangeToken(GoogleCredentials credentials, CredentialContext context) {
+            int exchange = exchanges.incrementAndGet();
+            exchangedContexts.add(context);
+            // give concurrent requests a chance to pile up behind this exchange
+            Uninterruptibles.sleepUninterruptibly(50, TimeUnit.MILLISECONDS);
+            return new AccessToken(
+                "token-" + exchange, Date.from(Instant.now().plus(tokenLifetime)));
+          }
+        };
+  }
+
+  private AccessToken vend(String location) {
+    return vendor.vendGcpToken(
+        CredentialContext.create(URI.create(location), Set.of(CredentialContext.Privilege.SELECT)));
+  }
+
+  @Test
+  void testConcurrentRequestsShareOneExchange() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Callable<AccessToken>> tasks = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        tasks.add(() -> vend("gs://bucket/table/"));
+      }
+      for (Future<AccessToken> token : executor.invokeAll(tasks)) {
+        assertThat(token.get().getTokenValue()).isEqualTo("token-1");
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(exchanges).hasValue(1);
+
+    assertThat(vend("gs://bucket/other").getTokenValue()).isEqualTo("token-2");
+    assertThat(sourceLoads).hasValue(1);
+  }
+
+  @Test
+  void testTokensAreRefreshedInTheBackground() {
+    assertThat(vend("gs://bucket/table").getTokenValue()).isEqualTo("token-1");
+    ArgumentCaptor<Runnable> refresh = ArgumentCaptor.forClass(Runnable.class);
+    ArgumentCaptor<Long> delay = ArgumentCaptor.forClass(Long.class);
+    verify(refresher).schedule(refresh.capture(), delay.capture(), eq(TimeUnit.MILLISECONDS));
+    // the refresh is due ahead of the expiry of the token
+    assertThat(delay.getValue())
+        .isBetween(
+            tokenLifetime.minus(GcpCredentialVendor.REFRESH_AHEAD).minusSeconds(10).toMillis(),
+            tokenLifetime.minus(GcpCredentialVendor.REFRESH_AHEAD).toMillis());
+
+    refresh.getValue().run();
+    assertThat(exchanges).hasValue(2);
+    assertThat(vend("gs://bucket/table").getTokenValue()).isEqualTo("token-2");
+    assertThat(exchanges).hasValue(2);
+    // the refreshed token is refreshed in turn
+    verify(refresher, times(2)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+  }
+
+  @Test
+  void testCloseStopsTheRefresher() {
+    vendor.close();
+    verify(refresher).shutdownNow();
+  }
+
+  @Test
+  void testTokensAreScopedToTheRequestedLocations() {
+    assertThat(vend("gs://bucket/tables/t1/").getTokenValue()).isEqualTo("token-1");
+    // without the trailing slash the location also covers e.g. tables/t10, so it gets its own token
+    assertThat(vend("gs://bucket/tables/t1").getTokenValue()).isEqualTo("token-2");
+    assertThat(vend("gs://bucket/tables/t1/").getTokenValue()).isEqualTo("token-1");
+
+    assertThat(exchangedContexts)
+        .extracting(CredentialContext::getLocations)
+        .containsExactly(List.of("gs://bucket/tables/t1/"), List.of("gs://bucket/tables/t1"));
+    assertThat(GcpCredentialVendor.availabilityExpression(URI.create("gs://bucket/tables/t1/")))
+        .isEqualTo(
+            "resource.name.startsWith('projects/_/buckets/bucket/objects/tables/t1/') || "
+                + "api.getAttribute('storage.googleapis.com/objectListPrefix', '')"
+                + ".startsWith('tables/t1/')");
+  }
+}
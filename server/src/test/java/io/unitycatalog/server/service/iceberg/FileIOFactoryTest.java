@@ -0,0 +1,149 @@
+package io.unitycatalog.server.service.iceberg;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.auth.oauth2.AccessToken;
+import io.unitycatalog.server.exception.BaseException;
+import io.unitycatalog.server.exception.ErrorCode;
+import io.unitycatalog.server.service.credential.CredentialContext;
+import io.unitycatalog.server.service.credential.CredentialOperations;
+import io.unitycatalog.server.utils.MutableClock;
+import io.unitycatalog.server.utils.ServerProperties;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.iceberg.io.FileIO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FileIOFactoryTest {
+  private final List<CredentialContext> vendedContexts = new CopyOnWriteArrayList<>();
+  private final List<FileIO> createdFileIOs = new CopyOnWriteArrayList<>();
+  private volatile CountDownLatch vending = new CountDownLatch(0);
+  private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+  private CredentialOperations credentialOps;
+  private FileIOFactory fileIOFactory;
+
+  @BeforeEach
+  void setUp() {
+    credentialOps = mock(CredentialOperations.class);
+    when(credentialOps.vendGcpToken(any()))
+        .thenAnswer(
+            invocation -> {
+              vendedContexts.add(invocation.getArgument(0));
+              vending.countDown();
+              // wait for the other requests of a test to be vending too
+              assertThat(vending.await(5, TimeUnit.SECONDS)).isTrue();
+              return new AccessToken("token", Date.from(clock.instant().plus(Duration.ofHours(1))));
+            });
+    // Hand out mocks so that closing the replaced FileIOs can be verified
+    fileIOFactory =
+        new FileIOFactory(
+            credentialOps, mock(ServerProperties.class), clock, Duration.ofMillis(10)) {
+          @Override
+          protected CachedFileIO getGCSFileIO(CredentialContext context) {
+            CachedFileIO fileIO = super.getGCSFileIO(context);
+            FileIO mockFileIO = mock(FileIO.class);
+            createdFileIOs.add(mockFileIO);
+            return new CachedFileIO(mockFileIO, fileIO.expiration());
+          }
+        };
+  }
+
+  @Test
+  void testFileIOIsSharedWithinStorageBase() {
+    FileIO fileIO = fileIOFactory.getFileIO(URI.create("gs://bucket/table1/metadata.json"));
+    assertThat(fileIOFactory.getFileIO(URI.create("gs://bucket/table2/metadata.json")))
+        .isSameAs(fileIO);
+    assertThat(fileIOFactory.getFileIO(URI.create("gs://other/table/metadata.json")))
+        .isNotSameAs(fileIO);
+
+    // credentials are scoped to the storage base instead of the first table read
+    assertThat(vendedContexts).hasSize(2);
+    assertThat(vendedContexts.get(0).getLocations()).containsExactly("gs://bucket");
+  }
+
+  @Test
+  void testFileIOIsReplacedBeforeCredentialsExpire() {
+    URI location = URI.create("gs://bucket/table/metadata.json");
+    FileIO fileIO = fileIOFactory.getFileIO(location);
+
+    clock.advance(Duration.ofHours(1).minus(FileIOFactory.EXPIRY_MARGIN).minusSeconds(1));
+    assertThat(fileIOFactory.getFileIO(location)).isSameAs(fileIO);
+    verify(fileIO, never()).close();
+
+    clock.advance(Duration.ofSeconds(1));
+    assertThat(fileIOFactory.getFileIO(location)).isNotSameAs(fileIO);
+    verify(fileIO, timeout(1000)).close();
+  }
+
+  @Test
+  void testFallbackFileIOIsReplacedSoon() {
+    when(credentialOps.vendAwsCredential(any()))
+        .thenThrow(new BaseException(ErrorCode.INTERNAL, "STS unavailable"));
+    URI location = URI.create("s3://bucket/table/metadata.json");
+    FileIO fileIO = fileIOFactory.getFileIO(location);
+    assertThat(fileIOFactory.getFileIO(location)).isSameAs(fileIO);
+
+    // vending is retried after a transient failure
+    clock.advance(FileIOFactory.FALLBACK_TTL);
+    assertThat(fileIOFactory.getFileIO(location)).isNotSameAs(fileIO);
+    verify(credentialOps, times(2)).vendAwsCredential(any());
+  }
+
+  @Test
+  void testFileIOsAreClosedWithTheFactory() {
+    URI location = URI.create("gs://bucket/table/metadata.json");
+    FileIO replaced = fileIOFactory.getFileIO(location);
+    clock.advance(Duration.ofHours(1));
+    FileIO cached = fileIOFactory.getFileIO(location);
+
+    fileIOFactory.close();
+    verify(replaced).close();
+    verify(cached).close();
+  }
+
+  @Test
+  void testLocalFileIOIsNotCached() {
+    URI location = URI.create("file:///tmp/table/metadata.json");
+    assertThat(fileIOFactory.getFileIO(location)).isNotSameAs(fileIOFactory.getFileIO(location));
+    assertThat(vendedContexts).isEmpty();
+  }
+
+  @Test
+  void testCredentialsAreVendedOutsideOfTheMapLock() throws Exception {
+    // both requests wait in the credential vend until the other one has entered it as well
+    vending = new CountDownLatch(2);
+    CompletableFuture<FileIO> first =
+        CompletableFuture.supplyAsync(
+            () -> fileIOFactory.getFileIO(URI.create("gs://bucket/table1/metadata.json")));
+    CompletableFuture<FileIO> second =
+        CompletableFuture.supplyAsync(
+            () -> fileIOFactory.getFileIO(URI.create("gs://bucket/table2/metadata.json")));
+
+    FileIO fileIO = first.get(10, TimeUnit.SECONDS);
+    assertThat(second.get(10, TimeUnit.SECONDS)).isSameAs(fileIO);
+    assertThat(vendedContexts).hasSize(2);
+    assertThat(fileIOFactory.getFileIO(URI.create("gs://bucket/table3/metadata.json")))
+        .isSameAs(fileIO);
+    verify(fileIO, never()).close();
+    // the FileIO that lost the race is closed
+    assertThat(createdFileIOs).hasSize(2);
+    createdFileIOs.stream()
+        .filter(created -> created != fileIO)
+        .forEach(created -> verify(created, timeout(1000)).close());
+  }
+}
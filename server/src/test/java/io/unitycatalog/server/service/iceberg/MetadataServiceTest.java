@@ -3,6 +3,8 @@ package io.unitycatalog.server.service.iceberg;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.adobe.testing.s3mock.junit5.S3MockExtension;
@@ -10,6 +12,7 @@ import com.amazonaws.util.IOUtils;
 import java.util.Objects;
 import lombok.SneakyThrows;
 import org.apache.iceberg.TableMetadata;
+import org.apache.iceberg.TableMetadataParser;
 import org.apache.iceberg.aws.s3.S3FileIO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -79,4 +82,25 @@ public class MetadataServiceTest {
     TableMetadata tableMetadata = metadataService.readTableMetadata(metadataLocation);
     assertThat(tableMetadata.uuid()).isEqualTo("55d4dc69-5b14-4483-bfc8-f33b80f99f99");
   }
+
+  @SneakyThrows
+  @Test
+  public void testTableMetadataIsCachedByLocation() {
+    when(mockFileIOFactory.getFileIO(any())).thenReturn(new SimpleLocalFileIO());
+    String metadataLocation =
+        Objects.requireNonNull(this.getClass().getResource("/iceberg.metadata.json"))
+            .toURI()
+            .toString();
+    TableMetadata tableMetadata = metadataService.readTableMetadata(metadataLocation);
+    assertThat(metadataService.readTableMetadata(metadataLocation)).isSameAs(tableMetadata);
+    assertThat(metadataService.readTableMetadataJson(metadataLocation))
+        .isEqualTo(TableMetadataParser.toJson(tableMetadata));
+    verify(mockFileIOFactory, times(1)).getFileIO(any());
+
+    // metadata that does not fit into the cache is read again
+    metadataService = new MetadataService(mockFileIOFactory, 1);
+    metadataService.readTableMetadata(metadataLocation);
+    metadataService.readTableMetadata(metadataLocation);
+    verify(mockFileIOFactory, times(3)).getFileIO(any());
+  }
 }
@@ -0,0 +1,238 @@
+package io.unitycatalog.server.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.JwkProvider;
+import com.auth0.jwk.NetworkException;
+import com.auth0.jwk.RateLimitReachedException;
+import com.auth0.jwk.SigningKeyNotFoundException;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.google.common.base.Ticker;
+import io.unitycatalog.server.security.SecurityContext;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class JwksOperationsTest {
+  private static final String ISSUER = "https://issuer.example.com";
+
+  private final Map<String, Jwk> keys = new HashMap<>();
+  private int providerLoads;
+  private RuntimeException providerLoadFailure;
+  private Error providerLoadError;
+  private int keyFetches;
+  private boolean keySetUnreachable;
+  private long nanos;
+  private JwksOperations jwksOperations;
+
+  @BeforeEach
+  void setUp() {
+    Ticker ticker =
+        new Ticker() {
+          @Override
+          public long read() {
+            return nanos;
+          }
+        };
+    JwkProvider provider =
+        keyId -> {
+          keyFetches++;
+          if (keySetUnreachable) {
+            throw new NetworkException("Cannot obtain jwks from url", null);
+          }
+          Jwk jwk = keys.get(keyId);
+          if (jwk == null) {
+            throw new SigningKeyNotFoundException("No key found with kid " + keyId, null);
+          }
+          return jwk;
+        };
+    jwksOperations =
+        new JwksOperations(null, ticker) {
+          @Override
+          public JwkProvider loadJwkProvider(String issuer) {
+            providerLoads++;
+            if (providerLoadFailure != null) {
+              throw providerLoadFailure;
+            }
+            if (providerLoadError != null) {
+              throw providerLoadError;
+            }
+            return provider;
+          }
+        };
+  }
+
+  private void advance(Duration duration) {
+    nanos += duration.toNanos();
+  }
+
+  private static KeyPair generateKeyPair() throws Exception {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(2048);
+    return generator.generateKeyPair();
+  }
+
+  private void publishKey(String keyId, KeyPair keyPair) {
+    RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+    Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    keys.put(
+        keyId,
+        Jwk.fromValues(
+            Map.of(
+                "kid",
+                keyId,
+                "kty",
+                "RSA",
+                "alg",
+                "RS256",
+                "n",
+                encoder.encodeToString(publicKey.getModulus().toByteArray()),
+                "e",
+                encoder.encodeToString(publicKey.getPublicExponent().toByteArray()))));
+  }
+
+  private static String sign(String keyId, KeyPair keyPair) {
+    return JWT.create()
+        .withIssuer(ISSUER)
+        .withKeyId(keyId)
+        .withSubject("user@example.com")
+        .sign(Algorithm.RSA256(null, (RSAPrivateKey) keyPair.getPrivate()));
+  }
+
+  @Test
+  void testVerifierIsCachedPerKey() throws Exception {
+    KeyPair keyPair = generateKeyPair();
+    publishKey("key1", keyPair);
+
+    JWTVerifier verifier = jwksOperations.verifierForIssuerAndKey(ISSUER, "key1");
+    assertThat(jwksOperations.verifierForIssuerAndKey(ISSUER, "key1")).isSameAs(verifier);
+    assertThat(verifier.verify(sign("key1", keyPair)).getSubject()).isEqualTo("user@example.com");
+    assertThat(providerLoads).isEqualTo(1);
+    assertThat(keyFetches).isEqualTo(1);
+
+    // the verifier is recreated from the current key set once it expires
+    advance(JwksOperations.VERIFIER_TTL);
+    assertThat(jwksOperations.verifierForIssuerAndKey(ISSUER, "key1")).isNotSameAs(verifier);
+    assertThat(providerLoads).isEqualTo(1);
+    assertThat(keyFetches).isEqualTo(2);
+  }
+
+  @Test
+  void testUnknownKeyIsRemembered() throws Exception {
+    assertThatThrownBy(() -> jwksOperations.verifierForIssuerAndKey(ISSUER, "key2"))
+        .isInstanceOf(SigningKeyNotFoundException.class);
+    assertThatThrownBy(() -> jwksOperations.verifierForIssuerAndKey(ISSUER, "key2"))
+        .isInstanceOf(SigningKeyNotFoundException.class);
+    assertThat(keyFetches).isEqualTo(1);
+
+    // a key rotated in is picked up once the unknown key is forgotten
+    KeyPair keyPair = generateKeyPair();
+    publishKey("key2", keyPair);
+    advance(JwksOperations.UNKNOWN_KEY_TTL);
+    JWTVerifier verifier = jwksOperations.verifierForIssuerAndKey(ISSUER, "key2");
+    assertThat(verifier.verify(sign("key2", keyPair)).getSubject()).isEqualTo("user@example.com");
+    assertThat(keyFetches).isEqualTo(2);
+  }
+
+  @Test
+  void testKeySetFetchesAreRateLimited() throws Exception {
+    for (int i = 0; i < JwksOperations.MAX_KEY_SET_FETCHES; i++) {
+      String keyId = "random" + i;
+      assertThatThrownBy(() -> jwksOperations.verifierForIssuerAndKey(ISSUER, keyId))
+          .isInstanceOf(SigningKeyNotFoundException.class);
+    }
+    assertThat(keyFetches).isEqualTo(JwksOperations.MAX_KEY_SET_FETCHES);
+
+    // further keys are rejected without fetching the key set until the window ends
+    KeyPair keyPair = generateKeyPair();
+    publishKey("key3", keyPair);
+    assertThatThrownBy(() -> jwksOperations.verifierForIssuerAndKey(ISSUER, "key3"))
+        .isInstanceOf(RateLimitReachedException.class);
+    assertThat(keyFetches).isEqualTo(JwksOperations.MAX_KEY_SET_FETCHES);
+    // keys of other issuers are not affected
+    assertThat(jwksOperations.verifierForIssuerAndKey("https://other.example.com", "key3"))
+        .isNotNull();
+
+    advance(JwksOperations.KEY_SET_FETCH_WINDOW);
+    JWTVerifier verifier = jwksOperations.verifierForIssuerAndKey(ISSUER, "key3");
+    assertThat(verifier.verify(sign("key3", keyPair)).getSubject()).isEqualTo("user@example.com");
+  }
+
+  private void exhaustKeySetFetches(String issuer) {
+    for (int i = 0; i < JwksOperations.MAX_KEY_SET_FETCHES; i++) {
+      String keyId = "bogus" + i;
+      assertThatThrownBy(() -> jwksOperations.verifierForIssuerAndKey(issuer, keyId))
+          .isInstanceOf(SigningKeyNotFoundException.class);
+    }
+    assertThatThrownBy(() -> jwksOperations.verifierForIssuerAndKey(issuer, "bogus"))
+        .isInstanceOf(RateLimitReachedException.class);
+  }
+
+  @Test
+  void testKnownKeysAreNotRateLimited() throws Exception {
+    KeyPair keyPair = generateKeyPair();
+    publishKey("key5", keyPair);
+    jwksOperations.verifierForIssuerAndKey(ISSUER, "key5");
+
+    // the verifier of a valid key expires while made-up key ids used up the key set fetches
+    advance(JwksOperations.VERIFIER_TTL);
+    exhaustKeySetFetches(ISSUER);
+    int fetches = keyFetches;
+    JWTVerifier verifier = jwksOperations.verifierForIssuerAndKey(ISSUER, "key5");
+    assertThat(verifier.verify(sign("key5", keyPair)).getSubject()).isEqualTo("user@example.com");
+    assertThat(keyFetches).isEqualTo(fetches + 1);
+
+    // a known key the issuer rotated out is rejected
+    keys.remove("key5");
+    advance(JwksOperations.VERIFIER_TTL);
+    assertThatThrownBy(() -> jwksOperations.verifierForIssuerAndKey(ISSUER, "key5"))
+        .isInstanceOf(SigningKeyNotFoundException.class);
+  }
+
+  @Test
+  void testKnownKeyIsReusedWhenKeySetIsUnreachable() throws Exception {
+    KeyPair keyPair = generateKeyPair();
+    publishKey("key6", keyPair);
+    jwksOperations.verifierForIssuerAndKey(ISSUER, "key6");
+
+    keySetUnreachable = true;
+    advance(JwksOperations.VERIFIER_TTL);
+    JWTVerifier verifier = jwksOperations.verifierForIssuerAndKey(ISSUER, "key6");
+    assertThat(verifier.verify(sign("key6", keyPair)).getSubject()).isEqualTo("user@example.com");
+    assertThatThrownBy(() -> jwksOperations.verifierForIssuerAndKey(ISSUER, "key7"))
+        .isInstanceOf(NetworkException.class);
+  }
+
+  @Test
+  void testInternalKeysAreNotRateLimited() {
+    for (int i = 0; i <= JwksOperations.MAX_KEY_SET_FETCHES; i++) {
+      String keyId = "bogus" + i;
+      assertThatThrownBy(
+              () -> jwksOperations.verifierForIssuerAndKey(SecurityContext.Issuers.INTERNAL, keyId))
+          .isInstanceOf(SigningKeyNotFoundException.class);
+    }
+  }
+
+  @Test
+  void testLoadFailuresAreRethrown() {
+    providerLoadFailure = new IllegalStateException("unreachable issuer");
+    assertThatThrownBy(() -> jwksOperations.verifierForIssuerAndKey(ISSUER, "key4"))
+        .isSameAs(providerLoadFailure);
+
+    providerLoadFailure = null;
+    providerLoadError = new AssertionError("broken issuer");
+    assertThatThrownBy(() -> jwksOperations.verifierForIssuerAndKey(ISSUER, "key4"))
+        .isSameAs(providerLoadError);
+  }
+}
@@ -0,0 +1,216 @@
+package io.unitycatalog.server.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.unboundid.scim2.common.exceptions.ScimException;
+import com.unboundid.scim2.common.filters.Filter;
+import com.unboundid.scim2.common.utils.FilterEvaluator;
+import com.unboundid.scim2.common.utils.Parser;
+import io.unitycatalog.control.model.User;
+import io.unitycatalog.server.persist.Repositories;
+import io.unitycatalog.server.persist.UserRepository;
+import io.unitycatalog.server.persist.model.CreateUser;
+import io.unitycatalog.server.persist.model.UpdateUser;
+import io.unitycatalog.server.persist.utils.HibernateConfigurator;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class Scim2UserFiltersTest {
+  private SessionFactory sessionFactory;
+  private UserRepository userRepository;
+
+  @BeforeEach
+  void setUp() {
+    Properties properties = new Properties();
+    properties.setProperty("server.env", "test");
+    ServerProperties serverProperties = new ServerProperties(properties);
+    sessionFactory = new HibernateConfigurator(serverProperties).getSessionFactory();
+    userRepository = new Repositories(sessionFactory, serverProperties).getUserRepository();
+
+    createUser("Alice", "Alice@Example.com", "okta-1");
+    createUser("Bob", "bob@example.com", "okta-2");
+    createUser("Carol", "carol_1@other.org", null);
+    User dave = createUser("Dave", "dave%@example.com", "okta-3");
+    userRepository.updateUser(dave.getId(), UpdateUser.builder().active(false).build());
+  }
+
+  @AfterEach
+  void tearDown() {
+    sessionFactory.close();
+  }
+
+  private User createUser(String name, String email, String externalId) {
+    return userRepository.createUser(
+        CreateUser.builder().name(name).email(email).externalId(externalId).build());
+  }
+
+  private List<String> listUsers(String filter) {
+    UserRepository.UserFilter userFilter =
+        Scim2UserFilters.toUserFilter(parse(filter)).orElseThrow();
+    return userRepository.listUsers(0, 100, userFilter).stream().map(User::getName).toList();
+  }
+
+  /** The names of the users the filter matches when evaluated in memory. */
+  private List<String> evaluate(String filter) {
+    Filter scimFilter = parse(filter);
+    FilterEvaluator filterEvaluator = new FilterEvaluator();
+    return userRepository
+        .listUsers(
+            0,
+            100,
+            user -> {
+              try {
+                return scimFilter.visit(
+                    filterEvaluator,
+                    Scim2Utils.asUserResource(user).asGenericScimResource().getObjectNode());
+              } catch (ScimException e) {
+                throw new RuntimeException(e);
+              }
+            })
+        .stream()
+        .map(User::getName)
+        .toList();
+  }
+
+  private static Filter parse(String filter) {
+    try {
+      return Parser.parseFilter(filter);
+    } catch (ScimException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Test
+  void testFiltersMatchInMemoryEvaluation() {
+    for (String filter :
+        List.of(
+            "userName eq \"alice@example.com\"",
+            "userName eq \"nobody@example.com\"",
+            "userName sw \"B\"",
+            "userName co \"example\"",
+            "userName ew \".org\"",
+            "userName co \"_\"",
+            "userName co \"%\"",
+            "emails.value eq \"BOB@example.com\"",
+            "emails[value sw \"carol\"]",
+            "externalId eq \"okta-2\"",
+            "externalId sw \"okta\"",
+            "active eq true",
+            "active eq false",
+            "userName co \"example\" and active eq true",
+            "externalId eq \"okta-1\" or userName sw \"carol\"",
+            "(userName sw \"a\" or userName sw \"b\") and externalId co \"okta\"")) {
+      assertThat(listUsers(filter)).as(filter).containsExactlyElementsOf(evaluate(filter));
+    }
+  }
+
+  @Test
+  void testSchemaQualifiedAttributes() {
+    assertThat(
+            listUsers("urn:ietf:params:scim:schemas:core:2.0:User:userName eq \"bob@example.com\""))
+        .containsExactly("Bob");
+  }
+
+  @Test
+  void testExternalIdIsCaseSensitive() {
+    assertThat(listUsers("externalId eq \"OKTA-1\"")).isEmpty();
+    assertThat(listUsers("externalId eq \"okta-1\"")).containsExactly("Alice");
+  }
+
+  @Test
+  void testUnsupportedFilters() {
+    for (String filter :
+        List.of(
+            "displayName eq \"Alice\"",
+            "userName ne \"alice@example.com\"",
+            "not (active eq true)",
+            "externalId pr",
+            "meta.created gt \"2024-01-01T00:00:00Z\"",
+            "active eq \"true\"",
+            "emails[type eq \"work\"]",
+            "userName eq \"alice@example.com\" or displayName eq \"Bob\"")) {
+      assertThat(Scim2UserFilters.toUserFilter(parse(filter))).as(filter).isEmpty();
+    }
+  }
+
+  @Test
+  void testOffsetPagination() {
+    assertThat(userRepository.listUsers(0, 2, (UserRepository.UserFilter) null))
+        .extracting(User::getName)
+        .containsExactly("Alice", "Bob");
+    assertThat(userRepository.listUsers(2, 2, (UserRepository.UserFilter) null))
+        .extracting(User::getName)
+        .containsExactly("Carol", "Dave");
+    assertThat(listUsers("active eq true")).containsExactly("Alice", "Bob", "Carol");
+    assertThat(
+            userRepository.listUsers(
+                1, 1, Scim2UserFilters.toUserFilter(parse("active eq true")).orElseThrow()))
+        .extracting(User::getName)
+        .containsExactly("Bob");
+  }
+
+  /** The query plans of the statements the database ran that compare the given column. */
+  private List<String> queryPlans(String column, Runnable queries) {
+    List<String> plans = new ArrayList<>();
+    try (Session session = sessionFactory.openSession()) {
+      session.doWork(
+          connection -> connection.createStatement().execute("SET QUERY_STATISTICS TRUE"));
+      try {
+        queries.run();
+        session.doWork(
+            connection -> {
+              ResultSet statements =
+                  connection
+                      .createStatement()
+                      .executeQuery(
+                          "SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS");
+              while (statements.next()) {
+                String sql = statements.getString(1);
+                if (sql.contains(column + "=?")) {
+                  ResultSet plan = connection.createStatement().executeQuery("EXPLAIN " + sql);
+                  plan.next();
+                  plans.add(plan.getString(1));
+                }
+              }
+            });
+      } finally {
+        session.doWork(
+            connection -> connection.createStatement().execute("SET QUERY_STATISTICS FALSE"));
+      }
+    }
+    return plans;
+  }
+
+  @Test
+  void testEmailEqualityIsAnIndexLookup() {
+    List<String> plans =
+        queryPlans(
+            "email_lower",
+            () ->
+                assertThat(listUsers("userName eq \"ALICE@example.com\""))
+                    .containsExactly("Alice"));
+    assertThat(plans).singleElement().asString().containsIgnoringCase("uc_users_email_lower_idx");
+  }
+
+  @Test
+  void testLowerCaseEmailsOfExistingUsers() {
+    // users saved before the lower-cased email was stored
+    try (Session session = sessionFactory.openSession()) {
+      Transaction tx = session.beginTransaction();
+      session.createNativeMutationQuery("UPDATE uc_users SET email_lower = NULL").executeUpdate();
+      tx.commit();
+    }
+    assertThat(listUsers("userName eq \"alice@example.com\"")).isEmpty();
+
+    userRepository.initLowerCaseEmailsIfNeeded();
+    assertThat(listUsers("userName eq \"alice@example.com\"")).containsExactly("Alice");
+  }
+}